@@ -0,0 +1,25 @@
+package bench.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Entry point of benchmarks.jar: the standard JMH command line, with the GC profiler always
+// attached so every result carries gc.alloc.rate.norm (bytes allocated per operation).
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        Runner runner = new Runner(new OptionsBuilder().parent(cli).addProfiler(GCProfiler.class).build());
+        if (cli.shouldHelp()) {
+            cli.showHelp();
+        } else if (cli.shouldList()) {
+            runner.list();
+        } else if (cli.shouldListProfilers()) {
+            cli.listProfilers();
+        } else {
+            runner.run();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package bench.jmh;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import events.EventSink;
+import events.Events;
+import exceptions.InvalidOperationException;
+import interfaces.FuelConsumable;
+import loadtest.FleetGenerator;
+import managers.FleetManager;
+import vehicles.Vehicle;
+
+// Fleet-wide operations, 1 km per vehicle: the serial startAllJourneys/getTotalFuelConsumption
+// loops (parallelism 0) against the fork-join variants on a pool of 1, 2 and 4 threads. Events go
+// to the no-op sink, so the numbers are the work itself; every vehicle is refuelled between
+// iterations so none runs dry mid-measurement.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BulkOperationBenchmark {
+    @Param({"100000", "1000000"})
+    public int fleetSize;
+
+    @Param({"0", "1", "2", "4"})
+    public int parallelism;
+
+    private FleetManager manager;
+    private List<Vehicle> vehicles;
+    private ForkJoinPool pool;
+    private EventSink previous;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        previous = Events.setSink(null);
+        vehicles = new FleetGenerator(42, FleetGenerator.Mix.ROAD_HEAVY).generate(fleetSize);
+        manager = new FleetManager();
+        for (Vehicle v : vehicles) manager.addVehicle(v);
+        if (parallelism > 0) pool = new ForkJoinPool(parallelism);
+    }
+
+    @Setup(Level.Iteration)
+    public void refuel() throws Exception {
+        for (Vehicle v : vehicles) {
+            if (v instanceof FuelConsumable f && f.getFuelLevel() < 1_000) {
+                try {
+                    manager.withVehicle(v.getId(), x -> ((FuelConsumable) x).refuel(1_000));
+                } catch (InvalidOperationException e) {
+                    // sailing cargo ships take no fuel
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (pool != null) pool.shutdown();
+        Events.setSink(previous);
+    }
+
+    @Benchmark
+    public Object journeys() {
+        if (pool == null) {
+            manager.startAllJourneys(1);
+            return manager;
+        }
+        return manager.startAllJourneysParallel(1, pool);
+    }
+
+    @Benchmark
+    public Object fuel() {
+        if (pool == null) return manager.getTotalFuelConsumption(1);
+        return manager.consumeFuelParallel(1, pool);
+    }
+}
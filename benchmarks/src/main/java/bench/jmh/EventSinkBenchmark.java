@@ -0,0 +1,68 @@
+package bench.jmh;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import events.*;
+import vehicles.Car;
+
+// Vehicle moves per second with each event sink installed; every move publishes one MOVED event.
+// console writes to a discarding stream, so only the PrintStream locking and formatting count;
+// json is the structured sink on a discarding stream; ring-* put the ring buffer in front of
+// them. A full ring drops events instead of blocking, so the ring scores are the caller's cost.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventSinkBenchmark {
+    private static final int FLEET = 10_000;
+
+    @Param({"console", "no-op", "json", "ring-console", "ring-json"})
+    public String sink;
+
+    private final List<Car> fleet = new ArrayList<>(FLEET);
+    private EventSink installed;
+    private EventSink previous;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        for (int i = 0; i < FLEET; i++) {
+            fleet.add(new Car("V" + i, "Sim", 120, 4, 0, 0, false));
+        }
+        PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+        installed = switch (sink) {
+            case "console" -> new ConsoleEventSink(discard);
+            case "no-op" -> NoOpEventSink.INSTANCE;
+            case "json" -> new StructuredEventSink(OutputStream.nullOutputStream());
+            case "ring-console" -> new RingBufferEventSink(new ConsoleEventSink(discard));
+            case "ring-json" -> new RingBufferEventSink(new StructuredEventSink(OutputStream.nullOutputStream()));
+            default -> throw new IllegalArgumentException("unknown sink " + sink);
+        };
+        previous = Events.setSink(installed);
+    }
+
+    // a car covers 15 km per litre; top every tank up so no move runs out mid-iteration
+    @Setup(Level.Iteration)
+    public void refuel() throws Exception {
+        for (Car car : fleet) {
+            if (car.getFuelLevel() < 1_000_000) car.refuel(1_000_000);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Events.setSink(previous);
+        if (installed instanceof RingBufferEventSink r) r.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FLEET)
+    public void move() throws Exception {
+        for (Car car : fleet) car.move(1);
+    }
+}
@@ -0,0 +1,92 @@
+package bench.jmh;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import org.openjdk.jmh.annotations.*;
+import events.EventSink;
+import events.Events;
+import managers.FleetManager;
+import vehicles.*;
+
+// Mixed read/write workload against FleetManager at 1, 4 and 16 threads: as-is (read-write lock
+// plus id stripes, global=false) and with every call funnelled through one global lock.
+// The mix is 85% id reads, 10% single-vehicle moves, 4% add/remove and 1% reports.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FleetContentionBenchmark {
+    @Param({"100000"})
+    public int fleetSize;
+
+    @Param({"false", "true"})
+    public boolean global;
+
+    private FleetManager manager;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicInteger threads = new AtomicInteger();
+    private EventSink previous;
+
+    // each benchmark thread draws its own ops and adds/removes its own extra ids
+    @State(Scope.Thread)
+    public static class Worker {
+        int thread;
+        Random random;
+
+        @Setup(Level.Trial)
+        public void setUp(FleetContentionBenchmark bench) {
+            thread = bench.threads.getAndIncrement();
+            random = new Random(thread);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        previous = Events.setSink(null);
+        manager = new FleetManager();
+        for (int i = 0; i < fleetSize; i++) {
+            Car car = new Car("C" + i, "Model" + (i % 50), 120, 4, i % 12_000, 0, false);
+            car.refuel(1_000_000);
+            manager.addVehicle(car);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Events.setSink(previous);
+    }
+
+    @Benchmark @Threads(1) public Object mixed1(Worker w) throws Exception { return op(w); }
+    @Benchmark @Threads(4) public Object mixed4(Worker w) throws Exception { return op(w); }
+    @Benchmark @Threads(16) public Object mixed16(Worker w) throws Exception { return op(w); }
+
+    private Object op(Worker w) throws Exception {
+        if (!global) return mixedOp(w);
+        lock.lock();
+        try {
+            return mixedOp(w);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Object mixedOp(Worker w) throws Exception {
+        int p = w.random.nextInt(100);
+        if (p < 85) {
+            return manager.getById("C" + w.random.nextInt(fleetSize));
+        } else if (p < 95) {
+            manager.withVehicle("C" + w.random.nextInt(fleetSize), v -> v.move(1));
+            return null;
+        } else if (p < 99) {
+            String id = "X" + w.thread + "-" + w.random.nextInt(1000);
+            if (manager.remove(id) == null) manager.addVehicle(new Car(id, "Extra", 100, 4, 0, 0, false));
+            return null;
+        } else {
+            return manager.generateReport();
+        }
+    }
+}
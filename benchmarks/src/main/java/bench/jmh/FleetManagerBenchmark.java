@@ -0,0 +1,120 @@
+package bench.jmh;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import managers.FleetManager;
+import interfaces.CargoCarrier;
+import vehicles.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FleetManagerBenchmark {
+
+    // a fresh vehicle per invocation so addVehicle never sees a duplicate id
+    @State(Scope.Thread)
+    public static class Incoming {
+        private long next;
+        Vehicle vehicle;
+
+        @Setup(Level.Invocation)
+        public void setUp(FleetState fleet) {
+            vehicle = fleet.generator.next("bench-" + next++);
+        }
+    }
+
+    @Benchmark
+    public Vehicle addThenRemove(FleetState fleet, Incoming in) throws Exception {
+        fleet.manager.addVehicle(in.vehicle);
+        fleet.manager.removeVehicle(in.vehicle.getId());
+        return in.vehicle;
+    }
+
+    @Benchmark
+    public String generateReport(FleetState fleet) {
+        return fleet.manager.generateReport();
+    }
+
+    @Benchmark
+    public List<String> searchByExactType(FleetState fleet) {
+        return fleet.manager.searchByType(Truck.class);
+    }
+
+    @Benchmark
+    public List<String> searchByInterface(FleetState fleet) {
+        return fleet.manager.searchByType(LandVehicle.class);
+    }
+
+    // cached orders: the first read after a change to the key pays for the rebuild
+    @Benchmark
+    public List<Vehicle> sortedByEfficiency(FleetState fleet) {
+        return fleet.manager.getSorted(FleetManager.SortKey.EFFICIENCY);
+    }
+
+    @Benchmark
+    public List<Vehicle> sortedBySpeed(FleetState fleet) {
+        return fleet.manager.getSorted(FleetManager.SortKey.SPEED);
+    }
+
+    @Benchmark
+    public List<Vehicle> sortedByModelName(FleetState fleet) {
+        return fleet.manager.getSorted(FleetManager.SortKey.MODEL);
+    }
+
+    @Benchmark
+    public List<Vehicle> sortedByMileage(FleetState fleet) {
+        return fleet.manager.getSorted(FleetManager.SortKey.MILEAGE);
+    }
+
+    // one vehicle drives, so the mileage order is rebuilt on every read
+    @Benchmark
+    public List<Vehicle> sortedByMileageAfterChange(FleetState fleet) throws Exception {
+        fleet.manager.withVehicle(fleet.vehicles.get(0).getId(), v -> v.setCurrentMileage(1));
+        return fleet.manager.getSorted(FleetManager.SortKey.MILEAGE);
+    }
+
+    @Benchmark
+    public List<Vehicle> topTenByMileage(FleetState fleet) {
+        return fleet.manager.top(FleetManager.SortKey.MILEAGE, 10);
+    }
+
+    @Benchmark
+    public List<Vehicle> mileagePage(FleetState fleet) {
+        return fleet.manager.page(FleetManager.SortKey.MILEAGE, fleet.fleetSize / 2, 50);
+    }
+
+    @Benchmark
+    public List<Vehicle> fastestAvailableTrucks(FleetState fleet) {
+        return fleet.manager.top(FleetManager.SortKey.SPEED, 20, v -> v instanceof Truck t && !t.needsMaintenance());
+    }
+
+    @Benchmark
+    public List<Vehicle> mileageNearService(FleetState fleet) {
+        return fleet.manager.range(FleetManager.SortKey.MILEAGE, 9_500, 10_000);
+    }
+
+    @Benchmark
+    public Vehicle mileageP99(FleetState fleet) {
+        return fleet.manager.percentile(FleetManager.SortKey.MILEAGE, 99);
+    }
+
+    // planner picks the speed index walk and stops after 20 matches
+    @Benchmark
+    public List<String> queryLoadedNearService(FleetState fleet) {
+        return fleet.manager.query()
+                .where(CargoCarrier.class, c -> c.getCurrentCargo() > 1_000)
+                .between(FleetManager.SortKey.MILEAGE, 9_500, 10_500)
+                .orderByDescending(FleetManager.SortKey.SPEED)
+                .limit(20)
+                .ids();
+    }
+
+    // no index applies: full (or parallel) scan
+    @Benchmark
+    public int queryUnindexed(FleetState fleet) {
+        return fleet.manager.query().where(v -> v.getMaxSpeed() > 150).count();
+    }
+}
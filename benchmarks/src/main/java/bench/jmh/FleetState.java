@@ -0,0 +1,40 @@
+package bench.jmh;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import org.openjdk.jmh.annotations.*;
+import loadtest.FleetGenerator;
+import managers.FleetManager;
+import vehicles.Vehicle;
+
+// A FleetManager pre-filled from the seeded generator; fleetSize and mix are swept by JMH.
+@State(Scope.Benchmark)
+public class FleetState {
+    @Param({"1000", "10000", "100000"})
+    public int fleetSize;
+
+    @Param({"UNIFORM", "ROAD_HEAVY"})
+    public FleetGenerator.Mix mix;
+
+    public FleetManager manager;
+    public List<Vehicle> vehicles;
+    public FleetGenerator generator;
+
+    private PrintStream out;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // the manager prints per call
+        generator = new FleetGenerator(42, mix);
+        vehicles = generator.generate(fleetSize);
+        manager = new FleetManager();
+        for (Vehicle v : vehicles) manager.addVehicle(v);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(out);
+    }
+}
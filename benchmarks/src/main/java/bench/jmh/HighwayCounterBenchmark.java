@@ -0,0 +1,36 @@
+package bench.jmh;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.*;
+import simulation.SharedHighwayCounter;
+
+// Contended increments: the old single-lock path, one AtomicLong, and the striped adder behind
+// incrementSafe, each at 1, 4 and 16 threads.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HighwayCounterBenchmark {
+    private final AtomicLong atomic = new AtomicLong();
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        SharedHighwayCounter.resetAll();
+        atomic.set(0);
+    }
+
+    @Benchmark @Threads(1) public void locked1() { SharedHighwayCounter.incrementLocked(1); }
+    @Benchmark @Threads(4) public void locked4() { SharedHighwayCounter.incrementLocked(1); }
+    @Benchmark @Threads(16) public void locked16() { SharedHighwayCounter.incrementLocked(1); }
+
+    @Benchmark @Threads(1) public long atomic1() { return atomic.incrementAndGet(); }
+    @Benchmark @Threads(4) public long atomic4() { return atomic.incrementAndGet(); }
+    @Benchmark @Threads(16) public long atomic16() { return atomic.incrementAndGet(); }
+
+    @Benchmark @Threads(1) public void striped1() { SharedHighwayCounter.incrementSafe(1); }
+    @Benchmark @Threads(4) public void striped4() { SharedHighwayCounter.incrementSafe(1); }
+    @Benchmark @Threads(16) public void striped16() { SharedHighwayCounter.incrementSafe(1); }
+}
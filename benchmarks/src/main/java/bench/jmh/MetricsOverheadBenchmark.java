@@ -0,0 +1,113 @@
+package bench.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import events.EventSink;
+import events.Events;
+import exceptions.InvalidOperationException;
+import interfaces.FuelConsumable;
+import loadtest.FleetGenerator;
+import managers.FleetManager;
+import metrics.Metrics;
+import metrics.Timer;
+import simulation.VehicleRunnable;
+import vehicles.Vehicle;
+
+// Cost of the metrics instrumentation on the hot paths, metrics off against on: adding a fleet to
+// an empty manager, one simulation tick of every vehicle (as the engine threads do) and a
+// whole-fleet journey. timedCall is one start/stopSince pair with metrics on; divided by the
+// sampling rate and the operation time it bounds the overhead when the differences above are
+// within noise. Run with a fixed heap (-jvmArgs "-Xms2g -Xmx2g") to keep resizing out.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsOverheadBenchmark {
+    @Param({"200000"})
+    public int fleetSize;
+
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    private FleetManager manager;
+    private List<Vehicle> vehicles;
+    private final List<VehicleRunnable> runnables = new ArrayList<>();
+    private Timer probe;
+    private EventSink previous;
+
+    // a fresh manager per invocation so addVehicle never sees a duplicate id
+    @State(Scope.Thread)
+    public static class Empty {
+        FleetManager manager;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            manager = new FleetManager();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        previous = Events.setSink(null);
+        Metrics.setEnabled(metrics);
+        probe = Metrics.registry().timer("bench.probe");
+        vehicles = new FleetGenerator(7, FleetGenerator.Mix.ROAD_HEAVY).generate(fleetSize);
+        manager = new FleetManager();
+        for (Vehicle v : vehicles) manager.addVehicle(v);
+    }
+
+    // refuel, and start over with runnables that have not paused on an empty tank
+    @Setup(Level.Iteration)
+    public void refuel() throws Exception {
+        runnables.clear();
+        for (Vehicle v : vehicles) {
+            if (v instanceof FuelConsumable f && f.getFuelLevel() < 1_000) {
+                try {
+                    manager.withVehicle(v.getId(), x -> ((FuelConsumable) x).refuel(1_000));
+                } catch (InvalidOperationException e) {
+                    // sailing cargo ships take no fuel
+                }
+            }
+            runnables.add(new VehicleRunnable(v, true));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Metrics.setEnabled(false);
+        Events.setSink(previous);
+    }
+
+    @Benchmark
+    public FleetManager add(Empty empty) throws Exception {
+        for (Vehicle v : vehicles) empty.manager.addVehicle(v);
+        return empty.manager;
+    }
+
+    @Benchmark
+    public int tick() {
+        int running = 0;
+        for (VehicleRunnable r : runnables) {
+            if (r.tick()) running++;
+        }
+        return running;
+    }
+
+    @Benchmark
+    public FleetManager journeys() {
+        manager.startAllJourneys(1);
+        return manager;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public long timedCall() {
+        long t0 = probe.start();
+        probe.stopSince(t0);
+        return t0;
+    }
+}
@@ -0,0 +1,65 @@
+package bench.jmh;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import managers.FleetManager;
+import persistence.LoadResult;
+
+// Throughput of the CSV paths; a result of N ops/s means N * fleetSize rows/s.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class CsvFiles {
+        Path dir;
+        String saved;
+        String target;
+
+        @Setup(Level.Trial)
+        public void setUp(FleetState fleet) throws IOException {
+            dir = Files.createTempDirectory("fleet-bench");
+            saved = dir.resolve("fleet.csv").toString();
+            target = dir.resolve("out.csv").toString();
+            fleet.manager.saveToFile(saved);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(Path.of(saved));
+            Files.deleteIfExists(Path.of(target));
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Target {
+        FleetManager manager;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            manager = new FleetManager();
+        }
+    }
+
+    @Benchmark
+    public void saveToFile(FleetState fleet, CsvFiles files) {
+        fleet.manager.saveToFile(files.target);
+    }
+
+    @Benchmark
+    public LoadResult loadFromFile(CsvFiles files, Target t) {
+        return t.manager.loadFromFile(files.saved, false);
+    }
+
+    @Benchmark
+    public LoadResult loadFromFileParallel(CsvFiles files, Target t) {
+        return t.manager.loadFromFile(files.saved, true);
+    }
+}
@@ -0,0 +1,119 @@
+package bench.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import events.EventSink;
+import events.Events;
+import simulation.*;
+import vehicles.Car;
+
+// N simulated vehicles on one SharedTickEngine sized to the machine: how long starting and
+// pausing/resuming the whole fleet takes, and the tick rate the running fleet sustains
+// (the "ticks" counter, ideally vehicles * 1000 / tickMillis per second).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SimulationScaleBenchmark {
+    @Param({"10000", "100000"})
+    public int vehicles;
+
+    @Param({"1000"})
+    public int tickMillis;
+
+    private SharedTickEngine engine;
+    private EventSink previous;
+
+    // a fleet that keeps ticking for the whole trial
+    @State(Scope.Benchmark)
+    public static class Running {
+        List<VehicleController> controllers;
+
+        @Setup(Level.Trial)
+        public void setUp(SimulationScaleBenchmark bench) throws Exception {
+            controllers = bench.controllers();
+            controllers.forEach(VehicleController::start);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            controllers.forEach(VehicleController::stop);
+        }
+    }
+
+    // controllers not started yet, fresh for every call
+    @State(Scope.Thread)
+    public static class Idle {
+        List<VehicleController> controllers;
+
+        @Setup(Level.Invocation)
+        public void setUp(SimulationScaleBenchmark bench) throws Exception {
+            controllers = bench.controllers();
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() {
+            controllers.forEach(VehicleController::stop);
+        }
+    }
+
+    // km on the safe highway counter, one per tick; reported per second
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Ticks {
+        public long ticks;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            SharedHighwayCounter.resetAll();
+            ticks = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        previous = Events.setSink(null);
+        engine = new SharedTickEngine(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.shutdown();
+        Events.setSink(previous);
+    }
+
+    List<VehicleController> controllers() throws Exception {
+        List<VehicleController> controllers = new ArrayList<>(vehicles);
+        for (int i = 0; i < vehicles; i++) {
+            Car car = new Car("C" + i, "Sim", 120, 4, 0, 0, false);
+            car.refuel(1_000_000);
+            controllers.add(new VehicleController(new VehicleRunnable(car, true, tickMillis), engine));
+        }
+        return controllers;
+    }
+
+    @Benchmark
+    public List<VehicleController> startAll(Idle idle) {
+        idle.controllers.forEach(VehicleController::start);
+        return idle.controllers;
+    }
+
+    @Benchmark
+    public List<VehicleController> pauseResumeAll(Running running) {
+        running.controllers.forEach(VehicleController::pause);
+        running.controllers.forEach(VehicleController::resume);
+        return running.controllers;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void ticks(Running running, Ticks ticks) throws InterruptedException {
+        Thread.sleep(100);
+        ticks.ticks = SharedHighwayCounter.getSafeLong();
+    }
+}
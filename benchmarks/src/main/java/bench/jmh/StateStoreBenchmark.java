@@ -0,0 +1,97 @@
+package bench.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import events.EventSink;
+import events.Events;
+import interfaces.FuelConsumable;
+import simulation.VehicleStateStore;
+import vehicles.*;
+
+// One tick of the whole fleet (1 km per vehicle): object-at-a-time consumeFuel +
+// setCurrentMileage against the column store's fork-join pass, alone and with one sync back to
+// the objects every SYNC_EVERY ticks. Fleets are a third each cars, trucks and buses.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StateStoreBenchmark {
+    private static final int SYNC_EVERY = 50;
+
+    @Param({"1000000"})
+    public int vehicles;
+
+    private List<Vehicle> objects;
+    private List<Vehicle> stored;
+    private VehicleStateStore store;
+    private EventSink previous;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        previous = Events.setSink(null);
+        objects = fleet(vehicles);
+        stored = fleet(vehicles);
+        store = new VehicleStateStore(stored);
+    }
+
+    // top the tanks up so no vehicle drops out of the pass; sync reloads the store's columns
+    @Setup(Level.Iteration)
+    public void refuel() throws Exception {
+        for (Vehicle v : objects) ((FuelConsumable) v).refuel(1_000);
+        for (Vehicle v : stored) ((FuelConsumable) v).refuel(1_000);
+        store.sync();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Events.setSink(previous);
+    }
+
+    @Benchmark
+    public long objects() {
+        long moved = 0;
+        for (Vehicle v : objects) {
+            try {
+                ((FuelConsumable) v).consumeFuel(1);
+                v.setCurrentMileage(1);
+                moved++;
+            } catch (Exception e) {
+                // out of fuel
+            }
+        }
+        return moved;
+    }
+
+    @Benchmark
+    public long store() {
+        return store.advance(1);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SYNC_EVERY)
+    public long storeWithSync() {
+        long moved = store.advance(1, SYNC_EVERY);
+        store.sync();
+        return moved;
+    }
+
+    private static List<Vehicle> fleet(int n) throws Exception {
+        List<Vehicle> list = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String id = "V" + i;
+            Vehicle v;
+            switch (i % 3) {
+                case 0: v = new Car(id, "Sim", 120, 4, 0, 0, false); break;
+                case 1: v = new Truck(id, "Sim", 90, 6, 0, 0, false); break;
+                default: v = new Bus(id, "Sim", 80, 6, 0, 0, 0, false); break;
+            }
+            ((FuelConsumable) v).refuel(1_000);
+            list.add(v);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,31 @@
+package events;
+
+import java.io.PrintStream;
+
+// Prints each event's console line synchronously, exactly as the CLI always has. The default
+// sink; without a stream it writes to whatever System.out is at the time of the call.
+public class ConsoleEventSink implements EventSink {
+    private final PrintStream out;
+
+    public ConsoleEventSink() {
+        this(null);
+    }
+
+    public ConsoleEventSink(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void publish(FleetEvent event) {
+        stream().println(event);
+    }
+
+    @Override
+    public void flush() {
+        stream().flush();
+    }
+
+    private PrintStream stream() {
+        return out != null ? out : System.out;
+    }
+}
@@ -0,0 +1,15 @@
+package events;
+
+// Destination for fleet events. publish may be called from any thread.
+public interface EventSink {
+    void publish(FleetEvent event);
+
+    // false lets callers skip building the event at all
+    default boolean isEnabled() {
+        return true;
+    }
+
+    // pushes out anything buffered
+    default void flush() {
+    }
+}
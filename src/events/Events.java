@@ -0,0 +1,45 @@
+package events;
+
+import events.FleetEvent.Type;
+
+// Process-wide event sink used by the vehicles and FleetManager in place of System.out.
+// Defaults to the console so the CLI prints what it always printed; bulk runs and servers swap
+// in NoOpEventSink.INSTANCE or a RingBufferEventSink.
+public final class Events {
+    private static volatile EventSink sink = new ConsoleEventSink();
+
+    private Events() {
+    }
+
+    public static EventSink getSink() {
+        return sink;
+    }
+
+    // returns the previous sink (flushed), e.g. to restore or close it; null selects the no-op sink
+    public static EventSink setSink(EventSink next) {
+        EventSink previous = sink;
+        sink = next == null ? NoOpEventSink.INSTANCE : next;
+        previous.flush();
+        return previous;
+    }
+
+    // for publishers whose message costs something to build
+    public static boolean enabled() {
+        return sink.isEnabled();
+    }
+
+    public static void publish(Type type, String vehicleId) {
+        EventSink s = sink;
+        if (s.isEnabled()) s.publish(new FleetEvent(type, vehicleId, Double.NaN, null));
+    }
+
+    public static void publish(Type type, String vehicleId, String message) {
+        EventSink s = sink;
+        if (s.isEnabled()) s.publish(new FleetEvent(type, vehicleId, Double.NaN, message));
+    }
+
+    public static void publish(Type type, String vehicleId, double amount, String message) {
+        EventSink s = sink;
+        if (s.isEnabled()) s.publish(new FleetEvent(type, vehicleId, amount, message));
+    }
+}
@@ -0,0 +1,69 @@
+package events;
+
+// One thing that happened to a vehicle or the fleet. Built on the caller's thread with nothing
+// but constants and the vehicle id; the console text is only assembled when a sink renders it.
+public class FleetEvent {
+
+    public enum Type {
+        MOVED(null),
+        MOVE_ERROR(null),
+        MAINTAINED("Maintenance Complete for vehicle:%s"),
+        ADDED("Vehicle added to fleet!"),
+        REMOVED("Vehicle removed from fleet!"),
+        JOURNEYS_STARTED("All journeys started!"),
+        JOURNEY_FAILED("Failed to move vehicle: %s"),
+        FUEL_SHORTFALL("The vehicle id: %scannot complete this journey!"),
+        FLEET_MAINTAINED("Maintenance complete!");
+
+        private final String text; // console line, %s is the vehicle id; null: the event's message
+
+        Type(String text) {
+            this.text = text;
+        }
+    }
+
+    private final long time;
+    private final Type type;
+    private final String vehicleId;
+    private final double amount;
+    private final String message;
+
+    public FleetEvent(Type type, String vehicleId, double amount, String message) {
+        this.time = System.currentTimeMillis();
+        this.type = type;
+        this.vehicleId = vehicleId;
+        this.amount = amount;
+        this.message = message;
+    }
+
+    // epoch millis
+    public long getTime() {
+        return time;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    // null for fleet-wide events
+    public String getVehicleId() {
+        return vehicleId;
+    }
+
+    // km for MOVED, NaN when the event has no quantity
+    public double getAmount() {
+        return amount;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    // the line the CLI has always printed for this event; the type name when a MOVE_ERROR
+    // carries no message (an exception without one)
+    @Override
+    public String toString() {
+        if (type.text == null) return message != null ? message : type.name();
+        return type.text.contains("%s") ? type.text.replace("%s", String.valueOf(vehicleId)) : type.text;
+    }
+}
@@ -0,0 +1,15 @@
+package events;
+
+// Discards everything; isEnabled() is false, so publishers do not even allocate the event.
+public class NoOpEventSink implements EventSink {
+    public static final NoOpEventSink INSTANCE = new NoOpEventSink();
+
+    @Override
+    public void publish(FleetEvent event) {
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+}
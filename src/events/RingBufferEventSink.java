@@ -0,0 +1,123 @@
+package events;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Asynchronous front for another sink. Publishers claim a slot in a bounded ring with one CAS
+// and return; a single daemon thread drains the ring in batches into the downstream sink and
+// flushes it once per batch. Publishers never block and never touch I/O: when the ring is full
+// the event is dropped and counted.
+public class RingBufferEventSink implements EventSink, AutoCloseable {
+    private static final long IDLE_PARK_NANOS = 200_000;
+
+    private final EventSink downstream;
+    private final AtomicReferenceArray<FleetEvent> slots;
+    private final int mask;
+    private final int batchSize;
+    private final AtomicLong tail = new AtomicLong(); // next slot to claim
+    private volatile long head;                       // next slot to drain; written by the drainer only
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean running = true;
+    private final Thread drainer;
+
+    public RingBufferEventSink(EventSink downstream) {
+        this(downstream, 1 << 16, 1024);
+    }
+
+    // capacity is rounded up to a power of two
+    public RingBufferEventSink(EventSink downstream, int capacity, int batchSize) {
+        if (capacity <= 0 || batchSize <= 0) throw new IllegalArgumentException("Capacity and batch size must be positive");
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.downstream = downstream;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.batchSize = batchSize;
+        this.drainer = new Thread(this::drain, "fleet-events");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    @Override
+    public void publish(FleetEvent event) {
+        if (!running) {
+            dropped.increment();
+            return;
+        }
+        long t;
+        do {
+            t = tail.get();
+            if (t - head > mask) {
+                dropped.increment();
+                return;
+            }
+        } while (!tail.compareAndSet(t, t + 1));
+        slots.lazySet((int) t & mask, event);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return downstream.isEnabled();
+    }
+
+    // waits until everything published before the call has reached the downstream sink
+    @Override
+    public void flush() {
+        long target = tail.get();
+        while (head < target && drainer.isAlive()) LockSupport.parkNanos(IDLE_PARK_NANOS);
+        downstream.flush();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    // events claimed but not yet drained
+    public long getBacklog() {
+        return tail.get() - head;
+    }
+
+    // drains what was already published, then stops the drainer
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        long h = head;
+        while (true) {
+            int n = 0;
+            while (n < batchSize) {
+                int i = (int) h & mask;
+                FleetEvent e = slots.get(i);
+                if (e == null) break; // empty, or claimed but not yet written
+                slots.lazySet(i, null);
+                head = ++h;
+                try {
+                    downstream.publish(e);
+                } catch (RuntimeException ex) {
+                    // a broken sink must not kill the drainer; the event is lost
+                }
+                n++;
+            }
+            if (n > 0) {
+                try {
+                    downstream.flush();
+                } catch (RuntimeException ex) {
+                    // as above
+                }
+            } else if (!running && h == tail.get()) {
+                return;
+            } else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package events;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.LongAdder;
+
+// Writes one JSON object per event, e.g.
+//   {"time":1718000000000,"type":"MOVED","vehicle":"T12","amount":100.0,"message":"Hauling Cargo..."}
+// for log shippers and offline analysis; "detail" carries the cause when the console line omits
+// it (JOURNEY_FAILED). Writes are serialized and buffered until flush(), so pair it with a
+// RingBufferEventSink to keep I/O off vehicle threads.
+// A failed write is counted, never thrown back at the publisher.
+public class StructuredEventSink implements EventSink, Closeable {
+    private final Writer out;
+    private final LongAdder errors = new LongAdder();
+    private final StringBuilder line = new StringBuilder(128); // guarded by this
+
+    public StructuredEventSink(OutputStream out) {
+        this(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    public StructuredEventSink(Writer out) {
+        this.out = out instanceof BufferedWriter ? out : new BufferedWriter(out, 1 << 16);
+    }
+
+    @Override
+    public synchronized void publish(FleetEvent e) {
+        line.setLength(0);
+        line.append("{\"time\":").append(e.getTime())
+            .append(",\"type\":\"").append(e.getType().name()).append('"');
+        if (e.getVehicleId() != null) string(line.append(",\"vehicle\":"), e.getVehicleId());
+        if (!Double.isNaN(e.getAmount())) line.append(",\"amount\":").append(e.getAmount());
+        String text = e.toString();
+        string(line.append(",\"message\":"), text);
+        if (e.getMessage() != null && !e.getMessage().equals(text)) string(line.append(",\"detail\":"), e.getMessage());
+        line.append("}\n");
+        try {
+            out.append(line);
+        } catch (IOException ex) {
+            errors.increment();
+        }
+    }
+
+    @Override
+    public synchronized void flush() {
+        try {
+            out.flush();
+        } catch (IOException ex) {
+            errors.increment();
+        }
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+
+    private static void string(StringBuilder sb, String s) {
+        if (s == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+}
@@ -0,0 +1,157 @@
+package gui;
+
+import javax.swing.SwingUtilities;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import interfaces.FleetListener;
+import managers.FleetManager;
+import simulation.SharedHighwayCounter;
+import vehicles.Vehicle;
+
+// Turns fleet change notifications into at most one EDT task per interval.
+// Vehicle threads only add the changed id to a set, under their stripe. A daemon thread drains
+// the set every interval: it maps ids to rows, merges the rows into ranges, reads the maintained
+// totals and hands the result to the EDT. Repeated changes to a vehicle within an interval become
+// one row update. While the EDT is still busy with the previous update, changes keep accumulating
+// instead of queueing more tasks.
+class FleetChangeFeed implements FleetListener {
+    private static final int MERGE_GAP = 8;    // rows this close together share a range
+    private static final int MAX_RANGES = 64;  // beyond this, one range from first to last
+
+    static final class Update {
+        final List<Vehicle> rows;  // new row snapshot, or null when only values changed
+        final int[][] ranges;      // changed rows, inclusive pairs
+        final long unsafe, safe;
+        final double totalMileage;
+
+        Update(List<Vehicle> rows, int[][] ranges, long unsafe, long safe, double totalMileage) {
+            this.rows = rows;
+            this.ranges = ranges;
+            this.unsafe = unsafe;
+            this.safe = safe;
+            this.totalMileage = totalMileage;
+        }
+    }
+
+    private final FleetManager manager;
+    private final Consumer<Update> onEdt;
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private volatile boolean structural = true; // first run loads the rows
+    private final AtomicBoolean pending = new AtomicBoolean();
+    private final ScheduledExecutorService timer;
+
+    // feed thread only
+    private Map<String, Integer> rowOf = Collections.emptyMap();
+    private long lastUnsafe = -1, lastSafe = -1;
+    private double lastTotal = Double.NaN;
+
+    FleetChangeFeed(FleetManager manager, long intervalMillis, Consumer<Update> onEdt) {
+        this.manager = manager;
+        this.onEdt = onEdt;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "gui-refresh");
+            t.setDaemon(true);
+            return t;
+        });
+        manager.addFleetListener(this);
+        timer.scheduleWithFixedDelay(this::poll, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void close() {
+        manager.removeFleetListener(this);
+        timer.shutdownNow();
+    }
+
+    // forces a row reload on the next interval, e.g. after the simulation restarts
+    void reload() {
+        structural = true;
+    }
+
+    // --- FleetListener: called on whichever thread changed the fleet ---
+
+    @Override
+    public void vehicleChanged(Vehicle v) {
+        dirty.add(v.getId());
+    }
+
+    @Override
+    public void vehicleAdded(Vehicle v) {
+        structural = true;
+    }
+
+    @Override
+    public void vehicleRemoved(Vehicle v) {
+        structural = true;
+    }
+
+    @Override
+    public void fleetReloaded() {
+        structural = true;
+    }
+
+    // --- feed thread ---
+
+    private void poll() {
+        if (pending.get()) return; // the EDT has not applied the last update yet
+        List<Vehicle> rows = null;
+        int[][] ranges = new int[0][];
+        if (structural) {
+            structural = false;
+            dirty.clear();
+            rows = manager.getAllVehicles();
+            Map<String, Integer> index = new HashMap<>(rows.size() * 2);
+            for (int i = 0; i < rows.size(); i++) index.put(rows.get(i).getId(), i);
+            rowOf = index;
+        } else if (!dirty.isEmpty()) {
+            int[] changed = new int[dirty.size()];
+            int n = 0;
+            for (Iterator<String> it = dirty.iterator(); it.hasNext(); ) {
+                Integer row = rowOf.get(it.next());
+                it.remove();
+                if (row != null && n < changed.length) changed[n++] = row;
+            }
+            ranges = ranges(changed, n);
+        }
+
+        long unsafe = SharedHighwayCounter.getUnsafe();
+        long safe = SharedHighwayCounter.getSafeLong();
+        double total = manager.getTotalMileage();
+        if (rows == null && ranges.length == 0 && unsafe == lastUnsafe && safe == lastSafe && total == lastTotal) {
+            return;
+        }
+        lastUnsafe = unsafe;
+        lastSafe = safe;
+        lastTotal = total;
+
+        Update update = new Update(rows, ranges, unsafe, safe, total);
+        pending.set(true);
+        SwingUtilities.invokeLater(() -> {
+            try {
+                onEdt.accept(update);
+            } finally {
+                pending.set(false);
+            }
+        });
+    }
+
+    static int[][] ranges(int[] rows, int n) {
+        if (n == 0) return new int[0][];
+        Arrays.sort(rows, 0, n);
+        List<int[]> out = new ArrayList<>();
+        int first = rows[0], last = rows[0];
+        for (int i = 1; i < n; i++) {
+            if (rows[i] - last > MERGE_GAP) {
+                out.add(new int[]{first, last});
+                first = rows[i];
+            }
+            last = rows[i];
+        }
+        out.add(new int[]{first, last});
+        if (out.size() > MAX_RANGES) return new int[][]{{rows[0], rows[n - 1]}};
+        return out.toArray(new int[0][]);
+    }
+}
@@ -7,15 +7,22 @@ import simulation.VehicleController;
 import simulation.SharedHighwayCounter;
 
 import javax.swing.*;
-import javax.swing.Timer;
+import javax.swing.table.DefaultTableCellRenderer;
 import java.awt.*;
 import java.util.*;
 import java.util.List;
 
+// Vehicle list is a JTable over VehicleTableModel: only visible rows are rendered. Refreshes are
+// event-driven: FleetChangeFeed collects change notifications off the EDT and hands over only
+// the changed row ranges plus the maintained totals, a few times a second.
 public class FleetSimulatorGUI extends JFrame {
+    private static final long REFRESH_MILLIS = 200;
 
     private final FleetManager fleetManager;
-    private final JPanel listPanel = new JPanel();
+    private final VehicleTableModel tableModel = new VehicleTableModel();
+    private final JTable table = new JTable(tableModel);
+    private final JScrollPane scroll = new JScrollPane(table);
+    private final JLabel emptyInfo = new JLabel("No vehicles found in FleetManager.");
 
     private final JLabel counterUnsafe = new JLabel("Unsafe counter: 0");
     private final JLabel counterSafe = new JLabel("Safe counter: 0");
@@ -26,13 +33,13 @@ public class FleetSimulatorGUI extends JFrame {
     private final JButton pauseBtn = new JButton("Pause All");
     private final JButton resumeBtn = new JButton("Resume All");
     private final JButton stopBtn = new JButton("Stop All");
+    private final JButton refuelBtn = new JButton("Refuel +100 (selected)");
     private final JCheckBox safeToggle = new JCheckBox("Use Safe Counter (Lock)");
 
     // Controller threads for vehicles
     private final Map<String, VehicleController> controllers = new LinkedHashMap<>();
-    private final Map<String, JLabel> vehicleLabels = new HashMap<>();
 
-    private Timer uiTimer;
+    private FleetChangeFeed feed;
 
     public FleetSimulatorGUI(FleetManager manager) {
         super("Fleet Highway Simulator");
@@ -55,12 +62,20 @@ public class FleetSimulatorGUI extends JFrame {
         top.add(pauseBtn);
         top.add(resumeBtn);
         top.add(stopBtn);
+        top.add(refuelBtn);
         add(top, BorderLayout.NORTH);
 
         // --- CENTER PANEL: List of Vehicles ---
-        listPanel.setLayout(new BoxLayout(listPanel, BoxLayout.Y_AXIS));
-        JScrollPane sp = new JScrollPane(listPanel);
-        add(sp, BorderLayout.CENTER);
+        table.setDefaultRenderer(Double.class, new DefaultTableCellRenderer() {
+            @Override
+            protected void setValue(Object value) {
+                setText(value == null ? "?" : String.format("%.2f", (Double) value));
+            }
+        });
+        ((DefaultTableCellRenderer) table.getDefaultRenderer(Double.class)).setHorizontalAlignment(SwingConstants.RIGHT);
+        table.setFillsViewportHeight(true);
+        emptyInfo.setBorder(BorderFactory.createEmptyBorder(10,10,10,10));
+        add(scroll, BorderLayout.CENTER);
 
         // --- BOTTOM PANEL (Counters) ---
         JPanel bottom = new JPanel(new FlowLayout(FlowLayout.LEFT, 15, 8));
@@ -78,20 +93,16 @@ public class FleetSimulatorGUI extends JFrame {
         safeToggle.addActionListener(e ->
                 controllers.values().forEach(c -> c.setUseSafeCounter(safeToggle.isSelected()))
         );
+        refuelBtn.addActionListener(e -> refuelSelected());
 
-        // --- Build vehicle rows ---
-        List<Vehicle> fleet = loadVehicles();
-        if (fleet.isEmpty()) {
-            JLabel info = new JLabel("No vehicles found in FleetManager.");
-            info.setBorder(BorderFactory.createEmptyBorder(10,10,10,10));
-            listPanel.add(info);
-        } else {
-            for (Vehicle v : fleet) addVehicleRow(v);
-        }
+        // --- Start UI updater: loads the rows on its first run ---
+        feed = new FleetChangeFeed(fleetManager, REFRESH_MILLIS, this::applyUpdate);
+    }
 
-        // --- Start UI updater ---
-        uiTimer = new Timer(500, ev -> refreshUI());
-        uiTimer.start();
+    @Override
+    public void dispose() {
+        if (feed != null) feed.close();
+        super.dispose();
     }
 
     private List<Vehicle> loadVehicles() {
@@ -103,24 +114,21 @@ public class FleetSimulatorGUI extends JFrame {
         }
     }
 
-    private void addVehicleRow(Vehicle v) {
-        JPanel row = new JPanel(new FlowLayout(FlowLayout.LEFT));
-        row.setBorder(BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(Color.GRAY, 1),
-                BorderFactory.createEmptyBorder(6, 8, 6, 8)
-        ));
-
-        JLabel info = new JLabel(formatVehicle(v));
-        info.setPreferredSize(new Dimension(620, 22));
-
-        JButton refuel = new JButton("Refuel +100");
-        refuel.addActionListener(a -> {
+    private void refuelSelected() {
+        int[] selected = table.getSelectedRows();
+        if (selected.length == 0) {
+            JOptionPane.showMessageDialog(this, "Select one or more vehicles to refuel.");
+            return;
+        }
+        for (int row : selected) {
+            Vehicle v = tableModel.getVehicle(table.convertRowIndexToModel(row));
             try {
                 if (!(v instanceof FuelConsumable)) {
                     JOptionPane.showMessageDialog(this, "Vehicle " + v.getId() + " is not fuel-consumable.");
-                    return;
+                    continue;
                 }
-                ((FuelConsumable) v).refuel(100.0);
+                // under the vehicle's stripe, like the ticks it races with
+                fleetManager.withVehicle(v.getId(), x -> ((FuelConsumable) x).refuel(100.0));
 
                 VehicleController ctrl = controllers.get(v.getId());
                 if (ctrl != null) ctrl.resume();
@@ -131,23 +139,7 @@ public class FleetSimulatorGUI extends JFrame {
                         "Refuel Error",
                         JOptionPane.ERROR_MESSAGE);
             }
-        });
-
-        row.add(info);
-        row.add(refuel);
-
-        listPanel.add(row);
-        vehicleLabels.put(v.getId(), info);
-    }
-
-    private String formatVehicle(Vehicle v) {
-        String fuel = "?";
-        try {
-            fuel = String.format("%.2f", ((FuelConsumable) v).getFuelLevel());
-        } catch (Exception ignored) {}
-
-        return String.format("%s  |  %s  |  Mileage: %.2f km  |  Fuel: %s",
-                v.getId(), v.getModel(), v.getCurrentMileage(), fuel);
+        }
     }
 
     private void startSimulation() {
@@ -159,13 +151,9 @@ public class FleetSimulatorGUI extends JFrame {
         controllers.values().forEach(VehicleController::stop);
         controllers.clear();
 
-        // rebuild rows (if vehicles changed)
+        // reload rows (if vehicles changed)
         List<Vehicle> fleet = loadVehicles();
-        listPanel.removeAll();
-        vehicleLabels.clear();
-        for (Vehicle v : fleet) addVehicleRow(v);
-        listPanel.revalidate();
-        listPanel.repaint();
+        feed.reload();
 
         // start new controllers
         for (Vehicle v : fleet) {
@@ -183,28 +171,26 @@ public class FleetSimulatorGUI extends JFrame {
         startBtn.setEnabled(true);
     }
 
-    private void refreshUI() {
-
-        counterUnsafe.setText("Unsafe counter: " + SharedHighwayCounter.getUnsafe());
-        counterSafe.setText("Safe counter: " + SharedHighwayCounter.getSafe());
-
-        double sum = 0.0;
-        List<Vehicle> fleet = loadVehicles();
-
-        for (Vehicle v : fleet) {
-            sum += v.getCurrentMileage();
-
-            JLabel lbl = vehicleLabels.get(v.getId());
-            if (lbl != null) lbl.setText(formatVehicle(v));
+    // on the EDT: swap in new rows or repaint the changed ranges, then the counters from the
+    // maintained mileage total
+    private void applyUpdate(FleetChangeFeed.Update u) {
+        if (u.rows != null) {
+            tableModel.setRows(u.rows);
+            Component view = u.rows.isEmpty() ? emptyInfo : table;
+            if (scroll.getViewport().getView() != view) scroll.setViewportView(view);
+        } else {
+            tableModel.rowsUpdated(u.ranges);
         }
 
-        counterSum.setText(String.format("Sum: %.2f", sum));
+        counterUnsafe.setText("Unsafe counter: " + u.unsafe);
+        counterSafe.setText("Safe counter: " + u.safe);
+        counterSum.setText(String.format("Sum: %.2f", u.totalMileage));
 
         if (safeToggle.isSelected()){
-            counterDiff.setText(String.format("Difference: %.2f", sum- SharedHighwayCounter.getSafe()));
+            counterDiff.setText(String.format("Difference: %.2f", u.totalMileage - u.safe));
         }
         else{
-            counterDiff.setText(String.format("Difference: %.2f", sum- SharedHighwayCounter.getUnsafe()));
+            counterDiff.setText(String.format("Difference: %.2f", u.totalMileage - u.unsafe));
         }
 
     }
@@ -0,0 +1,67 @@
+package gui;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.*;
+import java.util.List;
+
+import interfaces.FuelConsumable;
+import vehicles.Vehicle;
+
+// Rows are a snapshot of the fleet, replaced only when vehicles are added or removed. Cell values
+// are read live from the vehicles, and JTable asks only for the cells it paints, so a refresh
+// costs the visible rows, not the fleet. Used on the EDT only.
+class VehicleTableModel extends AbstractTableModel {
+    private static final String[] COLUMNS = {"ID", "Type", "Model", "Mileage (km)", "Fuel"};
+
+    private List<Vehicle> rows = Collections.emptyList();
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column >= 3 ? Double.class : String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Vehicle v = rows.get(row);
+        switch (column) {
+            case 0: return v.getId();
+            case 1: return v.getClass().getSimpleName();
+            case 2: return v.getModel();
+            case 3: return v.getCurrentMileage();
+            default: return v instanceof FuelConsumable f ? f.getFuelLevel() : null;
+        }
+    }
+
+    Vehicle getVehicle(int row) {
+        return rows.get(row);
+    }
+
+    void setRows(List<Vehicle> rows) {
+        this.rows = rows;
+        fireTableDataChanged();
+    }
+
+    // ranges are inclusive [first, last] row pairs
+    void rowsUpdated(int[][] ranges) {
+        int last = rows.size() - 1;
+        for (int[] r : ranges) {
+            if (r[0] > last) continue;
+            fireTableRowsUpdated(r[0], Math.min(r[1], last));
+        }
+    }
+}
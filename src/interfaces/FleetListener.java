@@ -0,0 +1,10 @@
+package interfaces;
+
+import vehicles.Vehicle;
+
+public interface FleetListener extends VehicleListener {
+    void vehicleAdded(Vehicle v);
+    void vehicleRemoved(Vehicle v);
+    // the whole fleet was replaced by a bulk load; no per-vehicle events were sent for it
+    void fleetReloaded();
+}
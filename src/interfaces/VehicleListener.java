@@ -0,0 +1,13 @@
+package interfaces;
+
+import java.util.concurrent.locks.Lock;
+import vehicles.Vehicle;
+
+public interface VehicleListener {
+    void vehicleChanged(Vehicle v);
+
+    // the lock this owner holds around its own changes to v, or null if it takes none
+    default Lock lockFor(Vehicle v) {
+        return null;
+    }
+}
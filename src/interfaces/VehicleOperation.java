@@ -0,0 +1,8 @@
+package interfaces;
+
+import exceptions.*;
+import vehicles.Vehicle;
+
+public interface VehicleOperation {
+    void apply(Vehicle v) throws InvalidOperationException, InsufficientFuelException, OverloadException;
+}
@@ -0,0 +1,203 @@
+package loadtest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import exceptions.*;
+import interfaces.FuelConsumable;
+import persistence.CsvFleetWriter;
+import persistence.FleetSnapshot;
+import vehicles.*;
+
+// Deterministic synthetic fleets covering all five vehicle types. The same seed, settings and call
+// sequence always produce the same vehicles, so benchmark and load-test runs are comparable.
+// Mileage is normally distributed, with a configurable share placed in a band around the 10,000 km
+// maintenance threshold; passenger and cargo loads are a random fraction of each type's capacity.
+// Run: java loadtest.FleetGenerator <out.csv|out.snap> [count] [seed] [mix]
+public class FleetGenerator {
+
+    // relative weights of car, truck, bus, airplane, cargo ship
+    public enum Mix {
+        UNIFORM(1, 1, 1, 1, 1),
+        ROAD_HEAVY(60, 20, 15, 3, 2),
+        CARS_ONLY(1, 0, 0, 0, 0);
+
+        private final int[] weights;
+
+        Mix(int... weights) {
+            this.weights = weights;
+        }
+    }
+
+    public static final double MAINTENANCE_THRESHOLD_KM = 10_000; // Car/Bus/... needsMaintenance()
+
+    private static final String[][] MODELS = {
+        {"Civic", "Corolla", "Golf", "Model 3", "Swift", "Clio", "Focus", "i20"},
+        {"Actros", "FH16", "Tatra", "Scania R", "Prima", "Volvo FM"},
+        {"Citaro", "Volvo 9700", "Starbus", "Solaris", "MAN Lion"},
+        {"A320", "B737", "B787", "A350", "ATR72"},
+        {"Maersk E", "Emma", "Evergreen", "MSC Gulsun"}
+    };
+    private static final char[] PREFIX = {'C', 'T', 'B', 'A', 'S'};
+    // capacities as fixed in the vehicle classes: passengers, cargo
+    private static final int[] PASSENGERS = {5, 0, 50, 200, 0};
+    private static final int[] CARGO = {0, 5_000, 500, 10_000, 5_000};
+
+    private final Random random;
+    private final int[] cumulative = new int[5];
+    private long sequence;
+
+    private double mileageMean = 6_000, mileageStdDev = 4_000;
+    private double nearThresholdShare = 0.2, nearThresholdBand = 500;
+    private double minLoad = 0, maxLoad = 1;
+    private double maxFuel = 500;
+    private double serviceFlagShare = 0.1;
+    private double sailShare = 0.25;
+
+    public FleetGenerator(long seed, Mix mix) {
+        this.random = new Random(seed);
+        setWeights(mix.weights);
+    }
+
+    // --- settings ---
+
+    // custom mix: relative weights of car, truck, bus, airplane, cargo ship
+    public void setWeights(int... weights) {
+        if (weights.length != 5) throw new IllegalArgumentException("Need 5 weights");
+        int sum = 0;
+        for (int i = 0; i < 5; i++) {
+            if (weights[i] < 0) throw new IllegalArgumentException("Negative weight");
+            sum += weights[i];
+            cumulative[i] = sum;
+        }
+        if (sum == 0) throw new IllegalArgumentException("All weights are zero");
+    }
+
+    // mileage ~ N(mean, stdDev) clipped at 0, except `share` of vehicles drawn uniformly from
+    // threshold +- band so maintenance paths see vehicles just below and just above 10,000 km
+    public void setMileage(double mean, double stdDev, double share, double band) {
+        if (stdDev < 0 || share < 0 || share > 1 || band < 0) throw new IllegalArgumentException("Invalid mileage settings");
+        mileageMean = mean;
+        mileageStdDev = stdDev;
+        nearThresholdShare = share;
+        nearThresholdBand = band;
+    }
+
+    // passenger and cargo loads as a uniform fraction [min, max] of capacity
+    public void setLoadFactor(double min, double max) {
+        if (min < 0 || max > 1 || min > max) throw new IllegalArgumentException("Load factor must be within [0, 1]");
+        minLoad = min;
+        maxLoad = max;
+    }
+
+    public void setMaxFuel(double litres) {
+        if (litres < 0) throw new IllegalArgumentException("Negative fuel");
+        maxFuel = litres;
+    }
+
+    // --- output ---
+
+    public List<Vehicle> generate(int count) {
+        List<Vehicle> out = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) out.add(next());
+        return out;
+    }
+
+    // lazily generated; nothing is held in memory beyond the current vehicle
+    public Iterable<Vehicle> stream(long count) {
+        return () -> new Iterator<>() {
+            private long left = count;
+
+            public boolean hasNext() { return left > 0; }
+
+            public Vehicle next() {
+                if (left-- <= 0) throw new NoSuchElementException();
+                return FleetGenerator.this.next();
+            }
+        };
+    }
+
+    public long writeCsv(Path file, long count) throws IOException {
+        return new CsvFleetWriter().write(file, stream(count));
+    }
+
+    public long writeSnapshot(Path file, int count) throws IOException {
+        return new FleetSnapshot().write(file, generate(count));
+    }
+
+    public Vehicle next() {
+        int type = nextType();
+        return next(type, PREFIX[type] + Long.toString(sequence++));
+    }
+
+    // a vehicle of the mix's next type under a caller-chosen id
+    public Vehicle next(String id) {
+        return next(nextType(), id);
+    }
+
+    private int nextType() {
+        int pick = random.nextInt(cumulative[4]);
+        int type = 0;
+        while (pick >= cumulative[type]) type++;
+        return type;
+    }
+
+    private double mileage() {
+        double km;
+        if (random.nextDouble() < nearThresholdShare) {
+            km = MAINTENANCE_THRESHOLD_KM + (random.nextDouble() * 2 - 1) * nearThresholdBand;
+        } else {
+            km = mileageMean + random.nextGaussian() * mileageStdDev;
+        }
+        return Math.floor(Math.max(0, km) * 100) / 100; // two decimals, as the CSV stores them
+    }
+
+    private int passengers(int type) {
+        return (int) Math.floor(PASSENGERS[type] * load());
+    }
+
+    private double cargo(int type) {
+        return Math.floor(CARGO[type] * load());
+    }
+
+    private double load() {
+        return minLoad + random.nextDouble() * (maxLoad - minLoad);
+    }
+
+    private Vehicle next(int type, String id) {
+        String model = MODELS[type][random.nextInt(MODELS[type].length)];
+        double mileage = mileage();
+        boolean service = random.nextDouble() < serviceFlagShare;
+        try {
+            Vehicle v;
+            switch (type) {
+                case 0: v = new Car(id, model, 120 + random.nextInt(80), 4, mileage, passengers(type), service); break;
+                case 1: v = new Truck(id, model, 80 + random.nextInt(40), 6 + 2 * random.nextInt(4), mileage, cargo(type), service); break;
+                case 2: v = new Bus(id, model, 70 + random.nextInt(40), 6, mileage, passengers(type), cargo(type), service); break;
+                case 3: v = new Airplane(id, model, 700 + random.nextInt(250), mileage, 9_000 + random.nextInt(4_000), passengers(type), cargo(type), service); break;
+                default: v = new CargoShip(id, model, 20 + random.nextInt(20), mileage, random.nextDouble() < sailShare, cargo(type), service); break;
+            }
+            if (v instanceof FuelConsumable fc && !(v instanceof CargoShip ship && ship.gethasSail())) {
+                fc.refuel(Math.floor(random.nextDouble() * maxFuel * 100) / 100);
+            }
+            return v;
+        } catch (OverloadException | InvalidOperationException e) {
+            throw new IllegalStateException("Generated an invalid vehicle " + id, e);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: java loadtest.FleetGenerator <out.csv|out.snap> [count] [seed] [UNIFORM|ROAD_HEAVY|CARS_ONLY]");
+            return;
+        }
+        Path out = Path.of(args[0]);
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+        Mix mix = args.length > 3 ? Mix.valueOf(args[3]) : Mix.ROAD_HEAVY;
+        FleetGenerator g = new FleetGenerator(seed, mix);
+        long t0 = System.nanoTime();
+        long written = args[0].endsWith(".snap") ? g.writeSnapshot(out, count) : g.writeCsv(out, count);
+        System.out.printf("Wrote %d vehicles to %s in %.0f ms%n", written, out, (System.nanoTime() - t0) / 1e6);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,70 @@
+package loadtest;
+
+// Log-linear latency histogram in the style of HdrHistogram: 32 linear sub-buckets per power of
+// two, so any recorded value is reported within ~3% using a fixed 16 KB of counts. Not
+// thread-safe; give each thread its own and merge them with add().
+public class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB = 1 << SUB_BITS;
+
+    private final long[] counts = new long[64 * SUB];
+    private long total;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    public void record(long value) {
+        if (value < 0) value = 0;
+        counts[index(value)]++;
+        total++;
+        sum += value;
+        if (value < min) min = value;
+        if (value > max) max = value;
+    }
+
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) counts[i] += other.counts[i];
+        total += other.total;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public void reset() {
+        java.util.Arrays.fill(counts, 0);
+        total = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    public long getCount() { return total; }
+    public long getMax() { return max; }
+    public long getMin() { return total == 0 ? 0 : min; }
+    public double getMean() { return total == 0 ? 0 : (double) sum / total; }
+
+    // value at or below which `percent` of recordings fall (highest value of that bucket, capped at max)
+    public long percentile(double percent) {
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percent / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(max, highestIn(i));
+        }
+        return max;
+    }
+
+    static int index(long v) {
+        if (v < SUB) return (int) v;
+        int msb = 63 - Long.numberOfLeadingZeros(v);
+        return (msb - SUB_BITS + 1) * SUB + (int) ((v >>> (msb - SUB_BITS)) & (SUB - 1));
+    }
+
+    static long highestIn(int index) {
+        if (index < SUB) return index;
+        int msb = index / SUB + SUB_BITS - 1;
+        long low = (long) (SUB + index % SUB) << (msb - SUB_BITS);
+        return low + (1L << (msb - SUB_BITS)) - 1;
+    }
+}
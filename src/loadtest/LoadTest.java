@@ -0,0 +1,217 @@
+package loadtest;
+
+import java.io.*;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import managers.FleetManager;
+import persistence.LoadResult;
+import vehicles.*;
+
+// Replays a weighted mix of FleetManager operations from N threads against a (generated or loaded)
+// fleet and reports throughput and latency percentiles per operation. Each thread draws its
+// operations from its own seeded Random, so a given seed replays the same sequence per thread.
+// It is a closed loop: a slow call delays the next one rather than queueing behind it.
+// Run: java loadtest.LoadTest [fleet=100000] [threads=4] [seconds=10] [warmup=3] [seed=42]
+//          [mix=ROAD_HEAVY] [ops=get:60,update:20,...] [from=fleet.csv|fleet.snap]
+public class LoadTest {
+
+    public enum Op { GET, UPDATE, ADD, REMOVE, SEARCH_TYPE, SEARCH_MODEL, MAINTENANCE, REPORT, SORT }
+
+    public static final String DEFAULT_OPS =
+            "get:60,update:20,add:5,remove:5,search_type:3,search_model:3,maintenance:2,report:2";
+
+    private static final Class<?>[] TYPES = {Car.class, Truck.class, Bus.class, Airplane.class, CargoShip.class,
+            LandVehicle.class, AirVehicle.class, WaterVehicle.class};
+    private static final String[] MODELS = {"Civic", "Golf", "Actros", "Citaro", "A320", "Emma", "Unknown"};
+
+    private final FleetManager manager;
+    private final String[] ids;
+    private final Op[] ops;
+    private final int[] cumulative;
+    private final long seed;
+    private final FleetGenerator.Mix mix;
+
+    public LoadTest(FleetManager manager, Map<Op, Integer> weights, long seed, FleetGenerator.Mix mix) {
+        this.manager = manager;
+        this.ids = manager.getAllVehicles().stream().map(Vehicle::getId).toArray(String[]::new);
+        this.seed = seed;
+        this.mix = mix;
+        List<Op> chosen = new ArrayList<>();
+        List<Integer> sums = new ArrayList<>();
+        int sum = 0;
+        for (Map.Entry<Op, Integer> e : new EnumMap<>(weights).entrySet()) {
+            if (e.getValue() <= 0) continue;
+            sum += e.getValue();
+            chosen.add(e.getKey());
+            sums.add(sum);
+        }
+        if (chosen.isEmpty()) throw new IllegalArgumentException("No operations with a positive weight");
+        if (ids.length == 0) throw new IllegalArgumentException("Fleet is empty");
+        this.ops = chosen.toArray(new Op[0]);
+        this.cumulative = sums.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // "get:60,update:20" -> weights
+    public static Map<Op, Integer> parseOps(String spec) {
+        Map<Op, Integer> weights = new EnumMap<>(Op.class);
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split(":");
+            if (kv.length != 2) throw new IllegalArgumentException("Bad op weight: " + part);
+            weights.put(Op.valueOf(kv[0].trim().toUpperCase()), Integer.parseInt(kv[1].trim()));
+        }
+        return weights;
+    }
+
+    public LoadTestResult run(int threads, long warmupMillis, long measureMillis) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            long warmupEnd = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(warmupMillis);
+            long end = warmupEnd + TimeUnit.MILLISECONDS.toNanos(measureMillis);
+            List<Future<Worker>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Worker w = new Worker(t, warmupEnd, end);
+                futures.add(pool.submit(w, w));
+            }
+            EnumMap<Op, LatencyHistogram> latencies = new EnumMap<>(Op.class);
+            EnumMap<Op, Long> failures = new EnumMap<>(Op.class);
+            for (Op op : ops) latencies.put(op, new LatencyHistogram());
+            for (Future<Worker> f : futures) {
+                Worker w;
+                try {
+                    w = f.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Load test worker failed", e.getCause());
+                }
+                for (int i = 0; i < ops.length; i++) {
+                    latencies.get(ops[i]).add(w.latency[i]);
+                    if (w.failed[i] > 0) failures.merge(ops[i], w.failed[i], Long::sum);
+                }
+            }
+            return new LoadTestResult(latencies, failures, threads, end - warmupEnd);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private final class Worker implements Runnable {
+        private final Random random;
+        private final FleetGenerator generator;
+        private final ArrayDeque<String> added = new ArrayDeque<>();
+        private final String prefix;
+        private final long warmupEnd, end;
+        final LatencyHistogram[] latency = new LatencyHistogram[ops.length];
+        final long[] failed = new long[ops.length];
+        private long nextId;
+
+        Worker(int thread, long warmupEnd, long end) {
+            this.random = new Random(seed * 31 + thread);
+            this.generator = new FleetGenerator(seed * 31 + thread, mix);
+            this.prefix = "load" + thread + "-";
+            this.warmupEnd = warmupEnd;
+            this.end = end;
+            for (int i = 0; i < ops.length; i++) latency[i] = new LatencyHistogram();
+        }
+
+        @Override
+        public void run() {
+            long now = System.nanoTime();
+            while (now < end) {
+                int pick = random.nextInt(cumulative[cumulative.length - 1]);
+                int i = 0;
+                while (pick >= cumulative[i]) i++;
+                boolean ok;
+                long start = System.nanoTime();
+                try {
+                    ok = execute(ops[i]);
+                } catch (Exception e) {
+                    ok = false;
+                }
+                now = System.nanoTime();
+                if (start >= warmupEnd && now <= end) {
+                    latency[i].record(now - start);
+                    if (!ok) failed[i]++;
+                }
+            }
+        }
+
+        private boolean execute(Op op) throws Exception {
+            switch (op) {
+                case GET:
+                    return manager.getById(randomId()) != null;
+                case UPDATE:
+                    manager.withVehicle(randomId(), v -> v.setCurrentMileage(1));
+                    return true;
+                case ADD: {
+                    String id = prefix + nextId++;
+                    manager.addVehicle(generator.next(id));
+                    added.add(id);
+                    return true;
+                }
+                case REMOVE: {
+                    // only removes what this thread added, so the base fleet stays stable
+                    String id = added.pollFirst();
+                    return id == null || manager.remove(id) != null;
+                }
+                case SEARCH_TYPE:
+                    manager.searchByType(TYPES[random.nextInt(TYPES.length)]);
+                    return true;
+                case SEARCH_MODEL:
+                    manager.searchByModel(MODELS[random.nextInt(MODELS.length)]);
+                    return true;
+                case MAINTENANCE:
+                    manager.getVehiclesNeedingMaintenance();
+                    return true;
+                case REPORT:
+                    manager.generateReport();
+                    return true;
+                case SORT:
+                    manager.page(FleetManager.SortKey.MILEAGE, 0, 20);
+                    return true;
+                default:
+                    throw new IllegalStateException("Unknown op " + op);
+            }
+        }
+
+        private String randomId() {
+            return ids[random.nextInt(ids.length)];
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opt = new HashMap<>();
+        for (String a : args) {
+            int eq = a.indexOf('=');
+            if (eq < 0) throw new IllegalArgumentException("Expected key=value, got " + a);
+            opt.put(a.substring(0, eq), a.substring(eq + 1));
+        }
+        int fleet = Integer.parseInt(opt.getOrDefault("fleet", "100000"));
+        int threads = Integer.parseInt(opt.getOrDefault("threads", "4"));
+        int seconds = Integer.parseInt(opt.getOrDefault("seconds", "10"));
+        int warmup = Integer.parseInt(opt.getOrDefault("warmup", "3"));
+        long seed = Long.parseLong(opt.getOrDefault("seed", "42"));
+        FleetGenerator.Mix mix = FleetGenerator.Mix.valueOf(opt.getOrDefault("mix", "ROAD_HEAVY"));
+        Map<Op, Integer> weights = parseOps(opt.getOrDefault("ops", DEFAULT_OPS));
+
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // addVehicle prints per call
+        try {
+            FleetManager manager = new FleetManager();
+            long t0 = System.nanoTime();
+            String from = opt.get("from");
+            if (from != null) {
+                LoadResult r = from.endsWith(".snap") ? manager.loadSnapshot(from) : manager.loadFromFile(from);
+                out.println("Loaded " + from + ": " + r);
+            } else {
+                FleetGenerator g = new FleetGenerator(seed, mix);
+                for (Iterator<Vehicle> it = g.stream(fleet).iterator(); it.hasNext(); ) manager.addVehicle(it.next());
+                out.printf("Generated %d vehicles (%s, seed %d) in %.0f ms%n", manager.size(), mix, seed, (System.nanoTime() - t0) / 1e6);
+            }
+            LoadTest test = new LoadTest(manager, weights, seed, mix);
+            out.printf("Warmup %ds, measuring %ds, ops %s%n", warmup, seconds, weights);
+            out.print(test.run(threads, warmup * 1000L, seconds * 1000L));
+        } finally {
+            System.setOut(out);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package loadtest;
+
+import java.util.*;
+
+// Per-operation latency histograms and totals from one LoadTest run.
+public class LoadTestResult {
+    private final EnumMap<LoadTest.Op, LatencyHistogram> latencies;
+    private final EnumMap<LoadTest.Op, Long> failures;
+    private final int threads;
+    private final long elapsedNanos;
+
+    LoadTestResult(EnumMap<LoadTest.Op, LatencyHistogram> latencies, EnumMap<LoadTest.Op, Long> failures,
+                   int threads, long elapsedNanos) {
+        this.latencies = latencies;
+        this.failures = failures;
+        this.threads = threads;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public LatencyHistogram getLatency(LoadTest.Op op) { return latencies.get(op); }
+    public long getFailures(LoadTest.Op op) { return failures.getOrDefault(op, 0L); }
+    public int getThreads() { return threads; }
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    public long getOperations() {
+        long n = 0;
+        for (LatencyHistogram h : latencies.values()) n += h.getCount();
+        return n;
+    }
+
+    public double opsPerSecond() {
+        return elapsedNanos == 0 ? 0 : getOperations() * 1e9 / elapsedNanos;
+    }
+
+    public LatencyHistogram overall() {
+        LatencyHistogram all = new LatencyHistogram();
+        latencies.values().forEach(all::add);
+        return all;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d threads, %.1f s, %d ops, %.0f ops/sec%n",
+                threads, elapsedNanos / 1e9, getOperations(), opsPerSecond()));
+        sb.append(String.format("%-13s %10s %12s %9s %9s %9s %9s %10s %7s%n",
+                "op", "count", "ops/sec", "p50 us", "p90 us", "p99 us", "p99.9 us", "max us", "failed"));
+        for (Map.Entry<LoadTest.Op, LatencyHistogram> e : latencies.entrySet()) {
+            if (e.getValue().getCount() > 0) row(sb, e.getKey().name().toLowerCase(), e.getValue(), getFailures(e.getKey()));
+        }
+        row(sb, "all", overall(), failures.values().stream().mapToLong(Long::longValue).sum());
+        return sb.toString();
+    }
+
+    private void row(StringBuilder sb, String name, LatencyHistogram h, long failed) {
+        sb.append(String.format("%-13s %10d %12.0f %9.1f %9.1f %9.1f %9.1f %10.1f %7d%n", name, h.getCount(),
+                h.getCount() * 1e9 / elapsedNanos, h.percentile(50) / 1e3, h.percentile(90) / 1e3,
+                h.percentile(99) / 1e3, h.percentile(99.9) / 1e3, h.getMax() / 1e3, failed));
+    }
+}
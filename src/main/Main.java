@@ -6,6 +6,7 @@ import vehicles.*;
 import exceptions.*;
 import interfaces.*;
 import managers.*;
+import server.Headless;
 
 import java.util.*;
 
@@ -13,10 +14,18 @@ public class Main {
     private static FleetManager manager = new FleetManager();
     private static Scanner sc = new Scanner(System.in);
 
+    // no arguments: demo fleet in the GUI; --cli: demo fleet in the menu; --headless ...: see server.Headless
     public static void main(String[] args) {
-        demoSetup();
-        FleetSimulatorGUI.launch(manager);
-//        runCLI();
+        if (args.length == 0) {
+            demoSetup();
+            FleetSimulatorGUI.launch(manager);
+            return;
+        }
+        switch (args[0]) {
+            case "--cli" -> { demoSetup(); runCLI(); }
+            case "--headless" -> Headless.run(manager, Arrays.copyOfRange(args, 1, args.length));
+            default -> System.out.println("Usage: Main [--cli | --headless [options]]");
+        }
     }
 
     //CLI
@@ -59,8 +68,8 @@ public class Main {
                     case 8 -> { System.out.print("Filename: "); manager.loadFromFile(sc.nextLine()); }
                     case 9 -> searchByTypeMenu();
                     case 10 -> System.out.println(manager.getVehiclesNeedingMaintenance());
-                    case 11 -> System.out.println(manager.getSlowestVehicle());
-                    case 12 -> System.out.println(manager.getFastestVehicle());
+                    case 11 -> System.out.println(Objects.requireNonNullElse(manager.getSlowestVehicle(), "Fleet is empty!"));
+                    case 12 -> System.out.println(Objects.requireNonNullElse(manager.getFastestVehicle(), "Fleet is empty!"));
                     case 13 -> sortByCriterionMenu();
                     case 14 -> { System.out.println("Exiting..."); return; }
                     default -> System.out.println("Invalid choice!");
@@ -173,9 +182,10 @@ public class Main {
         System.out.print("Enter fuel amount: ");
         double amt = sc.nextDouble(); sc.nextLine();
         for (Vehicle v : manager.getFleet()) {
-            if (v instanceof FuelConsumable f) {
+            if (v instanceof FuelConsumable) {
                 try {
-                    f.refuel(amt);
+                    // under the vehicle's stripe, like the simulation ticks it races with
+                    manager.withVehicle(v.getId(), x -> ((FuelConsumable) x).refuel(amt));
                 } catch (Exception e) {
                     System.out.println("Refuel error: " + e.getMessage());
                 }
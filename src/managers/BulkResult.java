@@ -0,0 +1,141 @@
+package managers;
+
+import java.util.*;
+
+// Outcome of a fleet-wide bulk operation (FleetManager.startAllJourneysParallel,
+// consumeFuelParallel): counts, fuel totals and per-vehicle failures in fleet order.
+public class BulkResult {
+
+    public static class Failure {
+        private final String id;
+        private final String message;
+
+        public Failure(String id, String message) {
+            this.id = id;
+            this.message = message;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return id + ": " + message;
+        }
+    }
+
+    private final String operation;
+    private final long vehicles;
+    private final long succeeded;
+    private final List<Failure> failures;
+    private final double distance;
+    private final double fuelConsumed;
+    private final double fuelRemaining;
+    private final int parallelism;
+    private final long elapsedNanos;
+
+    public BulkResult(String operation, long vehicles, long succeeded, List<Failure> failures, double distance,
+                      double fuelConsumed, double fuelRemaining, int parallelism, long elapsedNanos) {
+        this.operation = operation;
+        this.vehicles = vehicles;
+        this.succeeded = succeeded;
+        this.failures = Collections.unmodifiableList(failures);
+        this.distance = distance;
+        this.fuelConsumed = fuelConsumed;
+        this.fuelRemaining = fuelRemaining;
+        this.parallelism = parallelism;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    // vehicles the operation applied to
+    public long getVehicles() {
+        return vehicles;
+    }
+
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    public List<Failure> getFailures() {
+        return failures;
+    }
+
+    // km driven by the vehicles that succeeded
+    public double getDistance() {
+        return distance;
+    }
+
+    // litres burnt by the vehicles that succeeded
+    public double getFuelConsumed() {
+        return fuelConsumed;
+    }
+
+    // litres left in the vehicles that succeeded, afterwards
+    public double getFuelRemaining() {
+        return fuelRemaining;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double vehiclesPerSecond() {
+        return elapsedNanos == 0 ? 0 : vehicles * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d vehicles, %d ok, %d failed, %.1f km, %.1f L burnt, %.1f L left (%d threads, %.0f vehicles/sec)",
+                operation, vehicles, succeeded, failures.size(), distance, fuelConsumed, fuelRemaining,
+                parallelism, vehiclesPerSecond());
+    }
+
+    // filled by one fork-join leaf; leaves are merged left to right, keeping failures in fleet order
+    static final class Tally {
+        long vehicles;
+        long succeeded;
+        final List<Failure> failures = new ArrayList<>();
+        double distance;
+        double fuelConsumed;
+        double fuelRemaining;
+
+        void ok(double km, double consumed, double remaining) {
+            succeeded++;
+            distance += km;
+            fuelConsumed += consumed;
+            fuelRemaining += remaining;
+        }
+
+        void fail(String id, String message) {
+            failures.add(new Failure(id, message));
+        }
+
+        Tally merge(Tally right) {
+            vehicles += right.vehicles;
+            succeeded += right.succeeded;
+            failures.addAll(right.failures);
+            distance += right.distance;
+            fuelConsumed += right.fuelConsumed;
+            fuelRemaining += right.fuelRemaining;
+            return this;
+        }
+
+        BulkResult result(String operation, int parallelism, long elapsedNanos) {
+            return new BulkResult(operation, vehicles, succeeded, failures, distance,
+                    fuelConsumed, fuelRemaining, parallelism, elapsedNanos);
+        }
+    }
+}
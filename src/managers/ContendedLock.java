@@ -0,0 +1,24 @@
+package managers;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+// ReentrantLock whose lock() records a fleet.LockContended event when it has to wait.
+// The uncontended path is the same single CAS as a plain non-fair lock().
+final class ContendedLock extends ReentrantLock {
+    private final String name;
+
+    ContendedLock(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public void lock() {
+        if (tryLock()) return;
+        LockContendedEvent event = new LockContendedEvent();
+        event.lock = name;
+        event.queued = getQueueLength();
+        event.begin();
+        super.lock();
+        event.commit();
+    }
+}
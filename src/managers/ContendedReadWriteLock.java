@@ -0,0 +1,29 @@
+package managers;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// ReentrantReadWriteLock whose write lock records a fleet.LockContended event when it has to
+// wait. Read acquisitions are left alone: a read tryLock barges past queued writers.
+final class ContendedReadWriteLock extends ReentrantReadWriteLock {
+    private final WriteLock write;
+
+    ContendedReadWriteLock(String name) {
+        write = new WriteLock(this) {
+            @Override
+            public void lock() {
+                if (tryLock()) return;
+                LockContendedEvent event = new LockContendedEvent();
+                event.lock = name;
+                event.queued = getQueueLength();
+                event.begin();
+                super.lock();
+                event.commit();
+            }
+        };
+    }
+
+    @Override
+    public WriteLock writeLock() {
+        return write;
+    }
+}
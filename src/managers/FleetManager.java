@@ -2,146 +2,876 @@ package managers;
 
 import java.util.*;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.locks.*;
+import java.util.function.Predicate;
 import vehicles.*;
 import interfaces.*;
 import exceptions.*;
+import persistence.*;
+import events.*;
+import metrics.Metrics;
+import metrics.MetricsRegistry;
+import metrics.Timer;
 
+// Thread-safe fleet registry.
+// - id lookups (getById/contains/size) are lock-free reads of a ConcurrentHashMap
+// - the ordered list and the type/model indexes sit behind a read-write lock; whole-fleet
+//   reads work on an immutable snapshot that is only rebuilt after a structural change
+// - per-vehicle state (aggregate deltas, maintenance flag) is guarded by a lock stripe
+//   chosen by id, so vehicles updating in parallel rarely contend
+// - the list keeps insertion order; sorted orders are cached views per SortKey, rebuilt lazily
+//   when a change touched their key
+// - speed, mileage and efficiency also have order-statistic indexes for top-k / range / percentile
+//   queries. Speed never changes after add; mileage and efficiency changes are queued on the
+//   vehicle's stripe and applied in O(log n) each by the next query on that key, so ticks never
+//   wait on an index and queries still see every change made before them
+// Lock order: structure write lock or the index flush lock, then stripes in index order.
 public class FleetManager {
+    private static final int STRIPES = 64;
+    private static final int BULK_SPLIT = 4_096; // vehicles per fork-join leaf
+
+    private static final Timer ADD_TIME = Metrics.registry().timer("fleet.add", 4);
+    private static final Timer REMOVE_TIME = Metrics.registry().timer("fleet.remove", 4);
+    private static final Timer REPORT_TIME = Metrics.registry().timer("fleet.report");
+    private static final Timer MAINTAIN_TIME = Metrics.registry().timer("fleet.maintainAll");
+    private static final Timer BULK_TIME = Metrics.registry().timer("fleet.bulk");
+    private static final Timer SAVE_TIME = Metrics.registry().timer("fleet.save");
+    private static final Timer LOAD_TIME = Metrics.registry().timer("fleet.load");
+
+    public enum SortKey { EFFICIENCY, SPEED, MODEL, MILEAGE }
+
     private ArrayList<Vehicle> fleet= new ArrayList<>();
     private Set<String> modelNames = new HashSet<>();
     private TreeSet<String> sortedModels = new TreeSet<>();
 
+    // primary index: id -> vehicle, kept in step with the ordered fleet list
+    private final ConcurrentHashMap<String, Tracked> index = new ConcurrentHashMap<>();
+    // vehicles removed from the index but not yet compacted out of the list
+    private Set<Vehicle> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    // secondary indexes, updated incrementally on add/remove and on vehicle state changes
+    private LinkedHashMap<Class<?>, LinkedHashSet<Vehicle>> byType = new LinkedHashMap<>();
+    private HashMap<String, LinkedHashSet<String>> idsByModel = new HashMap<>();
+    private final Set<String> maintenanceDue = ConcurrentHashMap.newKeySet(); // hash order; see dueInOrder
+
+    // running aggregates for generateReport, adjusted by the delta of each change
+    private final DoubleAdder totalEfficiency = new DoubleAdder();
+    private final DoubleAdder totalMileage = new DoubleAdder();
+    private volatile boolean debugChecks = Boolean.getBoolean("fleet.debugAggregates");
+
+    private final ReentrantReadWriteLock structure = new ContendedReadWriteLock("structure");
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    // immutable copy of the compacted fleet order, null after a structural change
+    private volatile List<Vehicle> view = Collections.emptyList();
+    private final EnumMap<SortKey, SortedView> sorted = new EnumMap<>(SortKey.class);
+    // order used by displayAll; null means insertion order
+    private volatile SortKey displayOrder;
+    private final EnumMap<SortKey, OrderIndex> ordered = new EnumMap<>(SortKey.class);
+    private long sequence; // insertion counter, guarded by the structure write lock
+    // set while a bulk operation runs: mileage/efficiency index moves are skipped and the
+    // indexes rebuilt once at the end; written with every stripe held, read under one
+    private boolean deferIndexes;
+    private volatile boolean mileageDeferred, efficiencyDeferred;
+    // vehicles whose mileage or efficiency moved since the indexes last saw them, one list per
+    // stripe (guarded by it). Ticks only append here; the first mileage/efficiency query after
+    // them applies the moves (flushIndexes), so writers never queue on an OrderIndex lock.
+    @SuppressWarnings("unchecked")
+    private final ArrayList<Tracked>[] pendingIndex = new ArrayList[STRIPES];
+    private volatile boolean indexesStale;
+    // one flush at a time; held from clearing indexesStale until the queues are drained
+    private final ReentrantLock flushLock = new ContendedLock("index flush");
+    private final ReentrantLock bulkLock = new ReentrantLock();
+
+    private final VehicleListener tracker = new VehicleListener() {
+        @Override
+        public void vehicleChanged(Vehicle v) {
+            FleetManager.this.vehicleChanged(v);
+        }
+
+        // simulation ticks and other outside writers take the same stripe as withVehicle
+        @Override
+        public Lock lockFor(Vehicle v) {
+            return stripe(v.getId());
+        }
+    };
+    private final List<FleetListener> listeners = new CopyOnWriteArrayList<>();
+    private FleetJournal journal;
+
+    public FleetManager() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ContendedLock("stripe " + i);
+            pendingIndex[i] = new ArrayList<>();
+        }
+        for (SortKey k : SortKey.values()) sorted.put(k, new SortedView(k));
+        ordered.put(SortKey.SPEED, new OrderIndex("index SPEED"));
+        ordered.put(SortKey.MILEAGE, new OrderIndex("index MILEAGE"));
+        ordered.put(SortKey.EFFICIENCY, new OrderIndex("index EFFICIENCY"));
+    }
+
+    // last values of a vehicle that went into the aggregates, and the keys it currently has in
+    // the order indexes; guarded by the vehicle's stripe
+    private static class Tracked {
+        final Vehicle vehicle;
+        final long seq;
+        final double speed;
+        double mileage;
+        double efficiency;
+        double indexedMileage;
+        double indexedEfficiency;
+        boolean pending; // on its stripe's pendingIndex list
+
+        Tracked(Vehicle vehicle, long seq) {
+            this.vehicle = vehicle;
+            this.seq = seq;
+            this.speed = vehicle.getMaxSpeed();
+            this.mileage = vehicle.getCurrentMileage();
+            this.efficiency = vehicle.calculateFuelEfficiency();
+            this.indexedMileage = mileage;
+            this.indexedEfficiency = efficiency;
+        }
+    }
+
     //helpers:
-    private boolean vehicleExists(ArrayList<Vehicle> list, String id) {
-        for (Vehicle v : list) {
-            if (v.getId().equals(id)) {   // assuming getId() returns String
-                return true;
+    private static int stripeOf(String id) {
+        return (id.hashCode() & 0x7fffffff) % STRIPES;
+    }
+
+    private ReentrantLock stripe(String id) {
+        return stripes[stripeOf(id)];
+    }
+
+    // caller holds the structure write lock
+    private void register(Vehicle v) {
+        if (removed.contains(v)) {
+            compact(); // same object coming back, drop its old slot first
+        }
+        ReentrantLock lock = stripe(v.getId());
+        lock.lock();
+        try {
+            Tracked t = new Tracked(v, sequence++);
+            index.put(v.getId(), t);
+            totalMileage.add(t.mileage);
+            totalEfficiency.add(t.efficiency);
+            ordered.get(SortKey.SPEED).insert(t.speed, t.seq, v);
+            ordered.get(SortKey.MILEAGE).insert(t.mileage, t.seq, v);
+            ordered.get(SortKey.EFFICIENCY).insert(t.efficiency, t.seq, v);
+            if (v instanceof Maintainable m && m.needsMaintenance()) {
+                maintenanceDue.add(v.getId());
             }
+            v.setListener(tracker);
+        } finally {
+            lock.unlock();
         }
-        return false;
+        fleet.add(v);
+        view = null;
+        invalidateSorted();
+        modelNames.add(v.getModel());
+        sortedModels.add(v.getModel());
+
+        byType.computeIfAbsent(v.getClass(), k -> new LinkedHashSet<>()).add(v);
+        idsByModel.computeIfAbsent(v.getModel(), k -> new LinkedHashSet<>()).add(v.getId());
+    }
+
+    // addVehicle semantics without the console message, used by the loaders
+    private void registerNew(Vehicle v) throws InvalidOperationException {
+        if (contains(v.getId())) {
+            throw new InvalidOperationException("Vehicle already exists");
+        }
+        register(v);
+    }
+
+    // caller holds the structure write lock
+    private Vehicle unregister(String id) {
+        Tracked t;
+        ReentrantLock lock = stripe(id);
+        lock.lock();
+        try {
+            t = index.remove(id);
+            if (t == null) {
+                return null;
+            }
+            totalMileage.add(-t.mileage);
+            totalEfficiency.add(-t.efficiency);
+            ordered.get(SortKey.SPEED).remove(t.speed, t.seq);
+            ordered.get(SortKey.MILEAGE).remove(t.indexedMileage, t.seq);
+            ordered.get(SortKey.EFFICIENCY).remove(t.indexedEfficiency, t.seq);
+            maintenanceDue.remove(id); // a pending index entry is skipped once t leaves the index
+            if (t.vehicle.getListener() == tracker) {
+                t.vehicle.setListener(null);
+            }
+        } finally {
+            lock.unlock();
+        }
+        Vehicle v = t.vehicle;
+        removed.add(v);
+        view = null;
+        invalidateSorted();
+
+        Set<Vehicle> bucket = byType.get(v.getClass());
+        bucket.remove(v);
+        if (bucket.isEmpty()) byType.remove(v.getClass());
+
+        Set<String> ids = idsByModel.get(v.getModel());
+        ids.remove(id);
+        if (ids.isEmpty()) {
+            idsByModel.remove(v.getModel());
+            modelNames.remove(v.getModel());
+            sortedModels.remove(v.getModel());
+        }
+        return v;
+    }
+
+    // called by a vehicle after its mileage, fuel, load or maintenance state changed
+    private void vehicleChanged(Vehicle v) {
+        ReentrantLock lock = stripe(v.getId());
+        lock.lock();
+        try {
+            Tracked t = index.get(v.getId());
+            if (t == null || t.vehicle != v) {
+                return;
+            }
+
+            double mileage = v.getCurrentMileage();
+            double efficiency = v.calculateFuelEfficiency();
+            totalMileage.add(mileage - t.mileage);
+            totalEfficiency.add(efficiency - t.efficiency);
+            if (deferIndexes) {
+                if (mileage != t.mileage && !mileageDeferred) mileageDeferred = true;
+                if (efficiency != t.efficiency && !efficiencyDeferred) efficiencyDeferred = true;
+            } else if ((mileage != t.mileage || efficiency != t.efficiency) && !t.pending) {
+                t.pending = true;
+                pendingIndex[stripeOf(v.getId())].add(t);
+                if (!indexesStale) indexesStale = true;
+            }
+            t.mileage = mileage;
+            t.efficiency = efficiency;
+
+            if (v instanceof Maintainable m && m.needsMaintenance()) {
+                maintenanceDue.add(v.getId());
+            } else {
+                maintenanceDue.remove(v.getId());
+            }
+            // still under the stripe, so listeners see one vehicle's changes in order
+            for (FleetListener l : listeners) l.vehicleChanged(v);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // bulk loads send no per-vehicle events; listeners resync and the journal restarts from a snapshot
+    private void reloaded() {
+        for (FleetListener l : listeners) l.fleetReloaded();
+        if (journal != null) compactJournal();
+    }
+
+    // drops removed vehicles from the list in one pass, keeping the current order;
+    // caller holds the structure write lock
+    private ArrayList<Vehicle> compact() {
+        if (!removed.isEmpty()) {
+            fleet.removeIf(removed::contains);
+            removed.clear();
+        }
+        return fleet;
+    }
+
+    // snapshot of the fleet in list order; readers iterate it without holding any lock
+    List<Vehicle> view() {
+        List<Vehicle> v = view;
+        if (v != null) return v;
+        structure.readLock().lock();
+        try {
+            if (view == null && removed.isEmpty()) {
+                view = Collections.unmodifiableList(new ArrayList<>(fleet));
+            }
+            if (view != null) return view;
+        } finally {
+            structure.readLock().unlock();
+        }
+        // tombstones to drop first, which mutates the list
+        structure.writeLock().lock();
+        try {
+            if (view == null) {
+                view = Collections.unmodifiableList(new ArrayList<>(compact()));
+            }
+            return view;
+        } finally {
+            structure.writeLock().unlock();
+        }
+    }
+
+    private void invalidateSorted() {
+        for (SortedView s : sorted.values()) s.invalidate();
+    }
+
+    private SortedView.Snapshot sorted(SortKey key) {
+        if (key == SortKey.MILEAGE || key == SortKey.EFFICIENCY) flushIndexes();
+        return sorted.get(key).get(this::view);
+    }
+
+    OrderIndex ordered(SortKey key) {
+        OrderIndex o = ordered.get(key);
+        if (o == null) throw new IllegalArgumentException(key + " is not a numeric key");
+        if (key != SortKey.SPEED) flushIndexes();
+        return o;
+    }
+
+    // applies the mileage/efficiency moves queued by vehicleChanged, one stripe at a time.
+    // The flag is cleared first, under flushLock: a change queued behind this pass sets it again,
+    // and a query that finds it cleared while a pass still holds the lock waits for that pass.
+    private void flushIndexes() {
+        if (!indexesStale && !flushLock.isLocked()) return;
+        flushLock.lock();
+        try {
+            if (indexesStale) drainPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // caller holds flushLock
+    private void drainPending() {
+        indexesStale = false;
+        boolean mileageMoved = false, efficiencyMoved = false;
+        for (int i = 0; i < STRIPES; i++) {
+            ArrayList<Tracked> pending = pendingIndex[i];
+            stripes[i].lock();
+            try {
+                for (Tracked t : pending) {
+                    t.pending = false;
+                    if (index.get(t.vehicle.getId()) != t) continue; // removed since
+                    if (t.mileage != t.indexedMileage) {
+                        ordered.get(SortKey.MILEAGE).move(t.indexedMileage, t.mileage, t.seq, t.vehicle);
+                        t.indexedMileage = t.mileage;
+                        mileageMoved = true;
+                    }
+                    if (t.efficiency != t.indexedEfficiency) {
+                        ordered.get(SortKey.EFFICIENCY).move(t.indexedEfficiency, t.efficiency, t.seq, t.vehicle);
+                        t.indexedEfficiency = t.efficiency;
+                        efficiencyMoved = true;
+                    }
+                }
+                pending.clear();
+            } finally {
+                stripes[i].unlock();
+            }
+        }
+        if (mileageMoved) sorted.get(SortKey.MILEAGE).invalidate();
+        if (efficiencyMoved) sorted.get(SortKey.EFFICIENCY).invalidate();
+    }
+
+    // caller holds the structure write lock
+    private void clearAll() {
+        for (Tracked t : index.values()) {
+            if (t.vehicle.getListener() == tracker) t.vehicle.setListener(null);
+        }
+        fleet.clear();
+        index.clear();
+        removed.clear();
+        view = null;
+        invalidateSorted();
+        modelNames.clear();
+        sortedModels.clear();
+        byType.clear();
+        idsByModel.clear();
+        maintenanceDue.clear();
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i].lock();
+            try {
+                pendingIndex[i].clear();
+            } finally {
+                stripes[i].unlock();
+            }
+        }
+        totalMileage.reset();
+        totalEfficiency.reset();
+        for (OrderIndex o : ordered.values()) o.clear();
+    }
+
+    private void lockAllStripes() {
+        for (ReentrantLock l : stripes) l.lock();
+    }
+
+    private void unlockAllStripes() {
+        for (int i = STRIPES - 1; i >= 0; i--) stripes[i].unlock();
+    }
+
+    // caller holds the structure read lock
+    private int countOf(Class<?> type) {
+        int count = 0;
+        for (Map.Entry<Class<?>, LinkedHashSet<Vehicle>> e : byType.entrySet()) {
+            if (type.isAssignableFrom(e.getKey())) count += e.getValue().size();
+        }
+        return count;
+    }
+
+    // full recompute of the running aggregates, only used in debug mode; needs a quiet fleet
+    private void checkAggregates() {
+        double efficiency = 0;
+        double mileage = 0;
+        int due = 0;
+        List<Vehicle> all = view();
+        for (Vehicle v : all) {
+            efficiency += v.calculateFuelEfficiency();
+            mileage += v.getCurrentMileage();
+            if (v instanceof Maintainable m && m.needsMaintenance()) due++;
+        }
+        double trackedEfficiency = totalEfficiency.sum();
+        double trackedMileage = totalMileage.sum();
+        if (all.size() != index.size() || due != maintenanceDue.size()
+                || !closeTo(efficiency, trackedEfficiency) || !closeTo(mileage, trackedMileage)) {
+            throw new IllegalStateException(String.format(
+                    "Aggregate drift: vehicles %d/%d, efficiency %.4f/%.4f, mileage %.4f/%.4f, maintenance %d/%d",
+                    index.size(), all.size(), trackedEfficiency, efficiency,
+                    trackedMileage, mileage, maintenanceDue.size(), due));
+        }
+    }
+
+    private static boolean closeTo(double a, double b) {
+        return Math.abs(a - b) <= 1e-6 * Math.max(1.0, Math.max(Math.abs(a), Math.abs(b)));
     }
 
     //getters
 
+    // copy of the fleet in insertion order
     public ArrayList<Vehicle> getFleet(){
-        return fleet;
+        return new ArrayList<>(view());
+    }
+
+    public Vehicle getById(String id) {
+        Tracked t = index.get(id);
+        return t == null ? null : t.vehicle;
+    }
+
+    public boolean contains(String id) {
+        return index.containsKey(id);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public double getTotalMileage() {
+        return totalMileage.sum();
+    }
+
+    public void setDebugChecks(boolean debugChecks) {
+        this.debugChecks = debugChecks;
     }
 
     //main
     public void addVehicle(Vehicle v) throws InvalidOperationException{
-        if(vehicleExists(fleet, v.getId())) {
-            throw new InvalidOperationException("Vehicle already exists");
+        long t0 = ADD_TIME.start();
+        structure.writeLock().lock();
+        try {
+            registerNew(v);
+            for (FleetListener l : listeners) l.vehicleAdded(v);
+        } finally {
+            structure.writeLock().unlock();
+            ADD_TIME.stopSince(t0);
         }
-
-        fleet.add(v);
-        modelNames.add(v.getModel());
-        sortedModels.add(v.getModel());
-        System.out.println("Vehicle added to fleet!");
+        Events.publish(FleetEvent.Type.ADDED, v.getId());
     }
 
     public void removeVehicle(String id) throws InvalidOperationException{
-        if(vehicleExists(fleet, id)){
-            fleet.removeIf(v -> v.getId().equals(id));
-        }
-        else{
+        if(remove(id) == null){
             throw new InvalidOperationException("Vehicle does not exist!");
         }
 
-        System.out.println("Vehicle removed from fleet!");
+        Events.publish(FleetEvent.Type.REMOVED, id);
+    }
+
+    // removes without printing; returns the removed vehicle or null if the id is unknown
+    public Vehicle remove(String id) {
+        long t0 = REMOVE_TIME.start();
+        structure.writeLock().lock();
+        try {
+            Vehicle v = unregister(id);
+            if (v != null) {
+                for (FleetListener l : listeners) l.vehicleRemoved(v);
+            }
+            return v;
+        } finally {
+            structure.writeLock().unlock();
+            REMOVE_TIME.stopSince(t0);
+        }
+    }
+
+    // runs op on one vehicle while holding its stripe, so it does not interleave with
+    // other managed mutations of the same vehicle. op must not run mileage/efficiency queries:
+    // those may take every stripe in turn to apply queued index moves
+    public void withVehicle(String id, VehicleOperation op)
+            throws InvalidOperationException, InsufficientFuelException, OverloadException {
+        ReentrantLock lock = stripe(id);
+        lock.lock();
+        try {
+            Vehicle v = getById(id);
+            if (v == null) {
+                throw new InvalidOperationException("Vehicle does not exist!");
+            }
+            op.apply(v);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void addFleetListener(FleetListener l) {
+        listeners.add(l);
+    }
+
+    public void removeFleetListener(FleetListener l) {
+        listeners.remove(l);
     }
 
     public void startAllJourneys(double distance) {
-        for (Vehicle v : fleet) {
+        for (Vehicle v : view()) {
+            ReentrantLock lock = stripe(v.getId());
+            lock.lock();
             try {
                 v.move(distance);
             }
             catch (InvalidOperationException i1){
-                System.out.println("Failed to move vehicle: "+ v.getId());
+                Events.publish(FleetEvent.Type.JOURNEY_FAILED, v.getId(), i1.getMessage());
+            }
+            finally {
+                lock.unlock();
             }
         }
 
-        System.out.println("All journeys started!");
+        Events.publish(FleetEvent.Type.JOURNEYS_STARTED, null);
     }
 
     public double getTotalFuelConsumption(double distance){
         double TotalFuelConsumed=0;
-        for (Vehicle v: fleet){
+        for (Vehicle v: view()){
             if(v instanceof FuelConsumable f){
+                ReentrantLock lock = stripe(v.getId());
+                lock.lock();
                 try {
                     TotalFuelConsumed+= (f.consumeFuel(distance));
                 }
                 catch (InsufficientFuelException f1){
-                    System.out.println("The vehicle id: " + v.getId()+ "cannot complete this journey!");
+                    Events.publish(FleetEvent.Type.FUEL_SHORTFALL, v.getId());
+                }
+                finally {
+                    lock.unlock();
                 }
             }
         }
         return TotalFuelConsumed;
     }
 
+    // --- bulk operations: per-vehicle work split over a fork-join pool, each vehicle handled under
+    // its stripe, outcomes collected into a BulkResult instead of printed. While one runs, the
+    // mileage and efficiency indexes are rebuilt once at the end rather than moved per vehicle
+    // (n tree moves under one lock would serialize the workers), so top/range/percentile on
+    // those keys can lag until it returns. ---
+
+    public BulkResult startAllJourneysParallel(double distance) {
+        return startAllJourneysParallel(distance, ForkJoinPool.commonPool());
+    }
+
+    public BulkResult startAllJourneysParallel(double distance, ForkJoinPool pool) {
+        return bulk("journeys", pool, (v, tally) -> {
+            double before = fuelOf(v);
+            v.move(distance);
+            double after = fuelOf(v);
+            tally.ok(distance, before - after, after);
+            return true;
+        });
+    }
+
+    // parallel counterpart of getTotalFuelConsumption: burns fuel for the distance without
+    // moving; vehicles that burn no fuel are not counted
+    public BulkResult consumeFuelParallel(double distance) {
+        return consumeFuelParallel(distance, ForkJoinPool.commonPool());
+    }
+
+    public BulkResult consumeFuelParallel(double distance, ForkJoinPool pool) {
+        return bulk("fuel", pool, (v, tally) -> {
+            if (!(v instanceof FuelConsumable f)) return false;
+            double before = f.getFuelLevel();
+            double after = f.consumeFuel(distance);
+            tally.ok(0, before - after, after);
+            return true;
+        });
+    }
+
+    // one vehicle's share of a bulk operation, run under its stripe; false when it does not apply
+    private interface BulkStep {
+        boolean apply(Vehicle v, BulkResult.Tally tally) throws Exception;
+    }
+
+    private BulkResult bulk(String operation, ForkJoinPool pool, BulkStep step) {
+        long started = System.nanoTime();
+        bulkLock.lock();
+        try {
+            BulkResult.Tally tally;
+            setDeferIndexes(true);
+            try {
+                List<Vehicle> vehicles = view();
+                tally = vehicles.isEmpty() ? new BulkResult.Tally()
+                        : pool.invoke(new BulkTask(vehicles, 0, vehicles.size(), step));
+            } finally {
+                setDeferIndexes(false);
+            }
+            long elapsed = System.nanoTime() - started;
+            if (Metrics.isEnabled()) BULK_TIME.record(elapsed);
+            return tally.result(operation, pool.getParallelism(), elapsed);
+        } finally {
+            bulkLock.unlock();
+        }
+    }
+
+    // caller holds bulkLock; turning deferral off rebuilds whatever was skipped
+    private void setDeferIndexes(boolean defer) {
+        lockAllStripes();
+        try {
+            if (!defer) {
+                if (mileageDeferred) rebuildIndex(SortKey.MILEAGE);
+                if (efficiencyDeferred) rebuildIndex(SortKey.EFFICIENCY);
+                mileageDeferred = false;
+                efficiencyDeferred = false;
+            }
+            deferIndexes = defer;
+        } finally {
+            unlockAllStripes();
+        }
+    }
+
+    // caller holds every stripe, so the tracked values are stable
+    private void rebuildIndex(SortKey key) {
+        Tracked[] all = index.values().toArray(new Tracked[0]);
+        double[] keys = new double[all.length];
+        long[] seqs = new long[all.length];
+        Vehicle[] vehicles = new Vehicle[all.length];
+        for (int i = 0; i < all.length; i++) {
+            if (key == SortKey.MILEAGE) {
+                keys[i] = all[i].indexedMileage = all[i].mileage;
+            } else {
+                keys[i] = all[i].indexedEfficiency = all[i].efficiency;
+            }
+            seqs[i] = all[i].seq;
+            vehicles[i] = all[i].vehicle;
+        }
+        ordered.get(key).rebuild(keys, seqs, vehicles);
+        sorted.get(key).invalidate();
+    }
+
+    private static double fuelOf(Vehicle v) {
+        return v instanceof FuelConsumable f ? f.getFuelLevel() : 0;
+    }
+
+    private final class BulkTask extends RecursiveTask<BulkResult.Tally> {
+        private final List<Vehicle> vehicles;
+        private final int from, to;
+        private final BulkStep step;
+
+        BulkTask(List<Vehicle> vehicles, int from, int to, BulkStep step) {
+            this.vehicles = vehicles;
+            this.from = from;
+            this.to = to;
+            this.step = step;
+        }
+
+        @Override
+        protected BulkResult.Tally compute() {
+            if (to - from > BULK_SPLIT) {
+                int mid = (from + to) >>> 1;
+                BulkTask left = new BulkTask(vehicles, from, mid, step);
+                left.fork();
+                BulkResult.Tally right = new BulkTask(vehicles, mid, to, step).compute();
+                return left.join().merge(right);
+            }
+            BulkResult.Tally tally = new BulkResult.Tally();
+            for (int i = from; i < to; i++) {
+                Vehicle v = vehicles.get(i);
+                ReentrantLock lock = stripe(v.getId());
+                lock.lock();
+                try {
+                    Tracked t = index.get(v.getId());
+                    if (t == null || t.vehicle != v) continue; // removed since the snapshot
+                    if (step.apply(v, tally)) tally.vehicles++;
+                } catch (InsufficientFuelException e) {
+                    tally.vehicles++;
+                    tally.fail(v.getId(), "cannot complete this journey: " + e.getMessage());
+                } catch (Exception e) {
+                    tally.vehicles++;
+                    tally.fail(v.getId(), e.getMessage());
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return tally;
+        }
+    }
+
     public void maintainAll(){
-        for (Vehicle v: fleet){
-            if(v instanceof Maintainable m && m.needsMaintenance()){
-                m.performMaintenance();
+        long t0 = MAINTAIN_TIME.start();
+        MaintenanceEvent event = new MaintenanceEvent();
+        event.begin();
+        List<Tracked> due = dueInOrder();
+        for (Tracked t : due){
+            String id = t.vehicle.getId();
+            ReentrantLock lock = stripe(id);
+            lock.lock();
+            try {
+                if (index.get(id) != t) continue; // removed meanwhile
+                if(t.vehicle instanceof Maintainable m && m.needsMaintenance()){
+                    m.performMaintenance();
+                    event.serviced++;
+                }
+            } finally {
+                lock.unlock();
             }
         }
 
-        System.out.println("Maintenance complete!");
+        MAINTAIN_TIME.stopSince(t0);
+        event.due = due.size();
+        event.commit();
+        Events.publish(FleetEvent.Type.FLEET_MAINTAINED, null);
     }
 
+    // the sortX methods pick the order displayAll shows; the fleet list keeps insertion order
     public void sortFleetByEfficiency(){
-        Collections.sort(fleet);
+        displayOrder = SortKey.EFFICIENCY;
         System.out.println("Fleet sorted!");
     }
 
+    public void setDisplayOrder(SortKey key) {
+        displayOrder = key;
+    }
+
+    public SortKey getDisplayOrder() {
+        return displayOrder;
+    }
+
+    // whole fleet ascending by key; cached until a change touches the key, not a copy
+    public List<Vehicle> getSorted(SortKey key) {
+        return sorted(key).vehicles;
+    }
+
+    // positions [offset, offset + limit) of the ascending order
+    public List<Vehicle> page(SortKey key, int offset, int limit) {
+        if (offset < 0 || limit < 0) throw new IllegalArgumentException("Negative offset or limit");
+        if (key != SortKey.MODEL) return ordered(key).page(offset, limit);
+        List<Vehicle> all = sorted(key).vehicles;
+        int from = Math.min(offset, all.size());
+        return all.subList(from, (int) Math.min((long) from + limit, all.size()));
+    }
+
+    // --- ordered queries: read the indexes, O(log n) plus the size of the answer, after applying
+    // any mileage/efficiency changes queued since the last query ---
+    // Filters run under the index lock: keep them to reading the vehicle, never call back in here.
+
+    // the k largest by key, largest first
+    public List<Vehicle> top(SortKey key, int k) {
+        return top(key, k, null);
+    }
+
+    // e.g. the 20 fastest available trucks:
+    //   top(SortKey.SPEED, 20, v -> v instanceof Truck t && !t.needsMaintenance())
+    public List<Vehicle> top(SortKey key, int k, Predicate<? super Vehicle> filter) {
+        if (k < 0) throw new IllegalArgumentException("Negative k");
+        if (key != SortKey.MODEL) return ordered(key).top(k, filter);
+        List<Vehicle> all = sorted(key).vehicles;
+        List<Vehicle> result = new ArrayList<>(Math.min(k, all.size()));
+        for (int i = all.size() - 1; i >= 0 && result.size() < k; i--) {
+            if (filter == null || filter.test(all.get(i))) result.add(all.get(i));
+        }
+        return result;
+    }
+
+    // the k smallest by key, smallest first
+    public List<Vehicle> bottom(SortKey key, int k, Predicate<? super Vehicle> filter) {
+        if (k < 0) throw new IllegalArgumentException("Negative k");
+        return ordered(key).bottom(k, filter);
+    }
+
+    // vehicles with min <= key <= max, ascending
+    public List<Vehicle> range(SortKey key, double min, double max) {
+        return range(key, min, max, Integer.MAX_VALUE, null);
+    }
+
+    public List<Vehicle> range(SortKey key, double min, double max, int limit, Predicate<? super Vehicle> filter) {
+        return ordered(key).range(min, max, limit, filter);
+    }
+
+    public int countInRange(SortKey key, double min, double max) {
+        return ordered(key).count(min, max);
+    }
+
+    // nearest-rank percentile by key (p in [0, 100]); null on an empty fleet
+    public Vehicle percentile(SortKey key, double p) {
+        return ordered(key).percentile(p);
+    }
+
     public List<String> searchByType(Class<?> type){
         List<String> result= new ArrayList<>();
-        for(Vehicle v: fleet){
-            if (type.isInstance(v)){
-                result.add(v.getId());
+        structure.readLock().lock();
+        try {
+            for (Map.Entry<Class<?>, LinkedHashSet<Vehicle>> e : byType.entrySet()) {
+                if (type.isAssignableFrom(e.getKey())) {
+                    for (Vehicle v : e.getValue()) {
+                        result.add(v.getId());
+                    }
+                }
             }
+        } finally {
+            structure.readLock().unlock();
         }
         return result;
     }
 
-    public String generateReport(){
-        //total vehicles
-        int total=0;
-        // count by type
-        int carCount=0;
-        int busCount=0;
-        int truckCount=0;
-        int airplaneCount=0;
-        int cargoShipCount=0;
-        // average efficiency
-        double totalEfficiency=0;
-        // total mileage
-        double totalMileage=0;
-        // maintenance status
-        int needsMaintenance=0;
-
-        for (Vehicle v:fleet){
-            total+=1;
-            if (v instanceof Car) {
-                carCount++;
-            } else if (v instanceof Bus) {
-                busCount++;
-            } else if (v instanceof Truck) {
-                truckCount++;
-            } else if (v instanceof Airplane) {
-                airplaneCount++;
-            } else if (v instanceof CargoShip) {
-                cargoShipCount++;
-            }
+    public List<String> searchByModel(String model){
+        structure.readLock().lock();
+        try {
+            Set<String> ids = idsByModel.get(model);
+            return ids == null ? new ArrayList<>() : new ArrayList<>(ids);
+        } finally {
+            structure.readLock().unlock();
+        }
+    }
 
-            totalEfficiency+= v.calculateFuelEfficiency();
-            totalMileage+= v.getCurrentMileage();
+    public SortedSet<String> getModelNames(){
+        structure.readLock().lock();
+        try {
+            return Collections.unmodifiableSortedSet(new TreeSet<>(sortedModels));
+        } finally {
+            structure.readLock().unlock();
+        }
+    }
 
+    public String generateReport(){
+        long t0 = REPORT_TIME.start();
+        if (debugChecks) {
+            checkAggregates();
         }
 
-        needsMaintenance= getVehiclesNeedingMaintenance().size();
-        double averageEfficiency = totalEfficiency/total;
+        int total;
+        int carCount;
+        int busCount;
+        int truckCount;
+        int airplaneCount;
+        int cargoShipCount;
+        structure.readLock().lock();
+        try {
+            total= index.size();
+            carCount= countOf(Car.class);
+            busCount= countOf(Bus.class);
+            truckCount= countOf(Truck.class);
+            airplaneCount= countOf(Airplane.class);
+            cargoShipCount= countOf(CargoShip.class);
+        } finally {
+            structure.readLock().unlock();
+        }
+        int needsMaintenance= maintenanceDue.size();
+        double averageEfficiency = totalEfficiency.sum()/total;
 
-        return "=== Fleet Report ===\n"
+        String report = "=== Fleet Report ===\n"
                 + "Total Vehicles           : " + total + "\n"
                 + "Count by Type" + "\n"
                 + "     Cars                : " + carCount + "\n"
@@ -150,180 +880,306 @@ public class FleetManager {
                 + "     Airplanes           : " + airplaneCount + "\n"
                 + "     Cargo Ship          : " + cargoShipCount + "\n"
                 + "Average Efficiency       : " + String.format("%.2f", averageEfficiency) + " km/l\n"
-                + "Total Mileage            : " + String.format("%.2f", totalMileage) + " km\n"
+                + "Total Mileage            : " + String.format("%.2f", totalMileage.sum()) + " km\n"
                 + "Vehicles for Maintenance : " + needsMaintenance + "\n";
-
+        REPORT_TIME.stopSince(t0);
+        return report;
     }
 
+    // ids in fleet order
     public List<String> getVehiclesNeedingMaintenance(){
-        List<String> result= new ArrayList<>();
-        for (Vehicle v: fleet){
-            if(v instanceof Maintainable m && m.needsMaintenance()){
-                result.add(v.getId());
+        List<Tracked> due = dueInOrder();
+        List<String> ids = new ArrayList<>(due.size());
+        for (Tracked t : due) ids.add(t.vehicle.getId());
+        return ids;
+    }
+
+    // vehicles due for maintenance in fleet (insertion) order, sorted by sequence so it costs
+    // O(k log k) in the number due rather than a scan of the fleet
+    private List<Tracked> dueInOrder() {
+        List<Tracked> due = new ArrayList<>(maintenanceDue.size());
+        for (String id : maintenanceDue) {
+            Tracked t = index.get(id);
+            if (t != null) due.add(t);
+        }
+        due.sort(Comparator.comparingLong(t -> t.seq));
+        return due;
+    }
+
+    // exports this manager's size, maintenance backlog and total mileage as gauges
+    public void registerGauges(MetricsRegistry registry) {
+        registry.gauge("fleet.size", this::size);
+        registry.gauge("fleet.maintenanceDue", maintenanceDue::size);
+        registry.gauge("fleet.totalMileage", this::getTotalMileage);
+    }
+
+    // composable query over the fleet; see FleetQuery
+    public FleetQuery query() {
+        return new FleetQuery(this);
+    }
+
+    // --- access paths for FleetQuery: cardinality estimates and candidate fetches ---
+
+    int estimateType(Class<?> type) {
+        structure.readLock().lock();
+        try {
+            return countOf(type);
+        } finally {
+            structure.readLock().unlock();
+        }
+    }
+
+    List<Vehicle> vehiclesOfType(Class<?> type) {
+        List<Vehicle> result = new ArrayList<>();
+        structure.readLock().lock();
+        try {
+            for (Map.Entry<Class<?>, LinkedHashSet<Vehicle>> e : byType.entrySet()) {
+                if (type.isAssignableFrom(e.getKey())) result.addAll(e.getValue());
             }
+        } finally {
+            structure.readLock().unlock();
+        }
+        return result;
+    }
+
+    int estimateModel(String model) {
+        structure.readLock().lock();
+        try {
+            Set<String> ids = idsByModel.get(model);
+            return ids == null ? 0 : ids.size();
+        } finally {
+            structure.readLock().unlock();
+        }
+    }
+
+    List<Vehicle> vehiclesOfModel(String model) {
+        return resolve(searchByModel(model));
+    }
+
+    int estimateMaintenance() {
+        return maintenanceDue.size();
+    }
+
+    List<Vehicle> vehiclesNeedingMaintenance() {
+        List<Tracked> due = dueInOrder();
+        List<Vehicle> result = new ArrayList<>(due.size());
+        for (Tracked t : due) result.add(t.vehicle);
+        return result;
+    }
+
+    // insertion sequence of a tracked vehicle, -1 once it has left the fleet
+    long sequenceOf(Vehicle v) {
+        Tracked t = index.get(v.getId());
+        return t != null && t.vehicle == v ? t.seq : -1;
+    }
+
+    private List<Vehicle> resolve(Collection<String> ids) {
+        List<Vehicle> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Vehicle v = getById(id);
+            if (v != null) result.add(v);
         }
         return result;
     }
 
     //Persistence
 
-    public void saveToFile(String filename) {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(filename))) {
-            for (Vehicle v : fleet) {
-                pw.println(toCSV(v));
-            }
+    // returns the number of vehicles written, or -1 if the save failed
+    public long saveToFile(String filename) {
+        long t0 = SAVE_TIME.start();
+        PersistenceEvent event = PersistenceEvent.start("save", "csv", filename);
+        try {
+            event.rows = new CsvFleetWriter().write(Paths.get(filename), view());
             System.out.println("Fleet saved to " + filename);
+            return event.rows;
         } catch (IOException e) {
+            event.failed = true;
             System.out.println("Error saving fleet: " + e.getMessage());
+            return -1;
+        } finally {
+            SAVE_TIME.stopSince(t0);
+            event.finish();
+        }
+    }
+
+    // binary snapshot: exact values, no text parsing
+    public void saveSnapshot(String filename) {
+        long t0 = SAVE_TIME.start();
+        PersistenceEvent event = PersistenceEvent.start("save", "snapshot", filename);
+        try {
+            event.rows = new FleetSnapshot().write(Paths.get(filename), view());
+            System.out.println("Fleet snapshot saved to " + filename);
+        } catch (IOException e) {
+            event.failed = true;
+            System.out.println("Error saving snapshot: " + e.getMessage());
+        } finally {
+            SAVE_TIME.stopSince(t0);
+            event.finish();
         }
     }
 
-    public void loadFromFile(String filename) {
-        try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
-            String line;
-            fleet.clear();
-            while ((line = br.readLine()) != null) {
-                Vehicle v = fromCSV(line);
-                if (v != null) fleet.add(v);
+    public LoadResult loadSnapshot(String filename) {
+        long t0 = LOAD_TIME.start();
+        PersistenceEvent event = PersistenceEvent.start("load", "snapshot", filename);
+        structure.writeLock().lock();
+        try {
+            Path path = Paths.get(filename);
+            if (!Files.isReadable(path)) throw new FileNotFoundException(filename + " (cannot be read)");
+            clearAll();
+            LoadResult result;
+            try {
+                result = new FleetSnapshot().read(path, this::registerNew);
+            } finally {
+                reloaded();
             }
-            System.out.println("Fleet loaded from " + filename);
+            event.loaded(result);
+            System.out.println("Fleet snapshot loaded from " + filename + ": " + result);
+            return result;
         } catch (IOException e) {
-            System.out.println("Error loading fleet: " + e.getMessage());
+            event.failed = true;
+            System.out.println("Error loading snapshot: " + e.getMessage());
+            return null;
+        } finally {
+            structure.writeLock().unlock();
+            LOAD_TIME.stopSince(t0);
+            event.finish();
         }
     }
 
-    //Vehicle Factory
+    //Journal
 
-    private Vehicle fromCSV(String line) {
+    // replaces the fleet with the recovered state of basePath (snapshot + journal replay)
+    // and logs every later mutation there with group commit
+    public RecoveryResult openJournal(String basePath) throws IOException {
+        structure.writeLock().lock();
         try {
-            String[] data = line.split(",");
-            String type = data[0];
-
-            switch (type) {
-                case "Car":
-                    Car car= new Car(
-                            data[1], data[2],
-                            Double.parseDouble(data[3]),
-                            Integer.parseInt(data[4]),
-                            Double.parseDouble(data[5]),
-                            Integer.parseInt(data[6]),
-                            Boolean.parseBoolean(data[7])
-                    );
-                    car.refuel(Double.parseDouble(data[8]));
-                    return car;
-
-                case "Bus":
-                    Bus bus= new Bus(
-                            data[1], data[2],
-                            Double.parseDouble(data[3]),
-                            Integer.parseInt(data[4]),
-                            Double.parseDouble(data[5]),
-                            Integer.parseInt(data[6]),
-                            Double.parseDouble(data[7]),
-                            Boolean.parseBoolean(data[8])
-                    );
-                    bus.refuel(Double.parseDouble(data[9]));
-                    return bus;
-
-                case "CargoShip":
-                    CargoShip ship= new CargoShip(
-                            data[1], data[2],
-                            Double.parseDouble(data[3]),
-                            Double.parseDouble(data[4]),
-                            Boolean.parseBoolean(data[5]),
-                            Double.parseDouble(data[6]),
-                            Boolean.parseBoolean(data[7])
-                    );
-                    ship.refuel(Double.parseDouble(data[8]));
-                    return ship;
-
-                case "Airplane":
-                    Airplane plane= new Airplane(
-                            data[1], data[2],
-                            Double.parseDouble(data[3]),
-                            Double.parseDouble(data[4]),
-                            Double.parseDouble(data[5]),
-                            Integer.parseInt(data[6]),
-                            Double.parseDouble(data[7]),
-                            Boolean.parseBoolean(data[8])
-                    );
-                    plane.refuel(Double.parseDouble(data[9]));
-                    return plane;
-
-                case "Truck":
-                    Truck truck= new Truck(
-                            data[1], data[2],
-                            Double.parseDouble(data[3]),
-                            Integer.parseInt(data[4]),
-                            Double.parseDouble(data[5]),
-                            Double.parseDouble(data[6]),
-                            Boolean.parseBoolean(data[7])
-                    );
-                    truck.refuel(Double.parseDouble(data[8]));
-                    return truck;
-
-                default:
-                    return null;
+            if (journal != null) {
+                throw new IllegalStateException("Journal already open");
             }
-        } catch (Exception e) {
-            System.out.println("Error parsing CSV line: " + line);
-            return null;
+            clearAll();
+            RecoveryResult result;
+            try {
+                result = FleetJournal.recover(basePath, this::registerNew);
+            } finally {
+                for (FleetListener l : listeners) l.fleetReloaded();
+            }
+            journal = new FleetJournal(basePath, result, 10);
+            journal.setCompaction(100_000, this::compactJournal);
+            listeners.add(journal);
+            System.out.println("Fleet recovered from " + basePath + ": " + result);
+            return result;
+        } finally {
+            structure.writeLock().unlock();
         }
     }
 
-    private String toCSV(Vehicle v) {
-        if (v instanceof Car c) {
-            return String.format("Car,%s,%s,%.2f,%d,%.2f,%d,%b, %.2f",
-                    c.getId(), c.getModel(), c.getMaxSpeed(),
-                    c.getNumWheels(), c.getCurrentMileage(),
-                    c.getCurrentPassengers(), c.needsMaintenance(), c.getFuelLevel());
-        } else if (v instanceof Bus b) {
-            return String.format("Bus,%s,%s,%.2f,%d,%.2f,%d,%.2f,%b, %.2f",
-                    b.getId(), b.getModel(), b.getMaxSpeed(),
-                    b.getNumWheels(), b.getCurrentMileage(),
-                    b.getCurrentPassengers(), b.getCurrentCargo(),
-                    b.needsMaintenance(), b.getFuelLevel());
-        } else if (v instanceof CargoShip s) {
-            return String.format("CargoShip,%s,%s,%.2f,%.2f,%b,%.2f,%b, %.2f",
-                    s.getId(), s.getModel(), s.getMaxSpeed(),
-                    s.getCurrentMileage(), s.getSail(),
-                    s.getCurrentCargo(), s.needsMaintenance(), s.getfuelLevel());
-        } else if (v instanceof Airplane a) {
-            return String.format("Airplane,%s,%s,%.2f,%.2f,%.2f,%d,%.2f,%b, %.2f",
-                    a.getId(), a.getModel(), a.getMaxSpeed(),
-                    a.getCurrentMileage(), a.getMaxAltitude(),
-                    a.getCurrentPassengers(), a.getCurrentCargo(),
-                    a.needsMaintenance(), a.getFuelLevel());
-        } else if (v instanceof Truck t) {
-            return String.format("Truck,%s,%s,%.2f,%d,%.2f,%.2f,%b, %.2f",
-                    t.getId(), t.getModel(), t.getMaxSpeed(),
-                    t.getNumWheels(), t.getCurrentMileage(),
-                    t.getCurrentCargo(), t.needsMaintenance(), t.getfuelLevel());
+    // stops every managed mutation while the snapshot is taken
+    public void compactJournal() {
+        structure.writeLock().lock();
+        lockAllStripes();
+        try {
+            if (journal == null) return;
+            journal.compact(compact());
+        } catch (IOException e) {
+            System.out.println("Error compacting journal: " + e.getMessage());
+        } finally {
+            unlockAllStripes();
+            structure.writeLock().unlock();
+        }
+    }
+
+    public void closeJournal() throws IOException {
+        FleetJournal j;
+        structure.writeLock().lock();
+        try {
+            j = journal;
+            journal = null;
+            if (j != null) listeners.remove(j);
+        } finally {
+            structure.writeLock().unlock();
+        }
+        // closed outside the lock: the flusher may be waiting for it to run a compaction
+        if (j != null) j.close();
+    }
+
+    public FleetJournal getJournal() {
+        structure.readLock().lock();
+        try {
+            return journal;
+        } finally {
+            structure.readLock().unlock();
+        }
+    }
+
+    public LoadResult loadFromFile(String filename) {
+        return loadFromFile(filename, false);
+    }
+
+    // parallel mode memory-maps the file and parses line-aligned chunks on the common fork-join pool
+    public LoadResult loadFromFile(String filename, boolean parallel) {
+        long t0 = LOAD_TIME.start();
+        PersistenceEvent event = PersistenceEvent.start("load", parallel ? "csv-parallel" : "csv", filename);
+        CsvFleetReader.VehicleSink sink = this::registerNew;
+        structure.writeLock().lock();
+        try {
+            LoadResult result;
+            if (parallel) {
+                Path path = Paths.get(filename);
+                if (!Files.isReadable(path)) throw new FileNotFoundException(filename + " (cannot be read)");
+                clearAll();
+                try {
+                    result = new ParallelCsvLoader().load(path, sink);
+                } finally {
+                    reloaded();
+                }
+            } else {
+                try (Reader in = new InputStreamReader(new FileInputStream(filename), StandardCharsets.UTF_8)) {
+                    clearAll();
+                    try {
+                        result = new CsvFleetReader().read(in, sink);
+                    } finally {
+                        reloaded();
+                    }
+                }
+            }
+            event.loaded(result);
+            System.out.println("Fleet loaded from " + filename + ": " + result);
+            return result;
+        } catch (IOException e) {
+            event.failed = true;
+            System.out.println("Error loading fleet: " + e.getMessage());
+            return null;
+        } finally {
+            structure.writeLock().unlock();
+            LOAD_TIME.stopSince(t0);
+            event.finish();
         }
-        return "";
     }
 
     public void sortBySpeed() {
-        fleet.sort(Comparator.comparingDouble(Vehicle::getMaxSpeed));
+        displayOrder = SortKey.SPEED;
         System.out.println("Fleet sorted by speed!");
     }
 
     public void sortByModelName() {
-        fleet.sort(Comparator.comparing(Vehicle::getModel));
+        displayOrder = SortKey.MODEL;
         System.out.println("Fleet sorted by model name!");
     }
 
     public void sortByMileage() {
-        fleet.sort(Comparator.comparing(Vehicle::getCurrentMileage));
+        displayOrder = SortKey.MILEAGE;
         System.out.println("Fleet sorted by mileage!");
     }
 
+    // id of the first-added of the fastest vehicles; null on an empty fleet
     public String getFastestVehicle() {
-        return Collections.max(fleet, Comparator.comparingDouble(Vehicle::getMaxSpeed)).getId();
+        Vehicle v = ordered.get(SortKey.SPEED).max();
+        return v == null ? null : v.getId();
     }
 
     public String getSlowestVehicle() {
-        return Collections.min(fleet, Comparator.comparingDouble(Vehicle::getMaxSpeed)).getId();
+        Vehicle v = ordered.get(SortKey.SPEED).min();
+        return v == null ? null : v.getId();
     }
 
     private String display(Vehicle v) {
@@ -359,13 +1215,15 @@ public class FleetManager {
     }
 
     public void displayAll(){
-        for (Vehicle v : fleet) {
+        SortKey order = displayOrder;
+        for (Vehicle v : order == null ? view() : getSorted(order)) {
             System.out.println(display(v));
         }
     }
 
 
+    // immutable snapshot in insertion order, safe to iterate while the fleet changes
     public List<Vehicle> getAllVehicles() {
-        return Collections.unmodifiableList(fleet);
+        return view();
     }
 }
\ No newline at end of file
@@ -0,0 +1,427 @@
+package managers;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import interfaces.Maintainable;
+import managers.FleetManager.SortKey;
+import vehicles.Vehicle;
+
+// Composable query over a FleetManager. Conditions are ANDed together. The result can then be
+// ordered, limited and projected.
+// Structured conditions can be answered from the manager's indexes: type or capability, model,
+// a key range, and maintenance due. The planner estimates how many rows each would return and
+// drives the query from the cheapest access path. The other conditions are checked per row.
+// Large fleets with no usable index are scanned with a parallel stream.
+// Without an ordering, results come in insertion order whichever plan ran. Ties in an ordering
+// keep insertion order too, so the plan never changes the answer. explain() shows the plan
+// without running it.
+// Predicates can run under an index lock, so they should only read the vehicle.
+//
+//   fleet.query()
+//        .where(CargoCarrier.class, c -> c.getCurrentCargo() > 1_000)
+//        .between(SortKey.MILEAGE, 9_500, 10_500)
+//        .orderByDescending(SortKey.SPEED)
+//        .limit(20)
+//        .ids();
+public class FleetQuery {
+    static final int PARALLEL_THRESHOLD = 50_000;
+
+    private enum Kind { TYPE, MODEL, RANGE, MAINTENANCE, FILTER }
+
+    private enum Access {
+        FULL_SCAN("full scan"),
+        PARALLEL_SCAN("parallel scan"),
+        TYPE_INDEX("type index"),
+        MODEL_INDEX("model index"),
+        RANGE_INDEX("range index"),
+        MAINTENANCE_SET("maintenance set"),
+        ORDERED_INDEX("ordered index walk");
+
+        private final String label;
+
+        Access(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final class Condition implements Predicate<Vehicle> {
+        final Kind kind;
+        final String description;
+        final Class<?> type;
+        final String model;
+        final SortKey key;
+        final double min, max;
+        final Predicate<? super Vehicle> filter;
+
+        private Condition(Kind kind, String description, Class<?> type, String model, SortKey key,
+                          double min, double max, Predicate<? super Vehicle> filter) {
+            this.kind = kind;
+            this.description = description;
+            this.type = type;
+            this.model = model;
+            this.key = key;
+            this.min = min;
+            this.max = max;
+            this.filter = filter;
+        }
+
+        @Override
+        public boolean test(Vehicle v) {
+            switch (kind) {
+                case TYPE: return type.isInstance(v);
+                case MODEL: return model.equals(v.getModel());
+                case RANGE: {
+                    double value = value(key, v);
+                    return value >= min && value <= max;
+                }
+                case MAINTENANCE: return v instanceof Maintainable m && m.needsMaintenance();
+                default: return filter.test(v);
+            }
+        }
+    }
+
+    private static final class Plan {
+        final Access access;
+        final Condition driver; // the indexed condition the rows come from, if any
+        final double rows;      // estimated rows read from the access path
+        final boolean ordered;  // the access path already yields the requested order
+        final int fleetSize;
+        final List<String> candidates;
+
+        Plan(Access access, Condition driver, double rows, boolean ordered, int fleetSize, List<String> candidates) {
+            this.access = access;
+            this.driver = driver;
+            this.rows = rows;
+            this.ordered = ordered;
+            this.fleetSize = fleetSize;
+            this.candidates = candidates;
+        }
+    }
+
+    private final FleetManager manager;
+    private final List<Condition> conditions = new ArrayList<>();
+    private SortKey orderKey;
+    private Comparator<? super Vehicle> comparator;
+    private boolean descending;
+    private int limit = Integer.MAX_VALUE;
+
+    FleetQuery(FleetManager manager) {
+        this.manager = manager;
+    }
+
+    // --- conditions ---
+
+    // instances of a class or capability interface, e.g. ofType(PassengerCarrier.class)
+    public FleetQuery ofType(Class<?> type) {
+        conditions.add(new Condition(Kind.TYPE, "type " + type.getSimpleName(), type, null, null, 0, 0, null));
+        return this;
+    }
+
+    public FleetQuery model(String model) {
+        conditions.add(new Condition(Kind.MODEL, "model '" + model + "'", null, model, null, 0, 0, null));
+        return this;
+    }
+
+    // min <= key <= max for SPEED, MILEAGE or EFFICIENCY
+    public FleetQuery between(SortKey key, double min, double max) {
+        if (key == SortKey.MODEL) throw new IllegalArgumentException(key + " is not a numeric key");
+        conditions.add(new Condition(Kind.RANGE, name(key) + " in [" + min + ", " + max + "]", null, null, key, min, max, null));
+        return this;
+    }
+
+    public FleetQuery needingMaintenance() {
+        conditions.add(new Condition(Kind.MAINTENANCE, "needs maintenance", null, null, null, 0, 0, null));
+        return this;
+    }
+
+    // a test on a capability, e.g. where(FuelConsumable.class, f -> f.getFuelLevel() < 20);
+    // implies ofType(capability), which the planner can use as an index
+    public <T> FleetQuery where(Class<T> capability, Predicate<? super T> test) {
+        ofType(capability);
+        return where(capability.getSimpleName() + " predicate", v -> test.test(capability.cast(v)));
+    }
+
+    public FleetQuery where(Predicate<? super Vehicle> test) {
+        return where("predicate", test);
+    }
+
+    // description is what explain() prints for this condition
+    public FleetQuery where(String description, Predicate<? super Vehicle> test) {
+        conditions.add(new Condition(Kind.FILTER, description, null, null, null, 0, 0, Objects.requireNonNull(test)));
+        return this;
+    }
+
+    // --- ordering, limit ---
+
+    public FleetQuery orderBy(SortKey key) {
+        return order(key, false);
+    }
+
+    public FleetQuery orderByDescending(SortKey key) {
+        return order(key, true);
+    }
+
+    // any other order; always sorted in memory
+    public FleetQuery orderBy(Comparator<? super Vehicle> order) {
+        orderKey = null;
+        comparator = Objects.requireNonNull(order);
+        descending = false;
+        return this;
+    }
+
+    public FleetQuery limit(int n) {
+        if (n < 0) throw new IllegalArgumentException("Negative limit");
+        limit = n;
+        return this;
+    }
+
+    private FleetQuery order(SortKey key, boolean descending) {
+        orderKey = Objects.requireNonNull(key);
+        comparator = null;
+        this.descending = descending;
+        return this;
+    }
+
+    // --- results ---
+
+    public List<Vehicle> list() {
+        return execute(plan());
+    }
+
+    public List<String> ids() {
+        return select(Vehicle::getId);
+    }
+
+    public <R> List<R> select(Function<? super Vehicle, ? extends R> projection) {
+        List<Vehicle> rows = list();
+        List<R> result = new ArrayList<>(rows.size());
+        for (Vehicle v : rows) result.add(projection.apply(v));
+        return result;
+    }
+
+    public int count() {
+        if (conditions.isEmpty()) return Math.min(manager.size(), limit);
+        if (conditions.size() == 1 && conditions.get(0).kind != Kind.FILTER) {
+            return (int) Math.min(estimate(conditions.get(0)), limit); // the index count is exact
+        }
+        return list().size();
+    }
+
+    // the plan list() would run now, with the estimates it was chosen on
+    public String explain() {
+        Plan p = plan();
+        StringBuilder sb = new StringBuilder("query: ").append(describe()).append('\n');
+        sb.append("plan: ").append(p.access.label);
+        if (p.driver != null) sb.append(" on ").append(p.driver.description);
+        if (p.access == Access.ORDERED_INDEX) sb.append(" on ").append(name(orderKey)).append(descending ? " desc" : " asc");
+        sb.append(String.format(", ~%.0f of %d rows%n", p.rows, p.fleetSize));
+        List<String> residual = new ArrayList<>();
+        for (Condition c : conditions) {
+            if (c != p.driver) residual.add(c.description);
+        }
+        if (!residual.isEmpty()) sb.append("  then filter: ").append(String.join(", ", residual)).append('\n');
+        if (isOrdered() && !p.ordered) sb.append("  then sort: ").append(orderName()).append('\n');
+        else if (!isOrdered() && p.driver != null) sb.append("  then restore insertion order\n");
+        if (limit != Integer.MAX_VALUE) sb.append("  limit ").append(limit).append(p.ordered || (!isOrdered() && p.driver == null) ? " (stops early)" : "").append('\n');
+        sb.append("considered:\n");
+        for (String c : p.candidates) sb.append("  ").append(c).append('\n');
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return describe();
+    }
+
+    // --- planning ---
+
+    private Plan plan() {
+        int n = manager.size();
+        boolean ordering = isOrdered();
+        int k = conditions.size();
+        double[] estimates = new double[k];
+        double selectivity = 1; // all structured conditions, assumed independent
+        for (int i = 0; i < k; i++) {
+            Condition c = conditions.get(i);
+            estimates[i] = c.kind == Kind.FILTER ? n : estimate(c);
+            selectivity *= n == 0 ? 0 : estimates[i] / n;
+        }
+        double output = n * selectivity;
+        List<String> candidates = new ArrayList<>();
+
+        Access scan = n >= PARALLEL_THRESHOLD ? Access.PARALLEL_SCAN : Access.FULL_SCAN;
+        double scanRows = !ordering && limit != Integer.MAX_VALUE ? readsFor(limit, selectivity, n) : n;
+        double bestCost = scanRows + (ordering ? sortCost(output) : 0);
+        Plan best = new Plan(scan, null, scanRows, false, n, candidates);
+        candidates.add(candidate(scan.label, scanRows, bestCost));
+
+        for (int i = 0; i < k; i++) {
+            Condition c = conditions.get(i);
+            if (c.kind == Kind.FILTER) continue;
+            double others = estimates[i] == 0 ? 0 : selectivity * n / estimates[i];
+            boolean delivers = c.kind == Kind.RANGE && comparator == null && c.key == orderKey && !descending;
+            double rows = delivers && limit != Integer.MAX_VALUE ? readsFor(limit, others, estimates[i]) : estimates[i];
+            // index rows come back out of insertion order, so unordered queries sort them back
+            double cost = rows + (delivers ? 0 : sortCost(ordering ? rows * others : rows));
+            Access access = access(c);
+            candidates.add(candidate(access.label + " on " + c.description, rows, cost));
+            if (cost < bestCost) {
+                bestCost = cost;
+                best = new Plan(access, c, rows, delivers, n, candidates);
+            }
+        }
+
+        if (orderKey != null && orderKey != SortKey.MODEL) {
+            double rows = readsFor(limit, selectivity, n);
+            candidates.add(candidate(Access.ORDERED_INDEX.label + " on " + name(orderKey), rows, rows));
+            if (rows < bestCost) best = new Plan(Access.ORDERED_INDEX, null, rows, true, n, candidates);
+        }
+        return best;
+    }
+
+    private long estimate(Condition c) {
+        switch (c.kind) {
+            case TYPE: return manager.estimateType(c.type);
+            case MODEL: return manager.estimateModel(c.model);
+            case RANGE: return manager.ordered(c.key).count(c.min, c.max);
+            case MAINTENANCE: return manager.estimateMaintenance();
+            default: return manager.size();
+        }
+    }
+
+    // rows to read before `wanted` of them pass a filter of the given selectivity
+    private static double readsFor(int wanted, double selectivity, double available) {
+        if (wanted == Integer.MAX_VALUE || selectivity <= 0) return available;
+        return Math.min(available, wanted / selectivity);
+    }
+
+    private static double sortCost(double rows) {
+        return rows < 2 ? 0 : rows * (Math.log(rows) / Math.log(2));
+    }
+
+    private static Access access(Condition c) {
+        switch (c.kind) {
+            case TYPE: return Access.TYPE_INDEX;
+            case MODEL: return Access.MODEL_INDEX;
+            case RANGE: return Access.RANGE_INDEX;
+            default: return Access.MAINTENANCE_SET;
+        }
+    }
+
+    private static String candidate(String label, double rows, double cost) {
+        return String.format("%-48s ~%.0f rows, cost %.0f", label, rows, cost);
+    }
+
+    // --- execution ---
+
+    private List<Vehicle> execute(Plan p) {
+        Predicate<Vehicle> residual = residual(p.driver);
+        List<Vehicle> rows;
+        switch (p.access) {
+            case ORDERED_INDEX: {
+                OrderIndex index = manager.ordered(orderKey);
+                return descending ? index.top(limit, residual) : index.bottom(limit, residual);
+            }
+            case RANGE_INDEX: {
+                OrderIndex index = manager.ordered(p.driver.key);
+                if (p.ordered) return index.range(p.driver.min, p.driver.max, limit, residual);
+                rows = index.range(p.driver.min, p.driver.max, Integer.MAX_VALUE, residual);
+                break;
+            }
+            case TYPE_INDEX:
+                rows = filter(manager.vehiclesOfType(p.driver.type), residual);
+                break;
+            case MODEL_INDEX:
+                rows = filter(manager.vehiclesOfModel(p.driver.model), residual);
+                break;
+            case MAINTENANCE_SET:
+                rows = filter(manager.vehiclesNeedingMaintenance(), residual);
+                break;
+            default: {
+                List<Vehicle> all = manager.view();
+                Stream<Vehicle> s = p.access == Access.PARALLEL_SCAN ? all.parallelStream() : all.stream();
+                if (residual != null) s = s.filter(residual);
+                if (!isOrdered() && limit != Integer.MAX_VALUE) s = s.limit(limit);
+                rows = s.collect(Collectors.toCollection(ArrayList::new));
+            }
+        }
+        if (p.driver != null) rows = insertionOrder(rows);
+        if (isOrdered()) rows.sort(comparator());
+        return rows.size() > limit ? new ArrayList<>(rows.subList(0, limit)) : rows;
+    }
+
+    private Predicate<Vehicle> residual(Condition driver) {
+        Predicate<Vehicle> result = null;
+        for (Condition c : conditions) {
+            if (c == driver) continue;
+            result = result == null ? c : result.and(c);
+        }
+        return result;
+    }
+
+    private static List<Vehicle> filter(List<Vehicle> rows, Predicate<Vehicle> residual) {
+        if (residual != null) rows.removeIf(residual.negate());
+        return rows;
+    }
+
+    // index rows in fleet order, dropping any that left the fleet meanwhile
+    private List<Vehicle> insertionOrder(List<Vehicle> rows) {
+        long[] seqs = new long[rows.size()];
+        Integer[] order = new Integer[rows.size()];
+        int live = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            long seq = manager.sequenceOf(rows.get(i));
+            if (seq < 0) continue;
+            seqs[i] = seq;
+            order[live++] = i;
+        }
+        Arrays.sort(order, 0, live, (a, b) -> Long.compare(seqs[a], seqs[b]));
+        List<Vehicle> result = new ArrayList<>(live);
+        for (int i = 0; i < live; i++) result.add(rows.get(order[i]));
+        return result;
+    }
+
+    private boolean isOrdered() {
+        return orderKey != null || comparator != null;
+    }
+
+    private Comparator<? super Vehicle> comparator() {
+        if (comparator != null) return comparator;
+        Comparator<Vehicle> c = orderKey == SortKey.MODEL
+                ? Comparator.comparing(Vehicle::getModel)
+                : Comparator.comparingDouble(v -> value(orderKey, v));
+        return descending ? c.reversed() : c;
+    }
+
+    private static double value(SortKey key, Vehicle v) {
+        switch (key) {
+            case EFFICIENCY: return v.calculateFuelEfficiency();
+            case SPEED: return v.getMaxSpeed();
+            case MILEAGE: return v.getCurrentMileage();
+            default: throw new IllegalStateException("Not a numeric key: " + key);
+        }
+    }
+
+    private static String name(SortKey key) {
+        return key.name().toLowerCase();
+    }
+
+    private String orderName() {
+        return comparator != null ? "custom order" : name(orderKey) + (descending ? " desc" : " asc");
+    }
+
+    private String describe() {
+        StringBuilder sb = new StringBuilder();
+        for (Condition c : conditions) {
+            if (sb.length() > 0) sb.append(" and ");
+            sb.append(c.description);
+        }
+        if (sb.length() == 0) sb.append("all vehicles");
+        if (isOrdered()) sb.append(" order by ").append(orderName());
+        if (limit != Integer.MAX_VALUE) sb.append(" limit ").append(limit);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,21 @@
+package managers;
+
+import jdk.jfr.*;
+
+// A FleetManager lock acquisition that had to wait: an id stripe, the structure write lock or an
+// order index write lock. A ReentrantLock wait only shows up as an anonymous jdk.ThreadPark in a
+// recording, so the locks below try once without waiting and emit this around the blocking
+// acquire. Uncontended acquisitions emit nothing.
+@Name("fleet.LockContended")
+@Label("Fleet Lock Contended")
+@Category({"Fleet Management", "Locks"})
+@Description("Wait for a FleetManager lock after tryLock failed")
+@Enabled(false)
+final class LockContendedEvent extends Event {
+    @Label("Lock")
+    String lock;
+
+    @Label("Queued Threads")
+    @Description("Threads already waiting for the lock when this one started")
+    int queued;
+}
@@ -0,0 +1,19 @@
+package managers;
+
+import jdk.jfr.*;
+
+// One JFR event per FleetManager.maintainAll run.
+@Name("fleet.MaintainAll")
+@Label("Maintain All")
+@Category({"Fleet Management", "Fleet"})
+@Description("A FleetManager.maintainAll run over the vehicles due for maintenance")
+@Enabled(false)
+@StackTrace(false)
+final class MaintenanceEvent extends Event {
+    @Label("Due")
+    @Description("Vehicles on the maintenance list when the run started")
+    int due;
+
+    @Label("Serviced")
+    int serviced;
+}
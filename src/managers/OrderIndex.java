@@ -0,0 +1,348 @@
+package managers;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import vehicles.Vehicle;
+
+// Order-statistic treap over one numeric key (speed, mileage or efficiency). Entries are ordered
+// by (key, insertion sequence), so equal keys keep insertion order; every node knows its subtree
+// size, which gives rank, select, range counts and percentiles in O(log n) expected time.
+// Updated incrementally as vehicles change; its lock is a leaf (nothing else is taken inside).
+class OrderIndex {
+    private static final class Node {
+        final double key;
+        final long seq;
+        final Vehicle vehicle;
+        final int priority;
+        int size = 1;
+        Node left, right;
+
+        Node(double key, long seq, Vehicle vehicle, int priority) {
+            this.key = key;
+            this.seq = seq;
+            this.vehicle = vehicle;
+            this.priority = priority;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock;
+    private final Random priorities = new Random(0x5EED); // guarded by the write lock
+    private Node root;
+
+    OrderIndex(String name) {
+        lock = new ContendedReadWriteLock(name);
+    }
+
+    // --- updates ---
+
+    void insert(double key, long seq, Vehicle v) {
+        lock.writeLock().lock();
+        try {
+            root = insert(root, new Node(key, seq, v, priorities.nextInt()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(double key, long seq) {
+        lock.writeLock().lock();
+        try {
+            root = delete(root, key, seq);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void move(double oldKey, double newKey, long seq, Vehicle v) {
+        if (Double.compare(oldKey, newKey) == 0) return;
+        lock.writeLock().lock();
+        try {
+            root = delete(root, oldKey, seq);
+            root = insert(root, new Node(newKey, seq, v, priorities.nextInt()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // replaces the contents in one pass (sort, then a linear Cartesian-tree build) instead of
+    // n separate moves; readers only wait for the final swap
+    void rebuild(double[] keys, long[] seqs, Vehicle[] vehicles) {
+        Node[] nodes = new Node[keys.length];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < nodes.length; i++) nodes[i] = new Node(keys[i], seqs[i], vehicles[i], random.nextInt());
+        Arrays.parallelSort(nodes, (a, b) -> compare(a.key, a.seq, b));
+        Node built = build(nodes);
+        lock.writeLock().lock();
+        try {
+            root = built;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            root = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // --- queries ---
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // up to k matching vehicles, largest key first (ties: earliest added first)
+    List<Vehicle> top(int k, Predicate<? super Vehicle> filter) {
+        List<Vehicle> out = new ArrayList<>(Math.min(k, 1024));
+        if (k <= 0) return out;
+        lock.readLock().lock();
+        try {
+            // reverse in-order would list ties latest-first; walk each run of equal keys forwards
+            int rank = size(root);
+            while (rank > 0 && out.size() < k) {
+                double key = select(root, rank - 1).key;
+                int first = countBelow(root, key, false);
+                for (int i = first; i < rank && out.size() < k; i++) {
+                    Vehicle v = select(root, i).vehicle;
+                    if (filter == null || filter.test(v)) out.add(v);
+                }
+                rank = first;
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // up to k matching vehicles, smallest key first
+    List<Vehicle> bottom(int k, Predicate<? super Vehicle> filter) {
+        List<Vehicle> out = new ArrayList<>(Math.min(k, 1024));
+        if (k <= 0) return out;
+        lock.readLock().lock();
+        try {
+            walk(root, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, k, filter, out);
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // vehicles with min <= key <= max, ascending, at most limit of them
+    List<Vehicle> range(double min, double max, int limit, Predicate<? super Vehicle> filter) {
+        List<Vehicle> out = new ArrayList<>();
+        if (limit <= 0 || min > max) return out;
+        lock.readLock().lock();
+        try {
+            walk(root, min, max, limit, filter, out);
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int count(double min, double max) {
+        if (min > max) return 0;
+        lock.readLock().lock();
+        try {
+            return countBelow(root, max, true) - countBelow(root, min, false);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // positions [offset, offset + limit) of the ascending order
+    List<Vehicle> page(int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            int end = (int) Math.min((long) offset + limit, size(root));
+            List<Vehicle> out = new ArrayList<>(Math.max(0, end - offset));
+            for (int i = offset; i < end; i++) out.add(select(root, i).vehicle);
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // nearest-rank percentile (0 < p <= 100); null when empty
+    Vehicle percentile(double p) {
+        if (!(p >= 0 && p <= 100)) throw new IllegalArgumentException("Percentile must be within [0, 100]");
+        lock.readLock().lock();
+        try {
+            int n = size(root);
+            if (n == 0) return null;
+            int rank = (int) Math.ceil(p / 100 * n) - 1;
+            return select(root, Math.max(0, Math.min(n - 1, rank))).vehicle;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // first-added vehicle with the largest key; null when empty
+    Vehicle max() {
+        lock.readLock().lock();
+        try {
+            if (root == null) return null;
+            Node last = root;
+            while (last.right != null) last = last.right;
+            return select(root, countBelow(root, last.key, false)).vehicle;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // first-added vehicle with the smallest key; null when empty
+    Vehicle min() {
+        lock.readLock().lock();
+        try {
+            if (root == null) return null;
+            Node first = root;
+            while (first.left != null) first = first.left;
+            return first.vehicle;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- treap internals ---
+
+    private static int size(Node n) {
+        return n == null ? 0 : n.size;
+    }
+
+    private static void update(Node n) {
+        n.size = 1 + size(n.left) + size(n.right);
+    }
+
+    private static int compare(double key, long seq, Node n) {
+        int c = Double.compare(key, n.key);
+        return c != 0 ? c : Long.compare(seq, n.seq);
+    }
+
+    private static Node insert(Node t, Node n) {
+        if (t == null) return n;
+        if (compare(n.key, n.seq, t) < 0) {
+            t.left = insert(t.left, n);
+            if (t.left.priority > t.priority) t = rotateRight(t);
+        } else {
+            t.right = insert(t.right, n);
+            if (t.right.priority > t.priority) t = rotateLeft(t);
+        }
+        update(t);
+        return t;
+    }
+
+    private static Node delete(Node t, double key, long seq) {
+        if (t == null) return null;
+        int c = compare(key, seq, t);
+        if (c == 0) return merge(t.left, t.right);
+        if (c < 0) t.left = delete(t.left, key, seq);
+        else t.right = delete(t.right, key, seq);
+        update(t);
+        return t;
+    }
+
+    // every key in a is below every key in b
+    private static Node merge(Node a, Node b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+
+    private static Node rotateRight(Node t) {
+        Node l = t.left;
+        t.left = l.right;
+        update(t);
+        l.right = t;
+        return l;
+    }
+
+    private static Node rotateLeft(Node t) {
+        Node r = t.right;
+        t.right = r.left;
+        update(t);
+        r.left = t;
+        return r;
+    }
+
+    // treap from nodes in key order: a stack holds the right spine, each node pops the
+    // lower-priority tail as its left subtree
+    private static Node build(Node[] sorted) {
+        Node[] spine = new Node[sorted.length];
+        int top = 0;
+        for (Node n : sorted) {
+            Node last = null;
+            while (top > 0 && spine[top - 1].priority < n.priority) last = spine[--top];
+            n.left = last;
+            if (top > 0) spine[top - 1].right = n;
+            spine[top++] = n;
+        }
+        Node root = top == 0 ? null : spine[0];
+        sizes(root);
+        return root;
+    }
+
+    private static int sizes(Node n) {
+        if (n == null) return 0;
+        n.size = 1 + sizes(n.left) + sizes(n.right);
+        return n.size;
+    }
+
+    // number of entries with key < bound (or <= bound when inclusive)
+    private static int countBelow(Node n, double bound, boolean inclusive) {
+        int count = 0;
+        while (n != null) {
+            int c = Double.compare(n.key, bound);
+            if (c < 0 || (inclusive && c == 0)) {
+                count += size(n.left) + 1;
+                n = n.right;
+            } else {
+                n = n.left;
+            }
+        }
+        return count;
+    }
+
+    private static Node select(Node n, int rank) {
+        while (true) {
+            int left = size(n.left);
+            if (rank < left) {
+                n = n.left;
+            } else if (rank == left) {
+                return n;
+            } else {
+                rank -= left + 1;
+                n = n.right;
+            }
+        }
+    }
+
+    // ascending in-order walk of [min, max], pruned and stopped once limit matches are found
+    private static void walk(Node n, double min, double max, int limit, Predicate<? super Vehicle> filter, List<Vehicle> out) {
+        if (n == null || out.size() >= limit) return;
+        if (Double.compare(n.key, min) >= 0) walk(n.left, min, max, limit, filter, out);
+        if (out.size() >= limit) return;
+        if (Double.compare(n.key, min) >= 0 && Double.compare(n.key, max) <= 0
+                && (filter == null || filter.test(n.vehicle))) {
+            out.add(n.vehicle);
+        }
+        if (Double.compare(n.key, max) <= 0) walk(n.right, min, max, limit, filter, out);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,63 @@
+package managers;
+
+import java.io.IOException;
+import java.nio.file.*;
+import jdk.jfr.*;
+import persistence.LoadResult;
+
+// One JFR event per FleetManager save or load call. The file size is read only when the event
+// is actually committed.
+@Name("fleet.Persistence")
+@Label("Fleet Persistence")
+@Category({"Fleet Management", "Persistence"})
+@Description("A FleetManager save or load call")
+@Enabled(false)
+@StackTrace(false)
+final class PersistenceEvent extends Event {
+    @Label("Operation")
+    String operation;
+
+    @Label("Format")
+    String format;
+
+    @Label("File")
+    String file;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Rejected Rows")
+    long rejected;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Failed")
+    boolean failed;
+
+    static PersistenceEvent start(String operation, String format, String file) {
+        PersistenceEvent event = new PersistenceEvent();
+        event.operation = operation;
+        event.format = format;
+        event.file = file;
+        event.begin();
+        return event;
+    }
+
+    void loaded(LoadResult result) {
+        rows = result.getRows();
+        rejected = result.getRows() - result.getLoaded();
+    }
+
+    void finish() {
+        end();
+        if (!shouldCommit()) return;
+        try {
+            bytes = Files.size(Paths.get(file));
+        } catch (IOException | InvalidPathException e) {
+            bytes = -1;
+        }
+        commit();
+    }
+}
@@ -0,0 +1,82 @@
+package managers;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import vehicles.Vehicle;
+
+// One cached ordering of the fleet by a precomputed key (each vehicle's key is read once per
+// rebuild, not once per comparison). Rebuilt lazily on the first read after invalidate();
+// a rebuild that raced with an invalidation is handed to its caller but not kept.
+// Ties keep insertion order.
+class SortedView {
+    private final FleetManager.SortKey key;
+    private final AtomicLong stamp = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    static final class Snapshot {
+        final List<Vehicle> vehicles; // ascending, unmodifiable
+        final long stamp;
+
+        Snapshot(List<Vehicle> vehicles, long stamp) {
+            this.vehicles = vehicles;
+            this.stamp = stamp;
+        }
+    }
+
+    private static final class Entry {
+        final Vehicle vehicle;
+        final double number;
+        final String name;
+
+        Entry(Vehicle vehicle, double number, String name) {
+            this.vehicle = vehicle;
+            this.number = number;
+            this.name = name;
+        }
+    }
+
+    SortedView(FleetManager.SortKey key) {
+        this.key = key;
+    }
+
+    void invalidate() {
+        stamp.incrementAndGet();
+    }
+
+    // source supplies the fleet in insertion order
+    Snapshot get(Supplier<List<Vehicle>> source) {
+        Snapshot s = snapshot;
+        long current = stamp.get();
+        if (s != null && s.stamp == current) return s;
+        s = build(source.get(), current);
+        if (stamp.get() == current) snapshot = s;
+        return s;
+    }
+
+    private Snapshot build(List<Vehicle> fleet, long current) {
+        Entry[] entries = new Entry[fleet.size()];
+        int i = 0;
+        for (Vehicle v : fleet) {
+            entries[i++] = key == FleetManager.SortKey.MODEL ? new Entry(v, 0, v.getModel()) : new Entry(v, number(v), null);
+        }
+        // object sort is stable, so equal keys stay in insertion order
+        if (key == FleetManager.SortKey.MODEL) {
+            Arrays.sort(entries, (a, b) -> a.name.compareTo(b.name));
+        } else {
+            Arrays.sort(entries, (a, b) -> Double.compare(a.number, b.number));
+        }
+        Vehicle[] vehicles = new Vehicle[entries.length];
+        for (i = 0; i < entries.length; i++) vehicles[i] = entries[i].vehicle;
+        return new Snapshot(Collections.unmodifiableList(Arrays.asList(vehicles)), current);
+    }
+
+    private double number(Vehicle v) {
+        switch (key) {
+            case EFFICIENCY: return v.calculateFuelEfficiency();
+            case SPEED: return v.getMaxSpeed();
+            case MILEAGE: return v.getCurrentMileage();
+            default: throw new IllegalStateException("Not a numeric key: " + key);
+        }
+    }
+}
\ No newline at end of file
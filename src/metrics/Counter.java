@@ -0,0 +1,31 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Monotonic count on striped cells; add() only counts while metrics are enabled.
+public final class Counter {
+    private final String name;
+    private final LongAdder count = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    public String getName() { return name; }
+
+    public void increment() {
+        if (Metrics.isEnabled()) count.increment();
+    }
+
+    public void add(long n) {
+        if (Metrics.isEnabled()) count.add(n);
+    }
+
+    public long get() {
+        return count.sum();
+    }
+
+    void reset() {
+        count.reset();
+    }
+}
@@ -0,0 +1,28 @@
+package metrics;
+
+import java.util.function.DoubleSupplier;
+
+// A value read from its source at export time; nothing runs on the measured path.
+public final class Gauge {
+    private final String name;
+    private volatile DoubleSupplier source;
+
+    Gauge(String name, DoubleSupplier source) {
+        this.name = name;
+        this.source = source;
+    }
+
+    public String getName() { return name; }
+
+    public double get() {
+        try {
+            return source.getAsDouble();
+        } catch (RuntimeException e) {
+            return Double.NaN;
+        }
+    }
+
+    void setSource(DoubleSupplier source) {
+        this.source = source;
+    }
+}
@@ -0,0 +1,93 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import javax.management.*;
+
+// Publishes a registry as one dynamic MBean, fleet:type=Metrics, for jconsole/VisualVM or a JMX
+// scraper. Each counter and gauge is an attribute; each timer becomes <name>.count, .mean,
+// .p50, .p90, .p99, .p999 and .max in nanoseconds. Attributes are computed when read, and
+// metrics registered later show up without re-registering.
+public class JmxExporter implements DynamicMBean {
+    public static final String OBJECT_NAME = "fleet:type=Metrics";
+
+    private final MetricsRegistry registry;
+
+    private JmxExporter(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    // replaces an earlier registration under the same name
+    public static ObjectName register(MetricsRegistry registry) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (server.isRegistered(name)) server.unregisterMBean(name);
+        server.registerMBean(new JmxExporter(registry), name);
+        return name;
+    }
+
+    private Map<String, Object> attributes() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        registry.snapshot().forEach((name, value) -> {
+            if (value instanceof Timer.Snapshot s) {
+                out.put(name + ".count", s.getCount());
+                out.put(name + ".mean", s.getMean());
+                out.put(name + ".p50", s.getP50());
+                out.put(name + ".p90", s.getP90());
+                out.put(name + ".p99", s.getP99());
+                out.put(name + ".p999", s.getP999());
+                out.put(name + ".max", s.getMax());
+            } else {
+                out.put(name, value);
+            }
+        });
+        return out;
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        Object value = attributes().get(attribute);
+        if (value == null) throw new AttributeNotFoundException(attribute);
+        return value;
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] names) {
+        Map<String, Object> all = attributes();
+        AttributeList list = new AttributeList();
+        for (String n : names) {
+            if (all.containsKey(n)) list.add(new Attribute(n, all.get(n)));
+        }
+        return list;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException(attribute.getName() + " is read-only");
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String action, Object[] params, String[] signature) throws ReflectionException {
+        if (action.equals("reset") && (params == null || params.length == 0)) {
+            registry.reset();
+            return null;
+        }
+        throw new ReflectionException(new NoSuchMethodException(action));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> infos = new ArrayList<>();
+        attributes().forEach((name, value) -> infos.add(new MBeanAttributeInfo(
+                name, value.getClass().getName(), name, true, false, false)));
+        MBeanOperationInfo reset = new MBeanOperationInfo("reset", "Zero counters and timers",
+                new MBeanParameterInfo[0], "void", MBeanOperationInfo.ACTION);
+        return new MBeanInfo(JmxExporter.class.getName(), "Fleet metrics",
+                infos.toArray(new MBeanAttributeInfo[0]), null, new MBeanOperationInfo[]{reset}, null);
+    }
+}
@@ -0,0 +1,27 @@
+package metrics;
+
+// Process-wide metrics switch and registry. Off by default (or -Dfleet.metrics=true), so an
+// instrumented path costs one volatile read:
+//   long t0 = TIMER.start();
+//   ... work ...
+//   TIMER.stopSince(t0);   // records nothing when t0 is 0: metrics off, or call not sampled
+// Counters and timers are registered once into static fields; gauges are read only on export.
+public final class Metrics {
+    private static final MetricsRegistry registry = new MetricsRegistry();
+    private static volatile boolean enabled = Boolean.getBoolean("fleet.metrics");
+
+    private Metrics() {
+    }
+
+    public static MetricsRegistry registry() {
+        return registry;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+}
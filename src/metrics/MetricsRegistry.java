@@ -0,0 +1,95 @@
+package metrics;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.*;
+
+// Named counters, gauges and timers. Lookups create on first use; hot paths keep the returned
+// object in a field. A name belongs to one kind of metric. Exports list metrics sorted by name.
+public class MetricsRegistry {
+    private final ConcurrentHashMap<String, Object> metrics = new ConcurrentHashMap<>();
+
+    public Counter counter(String name) {
+        return get(name, Counter.class, () -> new Counter(name));
+    }
+
+    public Timer timer(String name) {
+        return timer(name, 1);
+    }
+
+    // sampling: time 1 call in n (see Timer); fixed by whoever registers the name first
+    public Timer timer(String name, int sampling) {
+        return get(name, Timer.class, () -> new Timer(name, sampling));
+    }
+
+    // registers or replaces the source of a gauge, e.g. when a new FleetManager takes over
+    public Gauge gauge(String name, DoubleSupplier source) {
+        Gauge g = get(name, Gauge.class, () -> new Gauge(name, source));
+        g.setSource(source);
+        return g;
+    }
+
+    private <T> T get(String name, Class<T> kind, Supplier<T> create) {
+        Object m = metrics.get(name);
+        if (m == null) m = metrics.computeIfAbsent(name, n -> create.get());
+        if (!kind.isInstance(m)) {
+            throw new IllegalArgumentException(name + " is a " + m.getClass().getSimpleName() + ", not a " + kind.getSimpleName());
+        }
+        return kind.cast(m);
+    }
+
+    // zeroes counters and timers, e.g. after warm-up; gauges read live values
+    public void reset() {
+        for (Object m : metrics.values()) {
+            if (m instanceof Counter c) c.reset();
+            else if (m instanceof Timer t) t.reset();
+        }
+    }
+
+    // name -> Long (counter), Double (gauge) or Timer.Snapshot, sorted by name
+    public SortedMap<String, Object> snapshot() {
+        SortedMap<String, Object> out = new TreeMap<>();
+        metrics.forEach((name, m) -> {
+            if (m instanceof Counter c) out.put(name, c.get());
+            else if (m instanceof Gauge g) out.put(name, g.get());
+            else out.put(name, ((Timer) m).snapshot());
+        });
+        return out;
+    }
+
+    // one metric per line: "fleet.add count=... mean=...", "fleet.size 1200.0"
+    public String toText() {
+        StringBuilder sb = new StringBuilder();
+        snapshot().forEach((name, value) -> sb.append(name).append(' ').append(value).append('\n'));
+        return sb.toString();
+    }
+
+    // {"fleet.add":{"count":..,"mean":..,"p50":..,...},"fleet.size":1200.0,...}; times in nanoseconds
+    public String toJson() {
+        StringBuilder sb = new StringBuilder(1024).append('{');
+        for (Map.Entry<String, Object> e : snapshot().entrySet()) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append('"').append(e.getKey()).append("\":");
+            Object v = e.getValue();
+            if (v instanceof Timer.Snapshot s) {
+                sb.append("{\"sampling\":").append(s.getSampling())
+                  .append(",\"count\":").append(s.getCount())
+                  .append(",\"mean\":").append(finite(s.getMean()))
+                  .append(",\"p50\":").append(s.getP50())
+                  .append(",\"p90\":").append(s.getP90())
+                  .append(",\"p99\":").append(s.getP99())
+                  .append(",\"p999\":").append(s.getP999())
+                  .append(",\"max\":").append(s.getMax()).append('}');
+            } else if (v instanceof Double d) {
+                sb.append(finite(d));
+            } else {
+                sb.append(v);
+            }
+        }
+        return sb.append('}').toString();
+    }
+
+    private static String finite(double d) {
+        return Double.isFinite(d) ? Double.toString(d) : "null";
+    }
+}
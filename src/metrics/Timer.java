@@ -0,0 +1,142 @@
+package metrics;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.*;
+
+// Concurrent latency histogram in nanoseconds, using the same log-linear buckets as
+// loadtest.LatencyHistogram (32 linear sub-buckets per power of two, ~3% precision).
+// Recording threads are spread over a few stripes of bucket counts by thread id, so parallel
+// vehicle ticks rarely hit the same cache line. A snapshot sums the stripes without stopping
+// writers.
+// A timed call costs ~100 ns, nearly all of it the two System.nanoTime() reads, so timers on
+// operations of a few microseconds sample: start() times 1 call in `sampling`, chosen at random,
+// and the snapshot count is the number of samples.
+public final class Timer {
+    private static final int SUB_BITS = 5;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int BUCKETS = 64 * SUB;
+    private static final int STRIPES =
+            Math.min(8, Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)));
+
+    private final String name;
+    private final int sampling;
+    private final AtomicLongArray[] counts = new AtomicLongArray[STRIPES];
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    Timer(String name, int sampling) {
+        if (sampling < 1) throw new IllegalArgumentException("sampling must be >= 1");
+        this.name = name;
+        this.sampling = sampling;
+        for (int i = 0; i < STRIPES; i++) counts[i] = new AtomicLongArray(BUCKETS);
+    }
+
+    public String getName() { return name; }
+    public int getSampling() { return sampling; }
+
+    // the start time for stopSince, or 0 when metrics are off or this call is not sampled
+    public long start() {
+        if (!Metrics.isEnabled()) return 0;
+        if (sampling > 1 && ThreadLocalRandom.current().nextInt(sampling) != 0) return 0;
+        return System.nanoTime();
+    }
+
+    // records the time since start(); does nothing for 0
+    public void stopSince(long startNanos) {
+        if (startNanos != 0) record(System.nanoTime() - startNanos);
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts[(int) Thread.currentThread().getId() & (STRIPES - 1)].incrementAndGet(index(nanos));
+        sum.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    public Snapshot snapshot() {
+        long[] merged = new long[BUCKETS];
+        long total = 0;
+        for (AtomicLongArray stripe : counts) {
+            for (int i = 0; i < BUCKETS; i++) {
+                long c = stripe.get(i);
+                merged[i] += c;
+                total += c;
+            }
+        }
+        long maxValue = max.get();
+        return new Snapshot(sampling, total, total == 0 ? 0 : (double) sum.sum() / total, maxValue,
+                percentile(merged, total, maxValue, 50), percentile(merged, total, maxValue, 90),
+                percentile(merged, total, maxValue, 99), percentile(merged, total, maxValue, 99.9));
+    }
+
+    void reset() {
+        for (AtomicLongArray stripe : counts) {
+            for (int i = 0; i < BUCKETS; i++) stripe.set(i, 0);
+        }
+        sum.reset();
+        max.reset();
+    }
+
+    public static final class Snapshot {
+        private final int sampling;
+        private final long count;
+        private final double mean;
+        private final long max, p50, p90, p99, p999;
+
+        Snapshot(int sampling, long count, double mean, long max, long p50, long p90, long p99, long p999) {
+            this.sampling = sampling;
+            this.count = count;
+            this.mean = mean;
+            this.max = max;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+            this.p999 = p999;
+        }
+
+        public int getSampling() { return sampling; }
+        public long getCount() { return count; }
+        public double getMean() { return mean; }
+        public long getMax() { return max; }
+        public long getP50() { return p50; }
+        public long getP90() { return p90; }
+        public long getP99() { return p99; }
+        public long getP999() { return p999; }
+
+        @Override
+        public String toString() {
+            String s = String.format(Locale.ROOT, "count=%d mean=%s p50=%s p90=%s p99=%s p99.9=%s max=%s",
+                    count, micros(mean), micros(p50), micros(p90), micros(p99), micros(p999), micros(max));
+            return sampling > 1 ? s + " (1 in " + sampling + " sampled)" : s;
+        }
+
+        private static String micros(double nanos) {
+            return String.format(Locale.ROOT, "%.1fus", nanos / 1e3);
+        }
+    }
+
+    private static long percentile(long[] counts, long total, long max, double percent) {
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percent / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(max, highestIn(i));
+        }
+        return max;
+    }
+
+    private static int index(long v) {
+        if (v < SUB) return (int) v;
+        int msb = 63 - Long.numberOfLeadingZeros(v);
+        return (msb - SUB_BITS + 1) * SUB + (int) ((v >>> (msb - SUB_BITS)) & (SUB - 1));
+    }
+
+    private static long highestIn(int index) {
+        if (index < SUB) return index;
+        int msb = index / SUB + SUB_BITS - 1;
+        long low = (long) (SUB + index % SUB) << (msb - SUB_BITS);
+        return low + (1L << (msb - SUB_BITS)) - 1;
+    }
+}
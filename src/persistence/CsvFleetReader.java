@@ -0,0 +1,77 @@
+package persistence;
+
+import java.io.*;
+import java.util.*;
+import vehicles.Vehicle;
+import exceptions.*;
+
+// Streams a fleet CSV through one reusable char buffer. Bad rows are collected as RowErrors
+// instead of being printed, and the sink can reject vehicles (e.g. duplicate ids) the same way.
+public class CsvFleetReader {
+    public interface VehicleSink {
+        void accept(Vehicle v) throws InvalidOperationException;
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final CsvRow row = new CsvRow();
+    private char[] buf = new char[BUFFER_SIZE];
+
+    private VehicleSink sink;
+    private List<RowError> errors;
+    private long lineNo;
+    private long rows;
+    private long loaded;
+
+    public LoadResult read(Reader in, VehicleSink sink) throws IOException {
+        long started = System.nanoTime();
+        this.sink = sink;
+        errors = new ArrayList<>();
+        lineNo = 0;
+        rows = 0;
+        loaded = 0;
+
+        int filled = 0;
+        boolean eof = false;
+        while (!eof) {
+            if (filled == buf.length) buf = Arrays.copyOf(buf, buf.length * 2); // line longer than buffer
+            int n = in.read(buf, filled, buf.length - filled);
+            if (n < 0) eof = true;
+            else filled += n;
+
+            int start = 0;
+            for (int i = 0; i < filled; i++) {
+                if (buf[i] == '\n') {
+                    line(start, i);
+                    start = i + 1;
+                }
+            }
+            if (eof && start < filled) {
+                line(start, filled); // last line without a trailing newline
+                start = filled;
+            }
+            System.arraycopy(buf, start, buf, 0, filled - start);
+            filled -= start;
+        }
+        this.sink = null;
+        return IoMetrics.read(IoMetrics.CSV_READ, new LoadResult(rows, loaded, errors, System.nanoTime() - started));
+    }
+
+    private void line(int from, int to) {
+        lineNo++;
+        row.reset(buf, from, to);
+        if (row.isBlank()) return;
+        rows++;
+        try {
+            Vehicle v = VehicleCsv.fromCSV(row);
+            if (v == null) {
+                errors.add(new RowError(lineNo, "Unknown vehicle type", row.line()));
+                return;
+            }
+            sink.accept(v);
+            loaded++;
+        } catch (Exception e) {
+            errors.add(new RowError(lineNo, e.getMessage(), row.line()));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package persistence;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.*;
+import java.nio.file.*;
+import metrics.Metrics;
+import vehicles.Vehicle;
+
+// Writes rows into one reusable StringBuilder and pushes them through a large
+// direct buffer into a FileChannel, encoding UTF-8 without per-row allocation.
+public class CsvFleetWriter {
+    private static final int FLUSH_CHARS = 64 * 1024;
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final StringBuilder sb = new StringBuilder(FLUSH_CHARS + 256);
+    private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    // returns the number of rows written
+    public long write(Path file, Iterable<? extends Vehicle> vehicles) throws IOException {
+        long t0 = IoMetrics.CSV_WRITE.start();
+        long rows = 0;
+        sb.setLength(0);
+        out.clear();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Vehicle v : vehicles) {
+                int before = sb.length();
+                VehicleCsv.appendCSV(sb, v);
+                if (sb.length() == before) continue; // not a persisted vehicle type
+                sb.append('\n');
+                rows++;
+                if (sb.length() >= FLUSH_CHARS) encode(channel);
+            }
+            encode(channel);
+            drain(channel);
+            IoMetrics.written(IoMetrics.CSV_WRITE, t0, rows, channel.position());
+        }
+        return rows;
+    }
+
+    private void encode(FileChannel channel) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(sb);
+        encoder.reset();
+        while (true) {
+            CoderResult r = encoder.encode(chars, out, true);
+            if (r.isOverflow()) {
+                drain(channel);
+            } else {
+                break;
+            }
+        }
+        while (encoder.flush(out).isOverflow()) drain(channel);
+        sb.setLength(0);
+        if (out.position() >= BUFFER_SIZE / 2) drain(channel);
+    }
+
+    private void drain(FileChannel channel) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) channel.write(out);
+        out.clear();
+    }
+}
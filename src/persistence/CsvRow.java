@@ -0,0 +1,168 @@
+package persistence;
+
+// One CSV line tokenized in place: fields are (start, end) offsets into a shared char buffer,
+// and numbers are parsed straight from those offsets without building substrings.
+public class CsvRow {
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT = 1L << 53;
+
+    private char[] buf;
+    private int lineStart;
+    private int lineEnd;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int count;
+
+    public void reset(char[] buf, int from, int to) {
+        if (to > from && buf[to - 1] == '\r') to--;
+        this.buf = buf;
+        this.lineStart = from;
+        this.lineEnd = to;
+        count = 0;
+        int start = from;
+        for (int i = from; i <= to; i++) {
+            if (i == to || buf[i] == ',') {
+                if (count == starts.length) {
+                    starts = java.util.Arrays.copyOf(starts, count * 2);
+                    ends = java.util.Arrays.copyOf(ends, count * 2);
+                }
+                starts[count] = start;
+                ends[count] = i;
+                count++;
+                start = i + 1;
+            }
+        }
+    }
+
+    public void reset(String line) {
+        char[] chars = line.toCharArray();
+        reset(chars, 0, chars.length);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isBlank() {
+        for (int i = lineStart; i < lineEnd; i++) {
+            if (!Character.isWhitespace(buf[i])) return false;
+        }
+        return true;
+    }
+
+    public String line() {
+        return new String(buf, lineStart, lineEnd - lineStart);
+    }
+
+    public String text(int field) {
+        check(field);
+        return new String(buf, starts[field], ends[field] - starts[field]);
+    }
+
+    public boolean fieldEquals(int field, String value) {
+        check(field);
+        int len = ends[field] - starts[field];
+        if (len != value.length()) return false;
+        for (int i = 0; i < len; i++) {
+            if (buf[starts[field] + i] != value.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    public boolean getBoolean(int field) {
+        check(field);
+        int s = skipSpaces(starts[field], ends[field]);
+        int e = trimSpaces(s, ends[field]);
+        if (e - s != 4) return false;
+        return (buf[s] | 0x20) == 't' && (buf[s + 1] | 0x20) == 'r'
+                && (buf[s + 2] | 0x20) == 'u' && (buf[s + 3] | 0x20) == 'e';
+    }
+
+    public int getInt(int field) {
+        check(field);
+        int s = skipSpaces(starts[field], ends[field]);
+        int e = trimSpaces(s, ends[field]);
+        boolean negative = false;
+        if (s < e && (buf[s] == '-' || buf[s] == '+')) {
+            negative = buf[s] == '-';
+            s++;
+        }
+        if (s == e) throw badNumber(field);
+        long value = 0;
+        for (int i = s; i < e; i++) {
+            char c = buf[i];
+            if (c < '0' || c > '9') throw badNumber(field);
+            value = value * 10 + (c - '0');
+            if (value > (long) Integer.MAX_VALUE + 1) throw badNumber(field);
+        }
+        if (negative) value = -value;
+        if (value > Integer.MAX_VALUE) throw badNumber(field);
+        return (int) value;
+    }
+
+    public double getDouble(int field) {
+        check(field);
+        int s = skipSpaces(starts[field], ends[field]);
+        int e = trimSpaces(s, ends[field]);
+        int i = s;
+        boolean negative = false;
+        if (i < e && (buf[i] == '-' || buf[i] == '+')) {
+            negative = buf[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean dot = false;
+        for (; i < e; i++) {
+            char c = buf[i];
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (dot) fractionDigits++;
+                if (digits > 18) return slowDouble(field, s, e);
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                // exponents, NaN, Infinity and anything odd go through the JDK parser
+                return slowDouble(field, s, e);
+            }
+        }
+        if (digits == 0) throw badNumber(field);
+        if (mantissa > MAX_EXACT || fractionDigits >= POW10.length) return slowDouble(field, s, e);
+        // both operands are exact doubles, so a single division is correctly rounded
+        double value = mantissa / POW10[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    private double slowDouble(int field, int s, int e) {
+        try {
+            return Double.parseDouble(new String(buf, s, e - s));
+        } catch (NumberFormatException ex) {
+            throw badNumber(field);
+        }
+    }
+
+    private int skipSpaces(int s, int e) {
+        while (s < e && buf[s] == ' ') s++;
+        return s;
+    }
+
+    private int trimSpaces(int s, int e) {
+        while (e > s && buf[e - 1] == ' ') e--;
+        return e;
+    }
+
+    private void check(int field) {
+        if (field >= count) {
+            throw new IllegalArgumentException("Missing field " + field + " (row has " + count + ")");
+        }
+    }
+
+    private NumberFormatException badNumber(int field) {
+        return new NumberFormatException("Bad number in field " + field + ": \"" + text(field) + "\"");
+    }
+}
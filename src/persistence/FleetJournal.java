@@ -0,0 +1,498 @@
+package persistence;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.CRC32;
+import exceptions.InvalidOperationException;
+import interfaces.FleetListener;
+import vehicles.Vehicle;
+
+// Write-ahead journal of fleet mutations.
+//
+// Files for a base path B:
+//   B.journal     header (int magic "FLTJ", short version, long generation) + records
+//   B.<gen>.snap  FleetSnapshot the journal of that generation starts from
+//
+// Record: int payload length, int CRC32 of payload, payload = byte op + data.
+//   ADD / UPDATE : tag, id, model, fields (same encoding as FleetSnapshot) - a full vehicle image
+//   REMOVE       : id
+// Every vehicle change (move, refuel, cargo, passengers, maintenance) is logged as an UPDATE
+// image, so replay is idempotent and does not re-run any vehicle logic.
+//
+// Appends only copy into an in-memory buffer; a flusher thread writes and fsyncs whatever
+// accumulated every commit interval (group commit). Compaction writes the next generation's
+// snapshot and then atomically swaps in an empty journal of that generation.
+// Once a write or fsync fails the journal is dead: every later append throws instead of
+// buffering mutations that can no longer reach the disk.
+public class FleetJournal implements FleetListener, Closeable {
+    static final int MAGIC = 0x464C544A;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 14;
+
+    static final byte ADD = 1;
+    static final byte UPDATE = 2;
+    static final byte REMOVE = 3;
+
+    private final String base;
+    private long generation;
+    private FileChannel channel;
+
+    private ByteBuffer active = ByteBuffer.allocate(1 << 20);
+    private ByteBuffer writing = ByteBuffer.allocate(1 << 20);
+    private final CRC32 crc = new CRC32();
+    private int payloadStart;
+    private final Object ioLock = new Object();
+    private final ScheduledExecutorService flusher;
+
+    private long compactEvery = 100_000;
+    private Runnable compactor;
+    private volatile boolean compacting;
+    private IOException failure;
+
+    // sequence numbers: appended by callers, durable after the covering fsync
+    private long appendedSeq;
+    private long durableSeq;
+    private long recordsSinceCompaction;
+
+    // stats
+    private long appendNanos;
+    private long maxAppendNanos;
+    private long commits;
+    private long committedBytes;
+
+    public FleetJournal(String base, RecoveryResult recovered, long commitMillis) throws IOException {
+        this.base = base;
+        this.generation = recovered.getGeneration();
+        this.channel = FileChannel.open(journalPath(base), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (channel.size() < HEADER_SIZE) {
+            channel.truncate(0);
+            writeHeader(channel, generation);
+        }
+        channel.position(channel.size());
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "fleet-journal-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::background, commitMillis, commitMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public static Path journalPath(String base) {
+        return Paths.get(base + ".journal");
+    }
+
+    public static Path snapshotPath(String base, long generation) {
+        return Paths.get(base + "." + generation + ".snap");
+    }
+
+    // compaction is requested from the flusher thread once this many records piled up
+    public void setCompaction(long everyRecords, Runnable compactor) {
+        this.compactEvery = everyRecords;
+        this.compactor = compactor;
+    }
+
+    //FleetListener
+
+    public void vehicleAdded(Vehicle v) {
+        appendVehicle(ADD, v);
+    }
+
+    public void vehicleChanged(Vehicle v) {
+        appendVehicle(UPDATE, v);
+    }
+
+    public void vehicleRemoved(Vehicle v) {
+        long started = System.nanoTime();
+        synchronized (this) {
+            checkFailure();
+            byte[] id = v.getId().getBytes(StandardCharsets.UTF_8);
+            ByteBuffer out = begin(1 + 4 + id.length);
+            out.put(REMOVE);
+            putString(out, id);
+            end(out, started);
+        }
+    }
+
+    public void fleetReloaded() {
+        // a bulk load replaced everything; the owner compacts right after, nothing to log here
+    }
+
+    private void appendVehicle(byte op, Vehicle v) {
+        byte tag = FleetSnapshot.tagOf(v);
+        if (tag == 0) return;
+        long started = System.nanoTime();
+        synchronized (this) {
+            checkFailure();
+            byte[] id = v.getId().getBytes(StandardCharsets.UTF_8);
+            byte[] model = v.getModel().getBytes(StandardCharsets.UTF_8);
+            ByteBuffer out = begin(2 + 8 + id.length + model.length + 64);
+            out.put(op).put(tag);
+            putString(out, id);
+            putString(out, model);
+            FleetSnapshot.writeFields(out, v);
+            end(out, started);
+        }
+    }
+
+    // caller holds this monitor
+    private void checkFailure() {
+        if (failure != null) throw new UncheckedIOException("Journal write failed earlier", failure);
+    }
+
+    // reserves length + crc slots and returns the buffer positioned at the payload
+    private ByteBuffer begin(int maxPayload) {
+        if (active.remaining() < 8 + maxPayload) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(active.capacity() * 2, active.position() + 8 + maxPayload));
+            active.flip();
+            bigger.put(active);
+            active = bigger;
+        }
+        active.position(active.position() + 8);
+        payloadStart = active.position();
+        return active;
+    }
+
+    private void end(ByteBuffer out, long started) {
+        int length = out.position() - payloadStart;
+        crc.reset();
+        crc.update(out.array(), payloadStart, length);
+        out.putInt(payloadStart - 8, length);
+        out.putInt(payloadStart - 4, (int) crc.getValue());
+        appendedSeq++;
+        recordsSinceCompaction++;
+        long took = System.nanoTime() - started;
+        appendNanos += took;
+        if (took > maxAppendNanos) maxAppendNanos = took;
+    }
+
+    private static void putString(ByteBuffer out, byte[] bytes) {
+        out.putInt(bytes.length).put(bytes);
+    }
+
+    //group commit
+
+    private void background() {
+        try {
+            commit();
+            Runnable c = compactor;
+            boolean due;
+            synchronized (this) {
+                due = recordsSinceCompaction >= compactEvery;
+            }
+            if (due && c != null && !compacting) {
+                c.run();
+            }
+        } catch (IOException e) {
+            // recorded by commit; appends fail from now on and sync() reports it
+        }
+    }
+
+    // writes and fsyncs everything appended so far
+    public void commit() throws IOException {
+        synchronized (ioLock) {
+            long seq;
+            synchronized (this) {
+                if (failure != null) throw failure;
+                if (active.position() == 0) return;
+                ByteBuffer full = active;
+                active = writing;
+                writing = full;
+                seq = appendedSeq;
+            }
+            writing.flip();
+            int bytes = writing.remaining();
+            try {
+                while (writing.hasRemaining()) channel.write(writing);
+                channel.force(false);
+            } catch (IOException e) {
+                failed(e);
+                throw e;
+            } finally {
+                writing.clear();
+            }
+            synchronized (this) {
+                durableSeq = seq;
+                commits++;
+                committedBytes += bytes;
+                notifyAll();
+            }
+        }
+    }
+
+    private void failed(IOException e) {
+        synchronized (this) {
+            failure = e;
+            active.clear(); // nothing buffered can be made durable any more
+            notifyAll();
+        }
+        IoMetrics.JOURNAL_FAILURES.increment();
+    }
+
+    // blocks until everything appended before the call is on disk
+    public void sync() throws IOException {
+        long target;
+        synchronized (this) {
+            target = appendedSeq;
+        }
+        commit();
+        synchronized (this) {
+            while (durableSeq < target && failure == null) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted waiting for journal sync");
+                }
+            }
+            if (failure != null) throw failure;
+        }
+    }
+
+    //compaction
+
+    // caller must stop fleet mutations (the FleetManager lock) while this runs
+    public void compact(Collection<? extends Vehicle> fleet) throws IOException {
+        compacting = true;
+        try {
+            synchronized (ioLock) {
+                long next = generation + 1;
+                Path snap = snapshotPath(base, next);
+                Path tmpSnap = Paths.get(snap + ".tmp");
+                new FleetSnapshot().write(tmpSnap, fleet);
+                try (FileChannel c = FileChannel.open(tmpSnap, StandardOpenOption.WRITE)) {
+                    c.force(true);
+                }
+                Files.move(tmpSnap, snap, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+                // the snapshot already contains everything still buffered
+                synchronized (this) {
+                    active.clear();
+                    durableSeq = appendedSeq;
+                    recordsSinceCompaction = 0;
+                }
+                Path journal = journalPath(base);
+                Path tmpJournal = Paths.get(journal + ".tmp");
+                try (FileChannel c = FileChannel.open(tmpJournal, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    writeHeader(c, next);
+                    c.force(true);
+                }
+                channel.close();
+                Files.move(tmpJournal, journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                channel = FileChannel.open(journal, StandardOpenOption.WRITE);
+                channel.position(channel.size());
+
+                Files.deleteIfExists(snapshotPath(base, generation));
+                generation = next;
+            }
+        } finally {
+            compacting = false;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            commit();
+        } finally {
+            synchronized (ioLock) {
+                channel.close();
+            }
+        }
+    }
+
+    //stats
+
+    public synchronized long getAppendCount() {
+        return appendedSeq;
+    }
+
+    public synchronized double getAverageAppendNanos() {
+        return appendedSeq == 0 ? 0 : (double) appendNanos / appendedSeq;
+    }
+
+    public synchronized long getMaxAppendNanos() {
+        return maxAppendNanos;
+    }
+
+    public synchronized long getCommitCount() {
+        return commits;
+    }
+
+    public synchronized long getCommittedBytes() {
+        return committedBytes;
+    }
+
+    // the write or fsync error that stopped the journal, or null while it is healthy
+    public synchronized IOException getFailure() {
+        return failure;
+    }
+
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    //recovery
+
+    // loads the snapshot named by the journal header, replays intact records on top of it,
+    // cuts off a torn tail and hands the resulting fleet to the sink in order
+    public static RecoveryResult recover(String base, CsvFleetReader.VehicleSink sink) throws IOException {
+        long started = System.nanoTime();
+        Path journal = journalPath(base);
+        long generation = 0;
+        long validBytes = 0;
+        long truncated = 0;
+        long replayed = 0;
+        long snapshotVehicles = 0;
+        LinkedHashMap<String, Vehicle> state = new LinkedHashMap<>();
+
+        if (Files.exists(journal)) {
+            try (FileChannel c = FileChannel.open(journal, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                while (header.hasRemaining() && c.read(header) > 0) { }
+                header.flip();
+                if (header.remaining() == HEADER_SIZE) {
+                    if (header.getInt() != MAGIC) throw new IOException(journal + " is not a fleet journal");
+                    short version = header.getShort();
+                    if (version != VERSION) throw new IOException("Unsupported journal version " + version);
+                    generation = header.getLong();
+                    snapshotVehicles = loadSnapshot(base, generation, state);
+                    long[] result = replay(c, state);
+                    replayed = result[0];
+                    validBytes = result[1];
+                    truncated = c.size() - validBytes;
+                    if (truncated > 0) {
+                        c.truncate(validBytes);
+                        c.force(true);
+                    }
+                } else {
+                    // crashed while creating the journal: nothing was ever logged
+                    truncated = c.size();
+                    c.truncate(0);
+                }
+            }
+        }
+        for (Vehicle v : state.values()) {
+            try {
+                sink.accept(v);
+            } catch (InvalidOperationException e) {
+                throw new IOException("Cannot restore vehicle " + v.getId() + ": " + e.getMessage(), e);
+            }
+        }
+        return new RecoveryResult(generation, snapshotVehicles, replayed, validBytes, truncated,
+                System.nanoTime() - started);
+    }
+
+    private static long loadSnapshot(String base, long generation, Map<String, Vehicle> state) throws IOException {
+        Path snap = snapshotPath(base, generation);
+        if (!Files.exists(snap)) {
+            if (generation > 0) throw new IOException("Missing snapshot " + snap);
+            return 0;
+        }
+        LoadResult loaded = new FleetSnapshot().read(snap, v -> state.put(v.getId(), v));
+        return loaded.getLoaded();
+    }
+
+    // returns {records replayed, offset after the last intact record}
+    private static long[] replay(FileChannel c, Map<String, Vehicle> state) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(1 << 20);
+        buf.limit(0);
+        CRC32 crc = new CRC32();
+        long offset = HEADER_SIZE;
+        long records = 0;
+        c.position(HEADER_SIZE);
+        boolean eof = false;
+        while (true) {
+            if (buf.remaining() < 8 && !eof) eof = fill(c, buf, 8);
+            if (buf.remaining() < 8) break;
+            int length = buf.getInt(buf.position());
+            int checksum = buf.getInt(buf.position() + 4);
+            if (length <= 0 || length > (64 << 20)) break;
+            if (buf.remaining() < 8 + length) {
+                if (buf.capacity() < 8 + length) {
+                    ByteBuffer bigger = ByteBuffer.allocate(8 + length);
+                    bigger.put(buf);
+                    bigger.flip();
+                    buf = bigger;
+                }
+                if (!eof) eof = fill(c, buf, 8 + length);
+                if (buf.remaining() < 8 + length) break;
+            }
+            crc.reset();
+            crc.update(buf.array(), buf.arrayOffset() + buf.position() + 8, length);
+            if ((int) crc.getValue() != checksum) break;
+
+            buf.position(buf.position() + 8);
+            ByteBuffer payload = buf.slice();
+            payload.limit(length);
+            buf.position(buf.position() + length);
+            try {
+                apply(payload, state);
+            } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                throw new IOException("Corrupt journal record at offset " + offset, e);
+            }
+            offset += 8 + length;
+            records++;
+        }
+        return new long[]{records, offset};
+    }
+
+    private static void apply(ByteBuffer in, Map<String, Vehicle> state) throws IOException {
+        byte op = in.get();
+        if (op == REMOVE) {
+            state.remove(getString(in));
+            return;
+        }
+        if (op != ADD && op != UPDATE) throw new IOException("Corrupt journal: unknown op " + op);
+        byte tag = in.get();
+        String id = getString(in);
+        String model = getString(in);
+        try {
+            // UPDATE keeps the vehicle's position in the insertion order
+            state.put(id, FleetSnapshot.readFields(in, tag, id, model));
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Cannot rebuild vehicle " + id + " from journal: " + e.getMessage(), e);
+        }
+    }
+
+    private static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // compacts and reads until at least `bytes` are buffered; returns true at end of file
+    private static boolean fill(FileChannel c, ByteBuffer buf, int bytes) throws IOException {
+        buf.compact();
+        boolean eof = false;
+        while (buf.position() < bytes) {
+            if (c.read(buf) < 0) {
+                eof = true;
+                break;
+            }
+        }
+        buf.flip();
+        return eof;
+    }
+
+    private static void writeHeader(FileChannel c, long generation) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putShort(VERSION).putLong(generation);
+        header.flip();
+        while (header.hasRemaining()) c.write(header);
+    }
+}
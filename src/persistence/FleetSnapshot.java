@@ -0,0 +1,269 @@
+package persistence;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import vehicles.*;
+import exceptions.*;
+import metrics.Metrics;
+
+// Versioned binary fleet snapshot:
+//   header   : int magic "FLTS", short version, short flags, int vehicle count, int string count
+//   strings  : per entry int byte length + UTF-8 bytes (all ids, then each distinct model once)
+//   records  : byte type tag, int id ref, int model ref, then the vehicle's fields as
+//              fixed-width primitives (see writeFields), so values round-trip exactly.
+public class FleetSnapshot {
+    public static final int MAGIC = 0x464C5453;
+    public static final short VERSION = 1;
+
+    static final byte CAR = 1;
+    static final byte BUS = 2;
+    static final byte TRUCK = 3;
+    static final byte AIRPLANE = 4;
+    static final byte CARGO_SHIP = 5;
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    // returns the number of vehicles written
+    public long write(Path file, Collection<? extends Vehicle> vehicles) throws IOException {
+        long t0 = IoMetrics.SNAPSHOT_WRITE.start();
+        // ids are unique within a fleet, so they take refs 0..count-1 in record order;
+        // models repeat and are deduplicated after them
+        List<String> strings = new ArrayList<>();
+        HashMap<String, Integer> models = new HashMap<>();
+        List<String> modelOrder = new ArrayList<>();
+        int count = 0;
+        for (Vehicle v : vehicles) {
+            if (tagOf(v) == 0) continue;
+            count++;
+            strings.add(v.getId());
+            if (!models.containsKey(v.getModel())) {
+                models.put(v.getModel(), modelOrder.size());
+                modelOrder.add(v.getModel());
+            }
+        }
+        strings.addAll(modelOrder);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            out.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putInt(count).putInt(strings.size());
+            for (String s : strings) {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                ensure(channel, out, 4 + bytes.length);
+                out.putInt(bytes.length);
+                putLarge(channel, out, bytes);
+            }
+            int idRef = 0;
+            for (Vehicle v : vehicles) {
+                byte tag = tagOf(v);
+                if (tag == 0) continue;
+                ensure(channel, out, 128);
+                out.put(tag).putInt(idRef++).putInt(count + models.get(v.getModel()));
+                writeFields(out, v);
+            }
+            drain(channel, out);
+            IoMetrics.written(IoMetrics.SNAPSHOT_WRITE, t0, count, channel.position());
+        }
+        return count;
+    }
+
+    // rejected vehicles (e.g. duplicate ids) are reported with their record number as the line
+    public LoadResult read(Path file, CsvFleetReader.VehicleSink sink) throws IOException {
+        long started = System.nanoTime();
+        List<RowError> errors = new ArrayList<>();
+        long loaded = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            In in = new In(channel);
+            in.need(16);
+            if (in.buf.getInt() != MAGIC) throw new IOException(file + " is not a fleet snapshot");
+            short version = in.buf.getShort();
+            if (version != VERSION) throw new IOException("Unsupported snapshot version " + version);
+            in.buf.getShort(); // flags, unused in version 1
+            int count = in.buf.getInt();
+            int stringCount = in.buf.getInt();
+
+            String[] strings = new String[stringCount];
+            for (int i = 0; i < stringCount; i++) {
+                in.need(4);
+                int length = in.buf.getInt();
+                if (length < 0) throw new IOException("Corrupt snapshot: string length " + length);
+                byte[] bytes = new byte[length];
+                in.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            for (int i = 0; i < count; i++) {
+                in.need(128);
+                byte tag = in.buf.get();
+                String id = strings[in.buf.getInt()];
+                String model = strings[in.buf.getInt()];
+                Vehicle v;
+                try {
+                    v = readFields(in.buf, tag, id, model);
+                } catch (IOException | RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    // all fields were consumed before the constructor ran, so the next record is intact
+                    errors.add(new RowError(i + 1, e.getMessage(), id));
+                    continue;
+                }
+                try {
+                    sink.accept(v);
+                    loaded++;
+                } catch (Exception e) {
+                    errors.add(new RowError(i + 1, e.getMessage(), id));
+                }
+            }
+            return IoMetrics.read(IoMetrics.SNAPSHOT_READ, new LoadResult(count, loaded, errors, System.nanoTime() - started));
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Truncated or corrupt snapshot: " + file, e);
+        }
+    }
+
+    static byte tagOf(Vehicle v) {
+        if (v instanceof Car) return CAR;
+        if (v instanceof Bus) return BUS;
+        if (v instanceof Truck) return TRUCK;
+        if (v instanceof Airplane) return AIRPLANE;
+        if (v instanceof CargoShip) return CARGO_SHIP;
+        return 0;
+    }
+
+    // at most 2 + 6 * 8 bytes per vehicle
+    static void writeFields(ByteBuffer out, Vehicle v) {
+        out.putDouble(v.getMaxSpeed()).putDouble(v.getCurrentMileage());
+        if (v instanceof Car c) {
+            out.putInt(c.getNumWheels()).putInt(c.getCurrentPassengers());
+            out.put(flag(c.needsMaintenance())).putDouble(c.getFuelLevel());
+        } else if (v instanceof Bus b) {
+            out.putInt(b.getNumWheels()).putInt(b.getCurrentPassengers()).putDouble(b.getCurrentCargo());
+            out.put(flag(b.needsMaintenance())).putDouble(b.getFuelLevel());
+        } else if (v instanceof Truck t) {
+            out.putInt(t.getNumWheels()).putDouble(t.getCurrentCargo());
+            out.put(flag(t.needsMaintenance())).putDouble(t.getFuelLevel());
+        } else if (v instanceof Airplane a) {
+            out.putDouble(a.getMaxAltitude()).putInt(a.getCurrentPassengers()).putDouble(a.getCurrentCargo());
+            out.put(flag(a.needsMaintenance())).putDouble(a.getFuelLevel());
+        } else if (v instanceof CargoShip s) {
+            out.put(flag(s.getSail())).putDouble(s.getCurrentCargo());
+            out.put(flag(s.needsMaintenance())).putDouble(s.getfuelLevel());
+        }
+    }
+
+    static Vehicle readFields(ByteBuffer in, byte tag, String id, String model) throws Exception {
+        double maxSpeed = in.getDouble();
+        double mileage = in.getDouble();
+        switch (tag) {
+            case CAR: {
+                int wheels = in.getInt();
+                int passengers = in.getInt();
+                boolean maintenance = in.get() != 0;
+                double fuel = in.getDouble();
+                Car car = new Car(id, model, maxSpeed, wheels, mileage, passengers, maintenance);
+                car.refuel(fuel);
+                return car;
+            }
+            case BUS: {
+                int wheels = in.getInt();
+                int passengers = in.getInt();
+                double cargo = in.getDouble();
+                boolean maintenance = in.get() != 0;
+                double fuel = in.getDouble();
+                Bus bus = new Bus(id, model, maxSpeed, wheels, mileage, passengers, cargo, maintenance);
+                bus.refuel(fuel);
+                return bus;
+            }
+            case TRUCK: {
+                int wheels = in.getInt();
+                double cargo = in.getDouble();
+                boolean maintenance = in.get() != 0;
+                double fuel = in.getDouble();
+                Truck truck = new Truck(id, model, maxSpeed, wheels, mileage, cargo, maintenance);
+                truck.refuel(fuel);
+                return truck;
+            }
+            case AIRPLANE: {
+                double altitude = in.getDouble();
+                int passengers = in.getInt();
+                double cargo = in.getDouble();
+                boolean maintenance = in.get() != 0;
+                double fuel = in.getDouble();
+                Airplane plane = new Airplane(id, model, maxSpeed, mileage, altitude, passengers, cargo, maintenance);
+                plane.refuel(fuel);
+                return plane;
+            }
+            case CARGO_SHIP: {
+                boolean sail = in.get() != 0;
+                double cargo = in.getDouble();
+                boolean maintenance = in.get() != 0;
+                double fuel = in.getDouble();
+                CargoShip ship = new CargoShip(id, model, maxSpeed, mileage, sail, cargo, maintenance);
+                if (!sail) ship.refuel(fuel);
+                return ship;
+            }
+            default:
+                // record length depends on the tag, so nothing after this point can be trusted
+                throw new IOException("Corrupt snapshot: unknown type tag " + tag);
+        }
+    }
+
+    private static byte flag(boolean b) {
+        return b ? (byte) 1 : (byte) 0;
+    }
+
+    private static void ensure(FileChannel channel, ByteBuffer out, int bytes) throws IOException {
+        if (out.remaining() < bytes) drain(channel, out);
+    }
+
+    private static void putLarge(FileChannel channel, ByteBuffer out, byte[] bytes) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!out.hasRemaining()) drain(channel, out);
+            int n = Math.min(out.remaining(), bytes.length - offset);
+            out.put(bytes, offset, n);
+            offset += n;
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer out) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) channel.write(out);
+        out.clear();
+    }
+
+    // refilling read buffer over the channel; need(n) guarantees n bytes unless the file ends
+    private static class In {
+        final FileChannel channel;
+        final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        boolean eof;
+
+        In(FileChannel channel) {
+            this.channel = channel;
+            buf.limit(0);
+        }
+
+        void need(int bytes) throws IOException {
+            if (buf.remaining() >= bytes || eof) return;
+            buf.compact();
+            while (buf.position() < bytes && !eof) {
+                if (channel.read(buf) < 0) eof = true;
+            }
+            buf.flip();
+        }
+
+        void get(byte[] dst) throws IOException {
+            int offset = 0;
+            while (offset < dst.length) {
+                need(1);
+                if (!buf.hasRemaining()) throw new EOFException("Truncated snapshot");
+                int n = Math.min(buf.remaining(), dst.length - offset);
+                buf.get(dst, offset, n);
+                offset += n;
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package persistence;
+
+import metrics.*;
+
+// Timers and row counters for the readers and writers in this package. Reads already measure
+// their own elapsed time for LoadResult, so they record that instead of timing twice.
+final class IoMetrics {
+    static final Timer CSV_READ = Metrics.registry().timer("persistence.csv.read");
+    static final Timer CSV_PARALLEL_READ = Metrics.registry().timer("persistence.csv.parallelRead");
+    static final Timer CSV_WRITE = Metrics.registry().timer("persistence.csv.write");
+    static final Timer SNAPSHOT_READ = Metrics.registry().timer("persistence.snapshot.read");
+    static final Timer SNAPSHOT_WRITE = Metrics.registry().timer("persistence.snapshot.write");
+    static final Counter ROWS_READ = Metrics.registry().counter("persistence.rowsRead");
+    static final Counter ROWS_REJECTED = Metrics.registry().counter("persistence.rowsRejected");
+    static final Counter ROWS_WRITTEN = Metrics.registry().counter("persistence.rowsWritten");
+    static final Counter BYTES_WRITTEN = Metrics.registry().counter("persistence.bytesWritten");
+    static final Counter JOURNAL_FAILURES = Metrics.registry().counter("persistence.journal.failures");
+
+    private IoMetrics() {
+    }
+
+    static LoadResult read(Timer timer, LoadResult result) {
+        if (Metrics.isEnabled()) {
+            timer.record(result.getElapsedNanos());
+            ROWS_READ.add(result.getRows());
+            ROWS_REJECTED.add(result.getRows() - result.getLoaded());
+        }
+        return result;
+    }
+
+    static void written(Timer timer, long startNanos, long rows, long bytes) {
+        if (startNanos == 0) return;
+        timer.stopSince(startNanos);
+        ROWS_WRITTEN.add(rows);
+        BYTES_WRITTEN.add(bytes);
+    }
+}
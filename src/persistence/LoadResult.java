@@ -0,0 +1,43 @@
+package persistence;
+
+import java.util.*;
+
+public class LoadResult {
+    private final long rows;
+    private final long loaded;
+    private final List<RowError> errors;
+    private final long elapsedNanos;
+
+    public LoadResult(long rows, long loaded, List<RowError> errors, long elapsedNanos) {
+        this.rows = rows;
+        this.loaded = loaded;
+        this.errors = Collections.unmodifiableList(errors);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getLoaded() {
+        return loaded;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double rowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rows * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d rows, %d loaded, %d bad (%.0f rows/sec)",
+                rows, loaded, errors.size(), rowsPerSecond());
+    }
+}
@@ -0,0 +1,186 @@
+package persistence;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import vehicles.Vehicle;
+
+// Memory-maps a fleet CSV, cuts it into line-aligned chunks and parses the chunks on a
+// fork-join pool. Results are handed to the sink strictly in file order, so duplicate ids
+// are resolved exactly as a sequential load would (first occurrence wins).
+public class ParallelCsvLoader {
+    private static final long MIN_CHUNK = 1 << 20;
+    private static final long MAX_CHUNK = 256L << 20;
+
+    private final ForkJoinPool pool;
+
+    public ParallelCsvLoader() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelCsvLoader(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public LoadResult load(Path file, CsvFleetReader.VehicleSink sink) throws IOException {
+        long started = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<ForkJoinTask<Chunk>> tasks = new ArrayList<>();
+            for (long[] range : split(channel)) {
+                tasks.add(pool.submit(new ChunkTask(channel, range[0], range[1])));
+            }
+
+            List<RowError> errors = new ArrayList<>();
+            CsvRow rejected = new CsvRow();
+            long lineOffset = 0;
+            long rows = 0;
+            long loaded = 0;
+            // merge in file order while later chunks are still parsing
+            for (int t = 0; t < tasks.size(); t++) {
+                Chunk chunk = join(tasks.get(t));
+                tasks.set(t, null); // merged chunks (vehicles, decoded text) can be collected
+                for (RowError e : chunk.errors) {
+                    errors.add(new RowError(lineOffset + e.getLine(), e.getMessage(), e.getText()));
+                }
+                for (int i = 0; i < chunk.vehicles.size(); i++) {
+                    Vehicle v = chunk.vehicles.get(i);
+                    try {
+                        sink.accept(v);
+                        loaded++;
+                    } catch (Exception e) {
+                        rejected.reset(chunk.text, chunk.spans[2 * i], chunk.spans[2 * i + 1]);
+                        errors.add(new RowError(lineOffset + chunk.lines[i], e.getMessage(), rejected.line()));
+                    }
+                }
+                rows += chunk.rows;
+                lineOffset += chunk.lineCount;
+            }
+            errors.sort(Comparator.comparingLong(RowError::getLine));
+            return IoMetrics.read(IoMetrics.CSV_PARALLEL_READ, new LoadResult(rows, loaded, errors, System.nanoTime() - started));
+        }
+    }
+
+    // chunk boundaries always sit just after a '\n'
+    private List<long[]> split(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long target = Math.max(1, pool.getParallelism() * 4L);
+        long chunkSize = Math.min(MAX_CHUNK, Math.max(MIN_CHUNK, size / target));
+
+        List<long[]> ranges = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(8192);
+        long start = 0;
+        while (start < size) {
+            long end = Math.min(size, start + chunkSize);
+            while (end < size) {
+                probe.clear();
+                int n = channel.read(probe, end);
+                if (n <= 0) {
+                    end = size;
+                    break;
+                }
+                int nl = -1;
+                for (int i = 0; i < n; i++) {
+                    if (probe.get(i) == '\n') {
+                        nl = i;
+                        break;
+                    }
+                }
+                if (nl >= 0) {
+                    end += nl + 1;
+                    break;
+                }
+                end += n;
+                if (end - start > Integer.MAX_VALUE) {
+                    throw new IOException("Line longer than " + Integer.MAX_VALUE + " bytes at offset " + start);
+                }
+            }
+            ranges.add(new long[]{start, end});
+            start = end;
+        }
+        return ranges;
+    }
+
+    private static Chunk join(ForkJoinTask<Chunk> task) throws IOException {
+        try {
+            return task.join();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static class Chunk {
+        final List<Vehicle> vehicles = new ArrayList<>();
+        int[] lines = new int[64];      // chunk-local line number of each vehicle
+        int[] spans = new int[128];     // start and end of each vehicle's line in text
+        char[] text;                    // the decoded chunk, for the text of rows the sink rejects
+        final List<RowError> errors = new ArrayList<>();
+        long rows;
+        int lineCount;
+    }
+
+    private static class ChunkTask extends RecursiveTask<Chunk> {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+
+        ChunkTask(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Chunk compute() {
+            CharBuffer text;
+            try {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                text = StandardCharsets.UTF_8.newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                        .decode(mapped);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            Chunk chunk = new Chunk();
+            char[] buf = text.array();
+            chunk.text = buf;
+            int limit = text.arrayOffset() + text.limit();
+            CsvRow row = new CsvRow();
+            int from = text.arrayOffset();
+            for (int i = from; i <= limit; i++) {
+                if (i < limit && buf[i] != '\n') continue;
+                if (i == limit && from == limit) break;
+                chunk.lineCount++;
+                row.reset(buf, from, i);
+                int lineStart = from;
+                from = i + 1;
+                if (row.isBlank()) continue;
+                chunk.rows++;
+                try {
+                    Vehicle v = VehicleCsv.fromCSV(row);
+                    if (v == null) {
+                        chunk.errors.add(new RowError(chunk.lineCount, "Unknown vehicle type", row.line()));
+                        continue;
+                    }
+                    int n = chunk.vehicles.size();
+                    if (n == chunk.lines.length) {
+                        chunk.lines = Arrays.copyOf(chunk.lines, n * 2);
+                        chunk.spans = Arrays.copyOf(chunk.spans, n * 4);
+                    }
+                    chunk.lines[n] = chunk.lineCount;
+                    chunk.spans[2 * n] = lineStart;
+                    chunk.spans[2 * n + 1] = i;
+                    chunk.vehicles.add(v);
+                } catch (Exception e) {
+                    chunk.errors.add(new RowError(chunk.lineCount, e.getMessage(), row.line()));
+                }
+            }
+            return chunk;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package persistence;
+
+public class RecoveryResult {
+    private final long generation;
+    private final long snapshotVehicles;
+    private final long replayedRecords;
+    private final long validBytes;
+    private final long truncatedBytes;
+    private final long elapsedNanos;
+
+    public RecoveryResult(long generation, long snapshotVehicles, long replayedRecords,
+                          long validBytes, long truncatedBytes, long elapsedNanos) {
+        this.generation = generation;
+        this.snapshotVehicles = snapshotVehicles;
+        this.replayedRecords = replayedRecords;
+        this.validBytes = validBytes;
+        this.truncatedBytes = truncatedBytes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public long getSnapshotVehicles() {
+        return snapshotVehicles;
+    }
+
+    public long getReplayedRecords() {
+        return replayedRecords;
+    }
+
+    // journal length up to the last intact record
+    public long getValidBytes() {
+        return validBytes;
+    }
+
+    // torn tail dropped from the journal (a write interrupted by the crash)
+    public long getTruncatedBytes() {
+        return truncatedBytes;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("generation %d, %d from snapshot, %d journal records replayed, %d torn bytes dropped (%.1f ms)",
+                generation, snapshotVehicles, replayedRecords, truncatedBytes, elapsedNanos / 1e6);
+    }
+}
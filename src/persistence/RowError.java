@@ -0,0 +1,30 @@
+package persistence;
+
+public class RowError {
+    private final long line;
+    private final String message;
+    private final String text;
+
+    public RowError(long line, String message, String text) {
+        this.line = line;
+        this.message = message;
+        this.text = text;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    @Override
+    public String toString() {
+        return "line " + line + ": " + message + " [" + text + "]";
+    }
+}
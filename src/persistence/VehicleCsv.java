@@ -0,0 +1,161 @@
+package persistence;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Locale;
+import vehicles.*;
+import exceptions.*;
+
+public class VehicleCsv {
+    private VehicleCsv() {}
+
+    //Vehicle Factory
+
+    public static Vehicle fromCSV(String line) throws Exception {
+        CsvRow row = new CsvRow();
+        row.reset(line);
+        return fromCSV(row);
+    }
+
+    // builds a vehicle from a tokenized row; throws on malformed rows, returns null for unknown types
+    public static Vehicle fromCSV(CsvRow row) throws Exception {
+        if (row.fieldEquals(0, "Car")) {
+            need(row, 9);
+            Car car= new Car(
+                    row.text(1), row.text(2),
+                    row.getDouble(3),
+                    row.getInt(4),
+                    row.getDouble(5),
+                    row.getInt(6),
+                    row.getBoolean(7)
+            );
+            car.refuel(row.getDouble(8));
+            return car;
+        }
+        if (row.fieldEquals(0, "Bus")) {
+            need(row, 10);
+            Bus bus= new Bus(
+                    row.text(1), row.text(2),
+                    row.getDouble(3),
+                    row.getInt(4),
+                    row.getDouble(5),
+                    row.getInt(6),
+                    row.getDouble(7),
+                    row.getBoolean(8)
+            );
+            bus.refuel(row.getDouble(9));
+            return bus;
+        }
+        if (row.fieldEquals(0, "CargoShip")) {
+            need(row, 9);
+            CargoShip ship= new CargoShip(
+                    row.text(1), row.text(2),
+                    row.getDouble(3),
+                    row.getDouble(4),
+                    row.getBoolean(5),
+                    row.getDouble(6),
+                    row.getBoolean(7)
+            );
+            // sailing ships refuse refuel() and always report 0 fuel
+            if (!ship.gethasSail()) ship.refuel(row.getDouble(8));
+            return ship;
+        }
+        if (row.fieldEquals(0, "Airplane")) {
+            need(row, 10);
+            Airplane plane= new Airplane(
+                    row.text(1), row.text(2),
+                    row.getDouble(3),
+                    row.getDouble(4),
+                    row.getDouble(5),
+                    row.getInt(6),
+                    row.getDouble(7),
+                    row.getBoolean(8)
+            );
+            plane.refuel(row.getDouble(9));
+            return plane;
+        }
+        if (row.fieldEquals(0, "Truck")) {
+            need(row, 9);
+            Truck truck= new Truck(
+                    row.text(1), row.text(2),
+                    row.getDouble(3),
+                    row.getInt(4),
+                    row.getDouble(5),
+                    row.getDouble(6),
+                    row.getBoolean(7)
+            );
+            truck.refuel(row.getDouble(8));
+            return truck;
+        }
+        return null;
+    }
+
+    public static String toCSV(Vehicle v) {
+        StringBuilder sb = new StringBuilder(96);
+        appendCSV(sb, v);
+        return sb.toString();
+    }
+
+    // appends one row (without line separator) in the field order fromCSV reads
+    public static void appendCSV(StringBuilder sb, Vehicle v) {
+        if (v instanceof Car c) {
+            sb.append("Car,").append(c.getId()).append(',').append(c.getModel()).append(',');
+            appendFixed2(sb, c.getMaxSpeed()).append(',').append(c.getNumWheels()).append(',');
+            appendFixed2(sb, c.getCurrentMileage()).append(',').append(c.getCurrentPassengers()).append(',');
+            sb.append(c.needsMaintenance()).append(',');
+            appendFixed2(sb, c.getFuelLevel());
+        } else if (v instanceof Bus b) {
+            sb.append("Bus,").append(b.getId()).append(',').append(b.getModel()).append(',');
+            appendFixed2(sb, b.getMaxSpeed()).append(',').append(b.getNumWheels()).append(',');
+            appendFixed2(sb, b.getCurrentMileage()).append(',').append(b.getCurrentPassengers()).append(',');
+            appendFixed2(sb, b.getCurrentCargo()).append(',').append(b.needsMaintenance()).append(',');
+            appendFixed2(sb, b.getFuelLevel());
+        } else if (v instanceof CargoShip s) {
+            sb.append("CargoShip,").append(s.getId()).append(',').append(s.getModel()).append(',');
+            appendFixed2(sb, s.getMaxSpeed()).append(',');
+            appendFixed2(sb, s.getCurrentMileage()).append(',').append(s.getSail()).append(',');
+            appendFixed2(sb, s.getCurrentCargo()).append(',').append(s.needsMaintenance()).append(',');
+            appendFixed2(sb, s.getfuelLevel());
+        } else if (v instanceof Airplane a) {
+            sb.append("Airplane,").append(a.getId()).append(',').append(a.getModel()).append(',');
+            appendFixed2(sb, a.getMaxSpeed()).append(',');
+            appendFixed2(sb, a.getCurrentMileage()).append(',');
+            appendFixed2(sb, a.getMaxAltitude()).append(',').append(a.getCurrentPassengers()).append(',');
+            appendFixed2(sb, a.getCurrentCargo()).append(',').append(a.needsMaintenance()).append(',');
+            appendFixed2(sb, a.getFuelLevel());
+        } else if (v instanceof Truck t) {
+            sb.append("Truck,").append(t.getId()).append(',').append(t.getModel()).append(',');
+            appendFixed2(sb, t.getMaxSpeed()).append(',').append(t.getNumWheels()).append(',');
+            appendFixed2(sb, t.getCurrentMileage()).append(',');
+            appendFixed2(sb, t.getCurrentCargo()).append(',').append(t.needsMaintenance()).append(',');
+            appendFixed2(sb, t.getfuelLevel());
+        }
+    }
+
+    // same digits as %.2f (Locale.ROOT), without the Formatter. %.2f rounds the decimal value
+    // half-up, while value * 100 is inexact and can land on the wrong side of a half cent
+    // (1.005 * 100 = 100.49999...), so anything close to a half cent is settled on the decimal.
+    public static StringBuilder appendFixed2(StringBuilder sb, double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return sb.append(String.format(Locale.ROOT, "%.2f", value));
+        }
+        double scaled = Math.abs(value) * 100;
+        if (scaled >= 1e11 || Math.abs(scaled - Math.floor(scaled) - 0.5) < 1e-4) {
+            String digits = BigDecimal.valueOf(Math.abs(value)).setScale(2, RoundingMode.HALF_UP).toPlainString();
+            if (Double.doubleToRawLongBits(value) < 0) sb.append('-');
+            return sb.append(digits);
+        }
+        long cents = Math.round(scaled);
+        if (Double.doubleToRawLongBits(value) < 0) sb.append('-'); // %.2f keeps the sign of -0.001 and -0.0
+        sb.append(cents / 100).append('.');
+        long fraction = cents % 100;
+        if (fraction < 10) sb.append('0');
+        return sb.append(fraction);
+    }
+
+    private static void need(CsvRow row, int fields) throws InvalidOperationException {
+        if (row.size() < fields) {
+            throw new InvalidOperationException("Expected " + fields + " fields, got " + row.size());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package server;
+
+import java.io.*;
+import java.net.*;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+// Sends a command script to a running BatchServer without waiting for answers: one thread
+// streams the commands while the main thread reads the responses, so throughput is bounded by
+// the server rather than by round trips. Prints the responses (unless --quiet) and a summary.
+// Run: java server.BatchClient <socket-path | port> <script> [repeat] [--quiet]
+public class BatchClient {
+
+    public static void main(String[] args) throws Exception {
+        List<String> positional = new ArrayList<>();
+        boolean quiet = false;
+        for (String a : args) {
+            if (a.equals("--quiet")) quiet = true;
+            else positional.add(a);
+        }
+        if (positional.size() < 2) {
+            System.out.println("Usage: java server.BatchClient <socket-path | port> <script> [repeat] [--quiet]");
+            return;
+        }
+        String target = positional.get(0);
+        List<String> script = Files.readAllLines(Paths.get(positional.get(1)), StandardCharsets.UTF_8);
+        int repeat = positional.size() > 2 ? Integer.parseInt(positional.get(2)) : 1;
+
+        try (SocketChannel ch = connect(target)) {
+            long t0 = System.nanoTime();
+            Thread sender = new Thread(() -> send(ch, script, repeat), "batch-sender");
+            sender.start();
+
+            long ok = 0, failed = 0;
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(ChannelStreams.in(ch), StandardCharsets.UTF_8), 1 << 16);
+            PrintStream out = System.out;
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith("ERR")) failed++;
+                else ok++;
+                if (!quiet) out.println(line);
+            }
+            long elapsed = System.nanoTime() - t0;
+            sender.join();
+            out.printf(Locale.ROOT, "%d responses (%d errors) in %.1f ms, %.0f commands/s%n",
+                    ok + failed, failed, elapsed / 1e6, (ok + failed) / (elapsed / 1e9));
+        }
+    }
+
+    private static SocketChannel connect(String target) throws IOException {
+        if (target.matches("\\d+")) {
+            return SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(target)));
+        }
+        return SocketChannel.open(UnixDomainSocketAddress.of(target));
+    }
+
+    // half-closes the connection when done, which ends the server's session after the last answer
+    private static void send(SocketChannel ch, List<String> script, int repeat) {
+        try {
+            Writer w = new BufferedWriter(new OutputStreamWriter(ChannelStreams.out(ch), StandardCharsets.UTF_8), 1 << 16);
+            for (int r = 0; r < repeat; r++) {
+                for (String line : script) {
+                    w.write(line);
+                    w.write('\n');
+                }
+            }
+            w.flush();
+            ch.shutdownOutput();
+        } catch (IOException e) {
+            System.out.println("Send failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package server;
+
+import java.io.*;
+import java.net.*;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Accepts command connections on a Unix domain socket or a loopback TCP port and runs each
+// connection's commands, in order, through the shared interpreter. Responses are pipelined:
+// the session writes into a buffer and flushes only once it has consumed everything the client
+// has sent so far, so a client streaming a script gets its answers in large writes rather than
+// one round trip per command. "shutdown" answers and then stops the server.
+public class BatchServer implements Closeable {
+    private static final int BUFFER = 1 << 16;
+
+    private final ServerSocketChannel channel;
+    private final CommandInterpreter interpreter;
+    private final Path socketFile; // null for TCP
+    private final String address;
+    private final Set<SocketChannel> sessions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger sessionIds = new AtomicInteger();
+    private volatile boolean closed;
+
+    private BatchServer(ServerSocketChannel channel, CommandInterpreter interpreter, Path socketFile, String address) {
+        this.channel = channel;
+        this.interpreter = interpreter;
+        this.socketFile = socketFile;
+        this.address = address;
+    }
+
+    // replaces a stale socket file left by an earlier run
+    public static BatchServer unix(Path socketFile, CommandInterpreter interpreter) throws IOException {
+        Files.deleteIfExists(socketFile);
+        ServerSocketChannel ch = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        ch.bind(UnixDomainSocketAddress.of(socketFile));
+        return new BatchServer(ch, interpreter, socketFile, socketFile.toString());
+    }
+
+    // listens on the loopback interface only; port 0 picks a free port
+    public static BatchServer tcp(int port, CommandInterpreter interpreter) throws IOException {
+        ServerSocketChannel ch = ServerSocketChannel.open();
+        ch.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        int bound = ((InetSocketAddress) ch.getLocalAddress()).getPort();
+        return new BatchServer(ch, interpreter, null, "127.0.0.1:" + bound);
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    // accepts connections until close() or a "shutdown" command, one thread per connection
+    public void serve() throws IOException {
+        while (!closed) {
+            SocketChannel client;
+            try {
+                client = channel.accept();
+            } catch (ClosedChannelException e) {
+                break;
+            }
+            sessions.add(client);
+            Thread t = new Thread(() -> session(client), "fleet-session-" + sessionIds.incrementAndGet());
+            t.setDaemon(true);
+            t.start();
+        }
+    }
+
+    private void session(SocketChannel client) {
+        try (client;
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(ChannelStreams.in(client), StandardCharsets.UTF_8), BUFFER);
+             Writer out = new BufferedWriter(
+                     new OutputStreamWriter(ChannelStreams.out(client), StandardCharsets.UTF_8), BUFFER)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String verb = CommandInterpreter.verb(line);
+                if ("shutdown".equals(verb)) {
+                    out.write("OK shutting down\n");
+                    out.flush();
+                    close();
+                    return;
+                }
+                String response = interpreter.execute(line);
+                if (response != null) {
+                    out.write(response);
+                    out.write('\n');
+                }
+                if ("quit".equals(verb)) break;
+                if (!in.ready()) out.flush(); // caught up with the client
+            }
+            out.flush();
+        } catch (IOException e) {
+            // client went away; its remaining responses have nowhere to go
+        } finally {
+            sessions.remove(client);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        channel.close();
+        for (SocketChannel s : sessions) {
+            try {
+                s.close();
+            } catch (IOException e) {
+                // closing anyway
+            }
+        }
+        if (socketFile != null) Files.deleteIfExists(socketFile);
+    }
+}
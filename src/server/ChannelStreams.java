@@ -0,0 +1,44 @@
+package server;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+// Stream views of a blocking SocketChannel that call read and write directly. The
+// Channels.newInputStream/newOutputStream views lock the channel for every call, so a thread
+// blocked in read would hold up a writer on another thread; the batch client reads and writes
+// the same channel from two threads.
+final class ChannelStreams {
+    private ChannelStreams() {}
+
+    static InputStream in(SocketChannel ch) {
+        return new InputStream() {
+            @Override
+            public int read() throws IOException {
+                byte[] b = new byte[1];
+                return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (len == 0) return 0;
+                return ch.read(ByteBuffer.wrap(b, off, len));
+            }
+        };
+    }
+
+    static OutputStream out(SocketChannel ch) {
+        return new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                ByteBuffer buf = ByteBuffer.wrap(b, off, len);
+                while (buf.hasRemaining()) ch.write(buf);
+            }
+        };
+    }
+}
@@ -0,0 +1,251 @@
+package server;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+import exceptions.*;
+import interfaces.FuelConsumable;
+import managers.FleetManager;
+import metrics.Metrics;
+import persistence.*;
+import simulation.*;
+import vehicles.Vehicle;
+
+// Line-oriented command language for driving a FleetManager without a UI. Each command is one
+// line and gets exactly one response line, "OK" or "OK <payload>" on success and "ERR <message>"
+// on failure, in the order the commands arrived, so a client can send many commands before
+// reading any answers. Newlines inside a payload (report) are escaped as \n. Blank lines and
+// lines starting with # get no response.
+//
+//   add <csv row>          a row in the fleet CSV format, e.g. add Truck,T1,Volvo,100,6,0,0,false,0
+//   remove <id>
+//   get <id>               the vehicle as a CSV row
+//   move <id> <km>         move * <km> runs the journey for the whole fleet in parallel
+//   refuel <id> <litres>   refuel * <litres> refuels every vehicle that takes fuel
+//   maintain | report | size | stats | ping
+//   save <file> | load <file>
+//   sim start [safe] | sim pause | sim resume | sim stop | sim status
+//   metrics [json|reset|on|off]
+//   quit                   ends the session (the script, or the connection)
+//
+// One interpreter is shared by all sessions; commands on the same vehicle are serialized by
+// the manager's per-vehicle locks.
+public class CommandInterpreter {
+    private final FleetManager manager;
+    private final LongAdder commands = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final long startNanos = System.nanoTime();
+
+    private final Map<String, VehicleController> controllers = new LinkedHashMap<>(); // guarded by itself
+    private boolean safeCounter;
+
+    public CommandInterpreter(FleetManager manager) {
+        this.manager = manager;
+    }
+
+    public FleetManager getManager() {
+        return manager;
+    }
+
+    // the lower-cased first word, or null for blank and comment lines
+    public static String verb(String line) {
+        String s = line.trim();
+        if (s.isEmpty() || s.charAt(0) == '#') return null;
+        int space = s.indexOf(' ');
+        return (space < 0 ? s : s.substring(0, space)).toLowerCase(Locale.ROOT);
+    }
+
+    // returns the response line without its line break, or null when the line is not a command
+    public String execute(String line) {
+        String verb = verb(line);
+        if (verb == null) return null;
+        String s = line.trim();
+        String args = s.length() > verb.length() ? s.substring(verb.length()).trim() : "";
+        commands.increment();
+        try {
+            String payload = run(verb, args);
+            return payload == null ? "OK" : "OK " + escape(payload);
+        } catch (Exception e) {
+            errors.increment();
+            String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            return "ERR " + escape(message);
+        }
+    }
+
+    private String run(String verb, String args) throws Exception {
+        switch (verb) {
+            case "add": return add(args);
+            case "remove": {
+                if (manager.remove(one(args, "remove <id>")) == null) {
+                    throw new InvalidOperationException("Vehicle does not exist!");
+                }
+                return null;
+            }
+            case "get": {
+                Vehicle v = manager.getById(one(args, "get <id>"));
+                if (v == null) throw new InvalidOperationException("Vehicle does not exist!");
+                return VehicleCsv.toCSV(v);
+            }
+            case "move": return move(args);
+            case "refuel": return refuel(args);
+            case "maintain": manager.maintainAll(); return null;
+            case "report": return manager.generateReport();
+            case "size": return Integer.toString(manager.size());
+            case "stats": return stats();
+            case "ping": return "pong";
+            case "save": {
+                long rows = manager.saveToFile(one(args, "save <file>"));
+                if (rows < 0) throw new IOException("Could not save " + args);
+                return rows + " vehicles";
+            }
+            case "load": {
+                LoadResult result = manager.loadFromFile(one(args, "load <file>"));
+                if (result == null) throw new IOException("Could not load " + args);
+                return result.toString();
+            }
+            case "sim": return sim(args);
+            case "metrics": return metrics(args);
+            case "quit": return "bye";
+            default: throw new IllegalArgumentException("Unknown command: " + verb);
+        }
+    }
+
+    private String add(String row) throws Exception {
+        if (row.isEmpty()) throw new IllegalArgumentException("Usage: add <csv row>");
+        Vehicle v = VehicleCsv.fromCSV(row);
+        if (v == null) throw new IllegalArgumentException("Unknown vehicle type in: " + row);
+        manager.addVehicle(v);
+        return v.getId();
+    }
+
+    private String move(String args) throws Exception {
+        String[] a = two(args, "move <id|*> <km>");
+        double km = number(a[1]);
+        if (a[0].equals("*")) return manager.startAllJourneysParallel(km).toString();
+        double[] mileage = new double[1];
+        manager.withVehicle(a[0], v -> {
+            v.move(km);
+            mileage[0] = v.getCurrentMileage();
+        });
+        return Double.toString(mileage[0]);
+    }
+
+    private String refuel(String args) throws Exception {
+        String[] a = two(args, "refuel <id|*> <litres>");
+        double litres = number(a[1]);
+        if (a[0].equals("*")) {
+            int refuelled = 0;
+            for (Vehicle v : manager.getAllVehicles()) {
+                if (!(v instanceof FuelConsumable)) continue;
+                try {
+                    manager.withVehicle(v.getId(), x -> ((FuelConsumable) x).refuel(litres));
+                    refuelled++;
+                } catch (InvalidOperationException e) {
+                    // removed meanwhile
+                }
+            }
+            return refuelled + " vehicles";
+        }
+        double[] level = new double[1];
+        manager.withVehicle(a[0], v -> {
+            if (!(v instanceof FuelConsumable f)) throw new InvalidOperationException(v.getId() + " does not take fuel");
+            f.refuel(litres);
+            level[0] = f.getFuelLevel();
+        });
+        return Double.toString(level[0]);
+    }
+
+    private String sim(String args) {
+        String[] a = args.isEmpty() ? new String[]{"status"} : args.split("\\s+");
+        synchronized (controllers) {
+            switch (a[0].toLowerCase(Locale.ROOT)) {
+                case "start": {
+                    stopControllers();
+                    SharedHighwayCounter.resetAll();
+                    safeCounter = a.length > 1 && a[1].equalsIgnoreCase("safe");
+                    for (Vehicle v : manager.getAllVehicles()) {
+                        VehicleController c = new VehicleController(v, safeCounter);
+                        c.start();
+                        controllers.put(v.getId(), c);
+                    }
+                    return controllers.size() + " vehicles";
+                }
+                case "pause": controllers.values().forEach(VehicleController::pause); return null;
+                case "resume": controllers.values().forEach(VehicleController::resume); return null;
+                case "stop": stopControllers(); return null;
+                case "status": {
+                    int paused = 0;
+                    for (VehicleController c : controllers.values()) if (c.isPaused()) paused++;
+                    return "vehicles=" + controllers.size() + " paused=" + paused
+                            + " counter=" + (safeCounter ? "safe" : "unsafe")
+                            + " highwayUnsafe=" + SharedHighwayCounter.getUnsafe()
+                            + " highwaySafe=" + SharedHighwayCounter.getSafeLong();
+                }
+                default: throw new IllegalArgumentException("Usage: sim start [safe]|pause|resume|stop|status");
+            }
+        }
+    }
+
+    private String metrics(String args) {
+        switch (args.toLowerCase(Locale.ROOT)) {
+            case "": return Metrics.registry().toText();
+            case "json": return Metrics.registry().toJson();
+            case "reset": Metrics.registry().reset(); return null;
+            case "on": Metrics.setEnabled(true); return null;
+            case "off": Metrics.setEnabled(false); return null;
+            default: throw new IllegalArgumentException("Usage: metrics [json|reset|on|off]");
+        }
+    }
+
+    // stops any running simulation; called when the headless process exits
+    public void stopSimulation() {
+        synchronized (controllers) {
+            stopControllers();
+        }
+    }
+
+    private void stopControllers() {
+        controllers.values().forEach(VehicleController::stop);
+        controllers.clear();
+    }
+
+    public long getCommands() {
+        return commands.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    private String stats() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        long n = commands.sum();
+        return String.format(Locale.ROOT, "commands=%d errors=%d uptime=%.1fs rate=%.0f/s vehicles=%d",
+                n, errors.sum(), seconds, n / Math.max(seconds, 1e-9), manager.size());
+    }
+
+    private static String one(String args, String usage) {
+        if (args.isEmpty() || args.indexOf(' ') >= 0) throw new IllegalArgumentException("Usage: " + usage);
+        return args;
+    }
+
+    private static String[] two(String args, String usage) {
+        String[] a = args.split("\\s+");
+        if (a.length != 2) throw new IllegalArgumentException("Usage: " + usage);
+        return a;
+    }
+
+    private static double number(String s) {
+        try {
+            return Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number: " + s);
+        }
+    }
+
+    private static String escape(String s) {
+        if (s.indexOf('\n') < 0 && s.indexOf('\r') < 0) return s;
+        return s.replace("\\", "\\\\").replace("\r", "").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,384 @@
+package server;
+
+import com.sun.net.httpserver.*;
+
+import java.io.*;
+import java.lang.reflect.Method;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import exceptions.*;
+import interfaces.*;
+import managers.*;
+import managers.FleetManager.SortKey;
+import metrics.Metrics;
+import persistence.VehicleCsv;
+import vehicles.*;
+
+// JSON over HTTP on the loopback interface, for services that need to read or change the fleet.
+//   GET    /api/report                      counts and totals; carries an ETag
+//   GET    /api/vehicles[?type=&model=&maintenance=true&limit=]
+//   GET    /api/vehicles/{id}
+//   GET    /api/maintenance                 ids of vehicles due for maintenance
+//   GET    /api/top?key=speed|mileage|efficiency|model[&k=10][&order=asc]
+//   GET    /api/metrics                     the metrics registry; not tagged
+//   POST   /api/vehicles                    body: one row in the fleet CSV format
+//   DELETE /api/vehicles/{id}
+//   POST   /api/vehicles/{id}/move?km=     and   /api/vehicles/{id}/refuel?litres=
+//   POST   /api/batch                       body: CommandInterpreter lines, run in order
+// Every GET is tagged with the fleet version, a counter bumped by each change the manager
+// reports. A client that sends the tag back in If-None-Match gets a 304 without the fleet
+// being read. The report body is also cached per version, so polling an unchanged fleet
+// costs a header compare. Requests run on virtual threads when the JVM has them.
+public class FleetHttpServer implements FleetListener {
+    private static final int MAX_BATCH_BYTES = 8 << 20;
+
+    static {
+        // The JDK server flushes the headers and then writes the body, so on a kept-alive
+        // connection Nagle holds the body back until the client's delayed ACK, ~40 ms per
+        // response. Read once, when the first HttpServer is created.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final FleetManager manager;
+    private final CommandInterpreter interpreter;
+    private final HttpServer http;
+    private final ExecutorService executor;
+    private final LongAdder version = new LongAdder();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private volatile CachedReport report;
+
+    private static final class CachedReport {
+        final long version;
+        final byte[] body;
+
+        CachedReport(long version, byte[] body) {
+            this.version = version;
+            this.body = body;
+        }
+    }
+
+    // port 0 picks a free port
+    public FleetHttpServer(CommandInterpreter interpreter, int port) throws IOException {
+        this.interpreter = interpreter;
+        this.manager = interpreter.getManager();
+        this.http = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = requestExecutor();
+        http.setExecutor(executor);
+        http.createContext("/api/", this::handle);
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() where it exists (JDK 21+), looked up
+    // reflectively so the build still targets 17; otherwise a pool of daemon threads
+    static ExecutorService requestExecutor() {
+        try {
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            AtomicInteger ids = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "fleet-http-" + ids.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    public void start() {
+        manager.addFleetListener(this);
+        http.start();
+    }
+
+    public void stop() {
+        manager.removeFleetListener(this);
+        http.stop(0);
+        executor.shutdown();
+        stopped.countDown();
+    }
+
+    public void awaitStop() throws InterruptedException {
+        stopped.await();
+    }
+
+    public String getAddress() {
+        InetSocketAddress a = http.getAddress();
+        return "http://" + a.getHostString() + ":" + a.getPort() + "/api/";
+    }
+
+    public long getVersion() {
+        return version.sum();
+    }
+
+    // --- FleetListener: bump the version after every change ---
+
+    @Override
+    public void vehicleChanged(Vehicle v) {
+        version.increment();
+    }
+
+    @Override
+    public void vehicleAdded(Vehicle v) {
+        version.increment();
+    }
+
+    @Override
+    public void vehicleRemoved(Vehicle v) {
+        version.increment();
+    }
+
+    @Override
+    public void fleetReloaded() {
+        version.increment();
+    }
+
+    // --- requests ---
+
+    private static final class HttpError extends Exception {
+        final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private void handle(HttpExchange ex) throws IOException {
+        try (ex) {
+            String[] path = ex.getRequestURI().getPath().substring("/api/".length()).split("/");
+            Map<String, String> query = query(ex.getRequestURI().getRawQuery());
+            String method = ex.getRequestMethod();
+            try {
+                if (method.equals("GET")) {
+                    get(ex, path, query);
+                } else if (method.equals("POST") || method.equals("DELETE")) {
+                    write(ex, method, path, query);
+                } else {
+                    throw new HttpError(405, "Method not allowed: " + method);
+                }
+            } catch (HttpError e) {
+                error(ex, e.status, e.getMessage());
+            } catch (InvalidOperationException | InsufficientFuelException | OverloadException
+                     | IllegalArgumentException e) {
+                error(ex, 400, e.getMessage());
+            } catch (IOException e) {
+                throw e; // the client went away mid-response
+            } catch (RuntimeException e) {
+                error(ex, 500, String.valueOf(e.getMessage()));
+            } catch (Exception e) {
+                error(ex, 400, e.getMessage()); // malformed CSV row
+            }
+        }
+    }
+
+    private void get(HttpExchange ex, String[] path, Map<String, String> query) throws IOException, HttpError {
+        if (path[0].equals("metrics")) {
+            send(ex, 200, Metrics.registry().toJson());
+            return;
+        }
+        long v = version.sum();
+        String tag = "\"" + v + "\"";
+        ex.getResponseHeaders().set("ETag", tag);
+        ex.getResponseHeaders().set("Cache-Control", "no-cache");
+        if (tag.equals(ex.getRequestHeaders().getFirst("If-None-Match"))) {
+            ex.sendResponseHeaders(304, -1);
+            return;
+        }
+        switch (path[0]) {
+            case "report": {
+                CachedReport cached = report;
+                if (cached == null || cached.version != v) {
+                    cached = new CachedReport(v, report().getBytes(StandardCharsets.UTF_8));
+                    report = cached;
+                }
+                send(ex, 200, cached.body);
+                return;
+            }
+            case "vehicles": {
+                if (path.length == 2) {
+                    Vehicle vehicle = manager.getById(path[1]);
+                    if (vehicle == null) throw new HttpError(404, "Vehicle does not exist!");
+                    send(ex, 200, Json.vehicle(new StringBuilder(), vehicle));
+                    return;
+                }
+                FleetQuery q = manager.query();
+                if (query.containsKey("type")) q.ofType(type(query.get("type")));
+                if (query.containsKey("model")) q.model(query.get("model"));
+                if ("true".equals(query.get("maintenance"))) q.needingMaintenance();
+                if (query.containsKey("limit")) q.limit(integer(query.get("limit")));
+                send(ex, 200, Json.vehicles(new StringBuilder(), q.list()));
+                return;
+            }
+            case "maintenance":
+                send(ex, 200, Json.strings(new StringBuilder(), manager.getVehiclesNeedingMaintenance()));
+                return;
+            case "top": {
+                SortKey key = key(query.getOrDefault("key", "speed"));
+                int k = integer(query.getOrDefault("k", "10"));
+                List<Vehicle> result = "asc".equals(query.get("order"))
+                        ? manager.query().orderBy(key).limit(k).list()
+                        : manager.top(key, k);
+                send(ex, 200, Json.vehicles(new StringBuilder(), result));
+                return;
+            }
+            default:
+                throw new HttpError(404, "No such resource: " + ex.getRequestURI().getPath());
+        }
+    }
+
+    private String report() {
+        StringBuilder sb = new StringBuilder(512);
+        sb.append("{\"version\":").append(version.sum());
+        sb.append(",\"vehicles\":").append(manager.size());
+        sb.append(",\"byType\":{");
+        Class<?>[] types = {Car.class, Bus.class, Truck.class, Airplane.class, CargoShip.class};
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0) sb.append(',');
+            Json.string(sb, types[i].getSimpleName()).append(':').append(manager.query().ofType(types[i]).count());
+        }
+        sb.append('}');
+        Json.number(sb.append(",\"totalMileage\":"), manager.getTotalMileage());
+        sb.append(",\"needingMaintenance\":").append(manager.getVehiclesNeedingMaintenance().size());
+        Json.string(sb.append(",\"text\":"), manager.generateReport());
+        return sb.append('}').toString();
+    }
+
+    private void write(HttpExchange ex, String method, String[] path, Map<String, String> query)
+            throws Exception {
+        if (path[0].equals("batch") && method.equals("POST")) {
+            batch(ex);
+            return;
+        }
+        if (!path[0].equals("vehicles")) throw new HttpError(404, "No such resource: " + ex.getRequestURI().getPath());
+
+        if (method.equals("POST") && path.length == 1) {
+            String row = body(ex, 64 * 1024).trim();
+            Vehicle v = VehicleCsv.fromCSV(row);
+            if (v == null) throw new HttpError(400, "Unknown vehicle type in: " + row);
+            manager.addVehicle(v);
+            send(ex, 201, Json.vehicle(new StringBuilder(), v));
+        } else if (method.equals("DELETE") && path.length == 2) {
+            if (manager.remove(path[1]) == null) throw new HttpError(404, "Vehicle does not exist!");
+            send(ex, 200, new StringBuilder("{\"removed\":").append(Json.string(new StringBuilder(), path[1])).append('}'));
+        } else if (method.equals("POST") && path.length == 3 && path[2].equals("move")) {
+            double km = number(query.get("km"), "km");
+            known(path[1]);
+            manager.withVehicle(path[1], v -> v.move(km));
+            send(ex, 200, Json.vehicle(new StringBuilder(), manager.getById(path[1])));
+        } else if (method.equals("POST") && path.length == 3 && path[2].equals("refuel")) {
+            double litres = number(query.get("litres"), "litres");
+            known(path[1]);
+            manager.withVehicle(path[1], v -> {
+                if (!(v instanceof FuelConsumable f)) throw new InvalidOperationException(v.getId() + " does not take fuel");
+                f.refuel(litres);
+            });
+            send(ex, 200, Json.vehicle(new StringBuilder(), manager.getById(path[1])));
+        } else {
+            throw new HttpError(405, method + " not supported on " + ex.getRequestURI().getPath());
+        }
+    }
+
+    // runs the body's commands in order on this request's thread and returns every response,
+    // so a client applies thousands of mutations with one round trip
+    private void batch(HttpExchange ex) throws IOException, HttpError {
+        BufferedReader in = new BufferedReader(new StringReader(body(ex, MAX_BATCH_BYTES)));
+        StringBuilder results = new StringBuilder(4096).append('[');
+        int commands = 0, failed = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            String verb = CommandInterpreter.verb(line);
+            if ("quit".equals(verb)) break;
+            String response = interpreter.execute(line);
+            if (response == null) continue;
+            if (commands++ > 0) results.append(',');
+            if (response.startsWith("ERR")) failed++;
+            Json.string(results, response);
+        }
+        results.append(']');
+        StringBuilder sb = new StringBuilder(results.length() + 64);
+        sb.append("{\"commands\":").append(commands).append(",\"failed\":").append(failed)
+          .append(",\"results\":").append(results).append('}');
+        send(ex, 200, sb);
+    }
+
+    // --- helpers ---
+
+    private static String body(HttpExchange ex, int limit) throws IOException, HttpError {
+        byte[] bytes = ex.getRequestBody().readNBytes(limit + 1);
+        if (bytes.length > limit) throw new HttpError(413, "Body larger than " + limit + " bytes");
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void send(HttpExchange ex, int status, CharSequence json) throws IOException {
+        send(ex, status, json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void send(HttpExchange ex, int status, byte[] body) throws IOException {
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) ex.getResponseBody().write(body);
+    }
+
+    private static void error(HttpExchange ex, int status, String message) throws IOException {
+        ex.getResponseHeaders().remove("ETag");
+        send(ex, status, Json.string(new StringBuilder("{\"error\":"), message).append('}'));
+    }
+
+    private static Map<String, String> query(String raw) {
+        if (raw == null || raw.isEmpty()) return Collections.emptyMap();
+        Map<String, String> params = new HashMap<>();
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private void known(String id) throws HttpError {
+        if (!manager.contains(id)) throw new HttpError(404, "Vehicle does not exist!");
+    }
+
+    private static Class<?> type(String name) throws HttpError {
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "car": return Car.class;
+            case "truck": return Truck.class;
+            case "bus": return Bus.class;
+            case "airplane": return Airplane.class;
+            case "cargoship": return CargoShip.class;
+            default: throw new HttpError(400, "Unknown type: " + name);
+        }
+    }
+
+    private static SortKey key(String name) throws HttpError {
+        try {
+            return SortKey.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new HttpError(400, "Unknown key: " + name);
+        }
+    }
+
+    private static int integer(String s) throws HttpError {
+        try {
+            int n = Integer.parseInt(s);
+            if (n < 0) throw new NumberFormatException();
+            return n;
+        } catch (NumberFormatException e) {
+            throw new HttpError(400, "Not a count: " + s);
+        }
+    }
+
+    private static double number(String s, String name) throws HttpError {
+        if (s == null) throw new HttpError(400, "Missing parameter: " + name);
+        try {
+            return Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            throw new HttpError(400, "Not a number: " + s);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package server;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import javax.management.JMException;
+
+import events.*;
+import managers.FleetManager;
+import metrics.*;
+
+// Runs the fleet without Swing. Commands come from a script file, from stdin, or from clients
+// of a Unix domain socket or loopback port; see CommandInterpreter for the command language.
+//   --script <file>        run the script, print one response per command and a throughput line
+//   --socket <path>        serve commands on a Unix domain socket until "shutdown"
+//   --port <n>             serve commands on 127.0.0.1:<n> until "shutdown"
+//   --http <n>             also serve the JSON API on 127.0.0.1:<n>; alone, runs until killed
+//   --load <file>          load a fleet CSV before taking commands
+//   --events none|console|json:<file>   where vehicle events go (default none)
+//   --quiet                with --script or stdin, print only the throughput line
+//   --metrics              record latencies and counts (see metrics.Metrics); with --script,
+//                          print them after the throughput line
+//   --jmx                  --metrics, also published as the MBean fleet:type=Metrics
+// With none of --script, --socket, --port or --http, commands are read from stdin.
+public class Headless {
+
+    public static void main(String[] args) {
+        run(new FleetManager(), args);
+    }
+
+    public static void run(FleetManager manager, String[] args) {
+        String script = null, socket = null, load = null, events = "none";
+        int port = -1, httpPort = -1;
+        boolean quiet = false, metrics = false, jmx = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--script" -> script = args[++i];
+                    case "--socket" -> socket = args[++i];
+                    case "--port" -> port = Integer.parseInt(args[++i]);
+                    case "--http" -> httpPort = Integer.parseInt(args[++i]);
+                    case "--load" -> load = args[++i];
+                    case "--events" -> events = args[++i];
+                    case "--quiet" -> quiet = true;
+                    case "--metrics" -> metrics = true;
+                    case "--jmx" -> metrics = jmx = true;
+                    default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            String message = e instanceof ArrayIndexOutOfBoundsException ? "missing option value" : e.getMessage();
+            System.out.println("Error: " + message);
+            System.out.println("Usage: --headless [--script <file> | --socket <path> | --port <n>] [--http <n>] [--load <file>] [--events none|console|json:<file>] [--quiet] [--metrics] [--jmx]");
+            return;
+        }
+
+        EventSink sink;
+        try {
+            sink = sink(events);
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+            return;
+        }
+        if (metrics) {
+            Metrics.setEnabled(true);
+            manager.registerGauges(Metrics.registry());
+        }
+        if (jmx) {
+            try {
+                JmxExporter.register(Metrics.registry());
+            } catch (JMException e) {
+                System.out.println("Error: JMX registration failed: " + e.getMessage());
+            }
+        }
+        EventSink previous = Events.setSink(sink);
+        CommandInterpreter interpreter = new CommandInterpreter(manager);
+        FleetHttpServer http = null;
+        try {
+            if (load != null) manager.loadFromFile(load);
+            if (httpPort >= 0) {
+                http = new FleetHttpServer(interpreter, httpPort);
+                http.start();
+                System.out.println("HTTP API on " + http.getAddress());
+            }
+            if (http != null && script == null && socket == null && port < 0) {
+                http.awaitStop();
+            } else if (socket != null || port >= 0) {
+                try (BatchServer server = socket != null
+                        ? BatchServer.unix(Paths.get(socket), interpreter)
+                        : BatchServer.tcp(port, interpreter)) {
+                    System.out.println("Listening on " + server.getAddress());
+                    server.serve();
+                }
+                System.out.println("Server stopped after " + interpreter.getCommands() + " commands");
+            } else {
+                Writer out = quiet ? null
+                        : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16);
+                try (Reader in = script != null
+                        ? Files.newBufferedReader(Paths.get(script), StandardCharsets.UTF_8)
+                        : new InputStreamReader(System.in, StandardCharsets.UTF_8)) {
+                    ScriptRunner.Summary summary = new ScriptRunner(interpreter).run(in, out);
+                    System.out.println(summary);
+                    if (metrics) System.out.print(Metrics.registry().toText());
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Error: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (http != null) http.stop();
+            interpreter.stopSimulation();
+            Events.setSink(previous);
+            sink.flush();
+            if (sink instanceof RingBufferEventSink r) r.close();
+        }
+    }
+
+    // console and JSON output go through a ring buffer so vehicle threads never block on I/O
+    private static EventSink sink(String spec) throws IOException {
+        if (spec.equals("none")) return NoOpEventSink.INSTANCE;
+        if (spec.equals("console")) return new RingBufferEventSink(new ConsoleEventSink());
+        if (spec.startsWith("json:")) {
+            OutputStream file = Files.newOutputStream(Paths.get(spec.substring(5)));
+            return new RingBufferEventSink(new StructuredEventSink(file));
+        }
+        throw new IllegalArgumentException("Unknown event sink: " + spec);
+    }
+}
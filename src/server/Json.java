@@ -0,0 +1,68 @@
+package server;
+
+import java.util.Collection;
+
+import interfaces.*;
+import vehicles.Vehicle;
+
+// Appends JSON values to a StringBuilder; enough for the API's flat objects and arrays.
+final class Json {
+    private Json() {}
+
+    static StringBuilder string(StringBuilder sb, String s) {
+        if (s == null) return sb.append("null");
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        return sb.append('"');
+    }
+
+    // NaN and infinities have no JSON form
+    static StringBuilder number(StringBuilder sb, double d) {
+        return Double.isFinite(d) ? sb.append(d) : sb.append("null");
+    }
+
+    static StringBuilder strings(StringBuilder sb, Collection<String> values) {
+        sb.append('[');
+        boolean first = true;
+        for (String s : values) {
+            if (!first) sb.append(',');
+            string(sb, s);
+            first = false;
+        }
+        return sb.append(']');
+    }
+
+    static StringBuilder vehicle(StringBuilder sb, Vehicle v) {
+        string(sb.append("{\"id\":"), v.getId());
+        string(sb.append(",\"type\":"), v.getClass().getSimpleName());
+        string(sb.append(",\"model\":"), v.getModel());
+        number(sb.append(",\"maxSpeed\":"), v.getMaxSpeed());
+        number(sb.append(",\"mileage\":"), v.getCurrentMileage());
+        if (v instanceof FuelConsumable f) number(sb.append(",\"fuel\":"), f.getFuelLevel());
+        if (v instanceof Maintainable m) sb.append(",\"needsMaintenance\":").append(m.needsMaintenance());
+        return sb.append('}');
+    }
+
+    static StringBuilder vehicles(StringBuilder sb, Collection<? extends Vehicle> vehicles) {
+        sb.append('[');
+        boolean first = true;
+        for (Vehicle v : vehicles) {
+            if (!first) sb.append(',');
+            vehicle(sb, v);
+            first = false;
+        }
+        return sb.append(']');
+    }
+}
@@ -0,0 +1,63 @@
+package server;
+
+import java.io.*;
+import java.util.Locale;
+
+// Runs a command script through an interpreter, writing one response line per command, and
+// measures how long the commands took. Stops at "quit" or the end of the script.
+public class ScriptRunner {
+
+    public static class Summary {
+        private final long commands;
+        private final long errors;
+        private final long elapsedNanos;
+
+        Summary(long commands, long errors, long elapsedNanos) {
+            this.commands = commands;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getCommands() { return commands; }
+        public long getErrors() { return errors; }
+        public long getElapsedNanos() { return elapsedNanos; }
+
+        public double commandsPerSecond() {
+            return elapsedNanos == 0 ? 0 : commands / (elapsedNanos / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d commands (%d failed) in %.1f ms, %.0f commands/s",
+                    commands, errors, elapsedNanos / 1e6, commandsPerSecond());
+        }
+    }
+
+    private final CommandInterpreter interpreter;
+
+    public ScriptRunner(CommandInterpreter interpreter) {
+        this.interpreter = interpreter;
+    }
+
+    // out may be null to discard responses, e.g. when only the throughput matters
+    public Summary run(Reader script, Writer out) throws IOException {
+        BufferedReader in = script instanceof BufferedReader b ? b : new BufferedReader(script, 1 << 16);
+        long commands0 = interpreter.getCommands();
+        long errors0 = interpreter.getErrors();
+        long t0 = System.nanoTime();
+        String line;
+        while ((line = in.readLine()) != null) {
+            String response = interpreter.execute(line);
+            if (response == null) continue;
+            if (out != null) {
+                out.write(response);
+                out.write('\n');
+            }
+            if ("quit".equals(CommandInterpreter.verb(line))) break;
+            if (out != null && !in.ready()) out.flush(); // stdin: answer what has been typed so far
+        }
+        long elapsed = System.nanoTime() - t0;
+        if (out != null) out.flush();
+        return new Summary(interpreter.getCommands() - commands0, interpreter.getErrors() - errors0, elapsed);
+    }
+}
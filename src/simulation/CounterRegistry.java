@@ -0,0 +1,76 @@
+package simulation;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+// Named distance counters (per road segment, per vehicle type, ...). Writers add to striped
+// cells and never block each other; reads sum the cells without stopping writers, so a snapshot
+// taken during updates is a consistent-enough total rather than an atomic cut.
+public class CounterRegistry {
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+    // returns the counter for name, creating it on first use; callers on hot paths should keep it
+    public Counter counter(String name) {
+        Counter c = counters.get(name);
+        return c != null ? c : counters.computeIfAbsent(name, Counter::new);
+    }
+
+    public Counter forSegment(String segment) {
+        return counter("segment:" + segment);
+    }
+
+    public Counter forType(Class<?> type) {
+        return counter("type:" + type.getSimpleName());
+    }
+
+    // name -> total, summed at the time of the call, sorted by name
+    public Map<String, Double> snapshot() {
+        Map<String, Double> out = new TreeMap<>();
+        counters.forEach((name, c) -> out.put(name, c.total()));
+        return out;
+    }
+
+    public void resetAll() {
+        counters.values().forEach(Counter::reset);
+    }
+
+    public static final class Counter {
+        private final String name;
+        private final LongAdder whole = new LongAdder();
+        private final DoubleAdder fraction = new DoubleAdder();
+
+        Counter(String name) {
+            this.name = name;
+        }
+
+        public String getName() { return name; }
+
+        public void add(long km) {
+            whole.add(km);
+        }
+
+        public void add(double km) {
+            fraction.add(km);
+        }
+
+        public long getLong() {
+            return whole.sum() + (long) fraction.sum();
+        }
+
+        public double total() {
+            return whole.sum() + fraction.sum();
+        }
+
+        void reset() {
+            whole.reset();
+            fraction.reset();
+        }
+
+        @Override
+        public String toString() {
+            return name + "=" + total();
+        }
+    }
+}
@@ -0,0 +1,453 @@
+package simulation;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import exceptions.InvalidOperationException;
+import interfaces.FuelConsumable;
+import interfaces.Maintainable;
+import vehicles.Vehicle;
+
+// Simulation on a virtual clock: movement, fuel exhaustion, maintenance and refuel are events in
+// a calendar ordered by (time, sequence), so simulated time is independent of wall time.
+// Either step it yourself with runUntil()/runFor() (as fast as possible, fully deterministic for a
+// given seed and call order), or startClock() to let a driver thread follow wall time scaled by
+// the acceleration factor. Observer callbacks run on the dispatching thread under the engine lock.
+public class DiscreteEventEngine implements SimulationEngine {
+
+    public enum EventType { MOVE, FUEL_EXHAUSTED, REFUEL, MAINTENANCE_DUE, MAINTENANCE_DONE }
+
+    public interface EventObserver {
+        void onEvent(long time, EventType type, Vehicle v);
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition wake = lock.newCondition();
+    private final PriorityQueue<Event> calendar = new PriorityQueue<>();
+    private final Map<VehicleRunnable, Entry> entries = new HashMap<>();
+    private final Random random;
+    private long now;
+    private long seq;
+    private long processed;
+
+    private double acceleration = Double.POSITIVE_INFINITY; // sim ms per wall ms
+    private long simOrigin;
+    private long wallOrigin;
+    private Thread clock;
+
+    private double serviceIntervalKm = 10_000;
+    private long serviceMillis = TimeUnit.HOURS.toMillis(4);
+    private long refuelDelayMillis = TimeUnit.MINUTES.toMillis(30); // < 0 disables auto refuel
+    private double minRefuel = 40, maxRefuel = 60;
+    private EventObserver observer;
+
+    public DiscreteEventEngine(long seed) {
+        this.random = new Random(seed);
+    }
+
+    // --- configuration ---
+
+    // simulated milliseconds per wall-clock millisecond; <= 0 or infinity means as fast as possible
+    public void setAcceleration(double factor) {
+        lock.lock();
+        try {
+            rebase();
+            acceleration = factor > 0 ? factor : Double.POSITIVE_INFINITY;
+            wake.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void setMaintenance(double intervalKm, long durationMillis) {
+        if (intervalKm <= 0 || durationMillis < 0) throw new IllegalArgumentException("Invalid maintenance settings");
+        lock.lock();
+        try {
+            serviceIntervalKm = intervalKm;
+            serviceMillis = durationMillis;
+            for (Entry e : entries.values()) e.nextServiceKm = nextService(e.runnable.getVehicle());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // vehicles that run dry are refuelled after delayMillis with a seeded amount in [minLitres, maxLitres]
+    public void setAutoRefuel(long delayMillis, double minLitres, double maxLitres) {
+        if (minLitres <= 0 || maxLitres < minLitres) throw new IllegalArgumentException("Invalid refuel range");
+        lock.lock();
+        try {
+            refuelDelayMillis = delayMillis;
+            minRefuel = minLitres;
+            maxRefuel = maxLitres;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void disableAutoRefuel() {
+        lock.lock();
+        try {
+            refuelDelayMillis = -1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void setObserver(EventObserver observer) {
+        lock.lock();
+        try {
+            this.observer = observer;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // --- SimulationEngine ---
+
+    public void start(VehicleRunnable r) {
+        lock.lock();
+        try {
+            if (entries.containsKey(r)) return;
+            Entry e = new Entry(r);
+            e.nextServiceKm = nextService(r.getVehicle());
+            entries.put(r, e);
+            // seeded phase so vehicles started together do not all move in lockstep
+            if (r.isRunnable()) scheduleMove(e, current() + random.nextInt(Math.max(1, r.getTickMillis())));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void pause(VehicleRunnable r) {
+        lock.lock();
+        try {
+            r.requestPause();
+            Entry e = entries.get(r);
+            if (e != null) {
+                e.userPaused = true;
+                e.generation++; // pending MOVE events become stale
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void resume(VehicleRunnable r) {
+        lock.lock();
+        try {
+            boolean wasPaused = r.isPaused();
+            r.requestResume();
+            Entry e = entries.get(r);
+            if (e != null) {
+                e.userPaused = false;
+                e.outOfFuel = false;
+                if (wasPaused && !e.inService) scheduleMove(e, current());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void stop(VehicleRunnable r) {
+        lock.lock();
+        try {
+            r.requestStop();
+            Entry e = entries.remove(r);
+            if (e != null) e.generation++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // queue a refuel for a vehicle on this engine; resumes it if it was stopped for lack of fuel
+    public void scheduleRefuel(VehicleRunnable r, long delayMillis, double litres) {
+        lock.lock();
+        try {
+            Entry e = entries.get(r);
+            if (e == null) throw new IllegalArgumentException("Vehicle is not on this engine");
+            Event ev = event(current() + Math.max(0, delayMillis), EventType.REFUEL, e);
+            ev.amount = litres;
+            enqueue(ev);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // --- stepping ---
+
+    // processes every event up to and including simTime, then advances the clock to it
+    public int runUntil(long simTime) {
+        int n = 0;
+        lock.lock();
+        try {
+            if (clock != null) throw new IllegalStateException("Clock is running");
+            Event e;
+            while ((e = calendar.peek()) != null && e.time <= simTime) {
+                calendar.poll();
+                if (dispatch(e)) n++;
+            }
+            if (simTime > now) now = simTime;
+        } finally {
+            lock.unlock();
+        }
+        return n;
+    }
+
+    public int runFor(long simMillis) {
+        return runUntil(now() + simMillis);
+    }
+
+    // processes the next live event, if any; returns false when the calendar is empty
+    public boolean step() {
+        lock.lock();
+        try {
+            if (clock != null) throw new IllegalStateException("Clock is running");
+            Event e;
+            while ((e = calendar.poll()) != null) {
+                if (dispatch(e)) return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // runs the calendar on a daemon thread, paced by the acceleration factor
+    public void startClock() {
+        lock.lock();
+        try {
+            if (clock != null) return;
+            rebase();
+            clock = new Thread(this::drive, "simulation-clock");
+            clock.setDaemon(true);
+            clock.start();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void stopClock() {
+        Thread t;
+        lock.lock();
+        try {
+            now = current();
+            t = clock;
+            clock = null;
+            wake.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (t != null) {
+            try {
+                t.join();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void drive() {
+        Thread self = Thread.currentThread();
+        while (true) {
+            lock.lock(); // one event per acquisition so controller calls are not starved
+            try {
+                if (clock != self) return;
+                Event e = calendar.peek();
+                if (e == null) {
+                    wake.await();
+                    continue;
+                }
+                if (acceleration != Double.POSITIVE_INFINITY) {
+                    long due = wallOrigin + (long) ((e.time - simOrigin) / acceleration * 1_000_000);
+                    long wait = due - System.nanoTime();
+                    if (wait > 0) {
+                        wake.awaitNanos(wait);
+                        continue;
+                    }
+                }
+                calendar.poll();
+                dispatch(e);
+            } catch (InterruptedException ie) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // --- state ---
+
+    public long now() {
+        lock.lock();
+        try {
+            return current();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getProcessedEvents() {
+        lock.lock();
+        try {
+            return processed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getPendingEvents() {
+        lock.lock();
+        try {
+            return calendar.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // --- internals (lock held) ---
+
+    private long current() {
+        if (clock == null || acceleration == Double.POSITIVE_INFINITY) return now;
+        long projected = simOrigin + (long) ((System.nanoTime() - wallOrigin) / 1_000_000.0 * acceleration);
+        return Math.max(now, projected);
+    }
+
+    private void rebase() {
+        now = current();
+        simOrigin = now;
+        wallOrigin = System.nanoTime();
+    }
+
+    private double nextService(Vehicle v) {
+        return (Math.floor(v.getCurrentMileage() / serviceIntervalKm) + 1) * serviceIntervalKm;
+    }
+
+    private Event event(long time, EventType type, Entry e) {
+        Event ev = new Event(time, seq++, type, e);
+        ev.generation = e.generation;
+        return ev;
+    }
+
+    private void enqueue(Event ev) {
+        calendar.add(ev);
+        if (clock != null) wake.signal();
+    }
+
+    private void scheduleMove(Entry e, long time) {
+        e.generation++;
+        enqueue(event(time, EventType.MOVE, e));
+    }
+
+    private boolean dispatch(Event ev) {
+        Entry e = ev.entry;
+        if (entries.get(e.runnable) != e) return false; // stopped
+        if (ev.type == EventType.MOVE && ev.generation != e.generation) return false; // paused or rescheduled
+        now = Math.max(now, ev.time);
+        processed++;
+        VehicleRunnable r = e.runnable;
+        Vehicle v = r.getVehicle();
+        if (observer != null) observer.onEvent(now, ev.type, v);
+
+        switch (ev.type) {
+            case MOVE:
+                if (r.tick()) {
+                    enqueue(event(now + r.getTickMillis(), EventType.MOVE, e));
+                } else if (r.isPaused() && v instanceof FuelConsumable) {
+                    e.outOfFuel = true;
+                    enqueue(event(now, EventType.FUEL_EXHAUSTED, e));
+                }
+                if (v.getCurrentMileage() >= e.nextServiceKm) {
+                    e.nextServiceKm = nextService(v);
+                    enqueue(event(now, EventType.MAINTENANCE_DUE, e));
+                }
+                break;
+            case FUEL_EXHAUSTED:
+                if (refuelDelayMillis >= 0) {
+                    Event refuel = event(now + refuelDelayMillis, EventType.REFUEL, e);
+                    refuel.amount = minRefuel + random.nextDouble() * (maxRefuel - minRefuel);
+                    enqueue(refuel);
+                }
+                break;
+            case REFUEL:
+                if (v instanceof FuelConsumable fc) {
+                    Lock owner = v.lockState();
+                    try {
+                        fc.refuel(ev.amount);
+                    } catch (InvalidOperationException ex) {
+                        break;
+                    } finally {
+                        if (owner != null) owner.unlock();
+                    }
+                }
+                if (e.outOfFuel && !e.userPaused) {
+                    e.outOfFuel = false;
+                    r.requestResume();
+                    if (!e.inService) scheduleMove(e, now);
+                }
+                break;
+            case MAINTENANCE_DUE:
+                if (v instanceof Maintainable m) {
+                    Lock owner = v.lockState();
+                    try {
+                        m.scheduleMaintenance();
+                    } finally {
+                        if (owner != null) owner.unlock();
+                    }
+                }
+                e.inService = true;
+                e.generation++; // off the road until MAINTENANCE_DONE
+                enqueue(event(now + serviceMillis, EventType.MAINTENANCE_DONE, e));
+                break;
+            case MAINTENANCE_DONE:
+                if (v instanceof Maintainable m) {
+                    Lock owner = v.lockState();
+                    try {
+                        m.performMaintenance();
+                    } finally {
+                        if (owner != null) owner.unlock();
+                    }
+                }
+                e.inService = false;
+                if (r.isRunnable()) scheduleMove(e, now);
+                break;
+        }
+        return true;
+    }
+
+    private static final class Entry {
+        final VehicleRunnable runnable;
+        long generation;
+        double nextServiceKm;
+        boolean userPaused;
+        boolean outOfFuel;
+        boolean inService;
+
+        Entry(VehicleRunnable runnable) {
+            this.runnable = runnable;
+        }
+    }
+
+    private static final class Event implements Comparable<Event> {
+        final long time;
+        final long seq;
+        final EventType type;
+        final Entry entry;
+        long generation;
+        double amount;
+
+        Event(long time, long seq, EventType type, Entry entry) {
+            this.time = time;
+            this.seq = seq;
+            this.type = type;
+            this.entry = entry;
+        }
+
+        @Override
+        public int compareTo(Event o) {
+            int c = Long.compare(time, o.time);
+            return c != 0 ? c : Long.compare(seq, o.seq);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,18 @@
+package simulation;
+
+import jdk.jfr.*;
+
+// A contended acquisition of the SharedHighwayCounter lock, emitted around lock() when tryLock()
+// fails. Only the old single-lock incrementLocked path takes this lock, and only the counter
+// benchmarks call it; simulation ticks use the lock-free adder. Contention in real runs is on the
+// FleetManager locks (managers.LockContendedEvent).
+@Name("fleet.HighwayLockContended")
+@Label("Highway Lock Contended")
+@Category({"Fleet Management", "Simulation"})
+@Description("Wait for the global SharedHighwayCounter lock after tryLock failed")
+@Enabled(false)
+final class HighwayLockEvent extends Event {
+    @Label("Queued Threads")
+    @Description("Threads already waiting for the lock when this one started")
+    int queued;
+}
@@ -1,39 +1,84 @@
 package simulation;
 
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantLock;
+import metrics.Metrics;
+import metrics.Timer;
 
 public class SharedHighwayCounter {
     // public for demo only; prefer private with accessor
     public static int highwayDistanceUnsafe = 0; // intentionally unsynchronized for race demo
-    private static int highwayDistanceSafe = 0;
+    private static final LongAdder highwayDistanceSafe = new LongAdder(); // striped; writers don't contend
+    private static long highwayDistanceLocked = 0; // the old single-lock path, kept for comparison
     private static final ReentrantLock lock = new ReentrantLock();
+    private static final CounterRegistry counters = new CounterRegistry();
+    private static final Timer LOCK_WAIT = Metrics.registry().timer("highway.lockWait");
+
+    static {
+        Metrics.registry().gauge("highway.unsafe", SharedHighwayCounter::getUnsafe);
+        Metrics.registry().gauge("highway.safe", SharedHighwayCounter::getSafeLong);
+    }
 
     // UNSAFE increment: demonstrates race condition
     public static void incrementUnsafe(int km) {
         // naive read-modify-write (introduces race)
         int tmp = highwayDistanceUnsafe;
         tmp += km;
-        // small artificial delay to make race more visible (optional)
-        try { Thread.sleep(1); } catch (InterruptedException ignored) {}
+        // short spin between read and write to make the race more visible; it must not sleep,
+        // since ticks run on the shared scheduler threads
+        for (int i = 0; i < 16; i++) Thread.onSpinWait();
         highwayDistanceUnsafe = tmp;
     }
 
-    // SAFE increment: using lock
+    // SAFE increment: striped adder, no lock
     public static void incrementSafe(int km) {
-        lock.lock();
+        highwayDistanceSafe.add(km);
+    }
+
+    // SAFE increment using one global lock (previous implementation)
+    public static void incrementLocked(int km) {
+        long t0 = LOCK_WAIT.start();
+        if (!lock.tryLock()) {
+            HighwayLockEvent contended = new HighwayLockEvent();
+            contended.queued = lock.getQueueLength();
+            contended.begin();
+            lock.lock();
+            contended.commit();
+        }
+        LOCK_WAIT.stopSince(t0);
         try {
-            highwayDistanceSafe += km;
+            highwayDistanceLocked += km;
         } finally {
             lock.unlock();
         }
     }
 
     public static int getUnsafe() { return highwayDistanceUnsafe; }
-    public static int getSafe() { return highwayDistanceSafe; }
+    // int as before the striped adder, saturating at Integer.MAX_VALUE; getSafeLong() is exact
+    public static int getSafe() { return (int) Math.min(Integer.MAX_VALUE, getSafeLong()); }
+    public static long getSafeLong() { return highwayDistanceSafe.sum(); }
+    public static long getLocked() {
+        lock.lock();
+        try {
+            return highwayDistanceLocked;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // named per-segment / per-type counters
+    public static CounterRegistry counters() { return counters; }
 
     // for resetting between runs
     public static void resetAll() {
         highwayDistanceUnsafe = 0;
-        highwayDistanceSafe = 0;
+        highwayDistanceSafe.reset();
+        lock.lock();
+        try {
+            highwayDistanceLocked = 0;
+        } finally {
+            lock.unlock();
+        }
+        counters.resetAll();
     }
-}
+}
\ No newline at end of file
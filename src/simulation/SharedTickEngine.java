@@ -0,0 +1,154 @@
+package simulation;
+
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import metrics.Metrics;
+import metrics.Timer;
+
+// Runs every vehicle's tick on one small shared scheduler instead of a thread per vehicle.
+// A running vehicle is a periodic task; a paused or out-of-fuel vehicle has no task at all
+// (it is parked, not polled) until resume() schedules it again.
+public class SharedTickEngine implements SimulationEngine {
+    // how late ticks start against their fixed-rate schedule: time spent queued behind other
+    // vehicles' ticks on the shared threads; sampled like the tick time
+    private static final Timer TICK_DELAY = Metrics.registry().timer("sim.tickDelay", 16);
+    private static volatile SharedTickEngine shared;
+
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Map<VehicleRunnable, Slot> slots = new ConcurrentHashMap<>();
+
+    public SharedTickEngine(int threads) {
+        AtomicInteger n = new AtomicInteger();
+        scheduler = new ScheduledThreadPoolExecutor(threads, r -> {
+            Thread t = new TickThread(r, "vehicle-tick-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    // process-wide engine sized to the machine
+    public static SharedTickEngine shared() {
+        if (shared == null) {
+            synchronized (SharedTickEngine.class) {
+                if (shared == null) {
+                    shared = new SharedTickEngine(Runtime.getRuntime().availableProcessors());
+                    Metrics.registry().gauge("sim.activeVehicles", shared::getActiveCount);
+                    Metrics.registry().gauge("sim.queuedTicks", () -> shared.scheduler.getQueue().size());
+                }
+            }
+        }
+        return shared;
+    }
+
+    public void start(VehicleRunnable r) {
+        slots.computeIfAbsent(r, Slot::new).schedule();
+    }
+
+    public void pause(VehicleRunnable r) {
+        Slot slot = slots.get(r);
+        if (slot == null) {
+            r.requestPause();
+            return;
+        }
+        synchronized (slot) {
+            r.requestPause();
+            slot.park();
+        }
+    }
+
+    public void resume(VehicleRunnable r) {
+        Slot slot = slots.get(r);
+        if (slot == null) {
+            r.requestResume();
+            return;
+        }
+        synchronized (slot) {
+            r.requestResume();
+            slot.schedule();
+        }
+    }
+
+    public void stop(VehicleRunnable r) {
+        r.requestStop();
+        Slot slot = slots.remove(r);
+        if (slot != null) slot.park();
+    }
+
+    public int getActiveCount() {
+        int active = 0;
+        for (Slot s : slots.values()) {
+            if (s.isScheduled()) active++;
+        }
+        return active;
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+        slots.clear();
+    }
+
+    // a scheduler thread with its open fleet.TickBatch event; a batch left open when ticks stop
+    // is committed by the thread's next tick
+    private static final class TickThread extends Thread {
+        TickBatchEvent batch = new TickBatchEvent();
+
+        TickThread(Runnable r, String name) {
+            super(r, name);
+        }
+    }
+
+    private final class Slot implements Runnable {
+        private final VehicleRunnable vehicle;
+        private ScheduledFuture<?> future; // guarded by this
+        private long due; // when the current run was meant to start; tick thread after schedule()
+
+        Slot(VehicleRunnable vehicle) {
+            this.vehicle = vehicle;
+        }
+
+        @Override
+        public void run() {
+            long now = TICK_DELAY.start();
+            if (now != 0) TICK_DELAY.record(now - due);
+            long scheduled = due;
+            due += TimeUnit.MILLISECONDS.toNanos(vehicle.getTickMillis());
+            boolean more;
+            TickThread thread = (TickThread) Thread.currentThread();
+            if (thread.batch.isEnabled()) {
+                long started = System.nanoTime();
+                more = vehicle.tick();
+                if (thread.batch.add(started, started - scheduled, System.nanoTime() - started, !more)) {
+                    thread.batch = new TickBatchEvent();
+                }
+            } else {
+                more = vehicle.tick();
+            }
+            if (more) return;
+            // the vehicle paused itself (e.g. out of fuel) or was stopped; re-check under the
+            // lock so a resume() racing with this tick is not undone
+            synchronized (this) {
+                if (!vehicle.isRunnable()) park();
+            }
+        }
+
+        synchronized void schedule() {
+            if (future == null && vehicle.isRunnable()) {
+                due = System.nanoTime();
+                future = scheduler.scheduleAtFixedRate(this, 0, vehicle.getTickMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+
+        synchronized void park() {
+            if (future != null) {
+                future.cancel(false);
+                future = null;
+            }
+        }
+
+        synchronized boolean isScheduled() {
+            return future != null;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,9 @@
+package simulation;
+
+// Drives VehicleRunnable ticks; VehicleController delegates its lifecycle here.
+public interface SimulationEngine {
+    void start(VehicleRunnable r);
+    void pause(VehicleRunnable r);
+    void resume(VehicleRunnable r);
+    void stop(VehicleRunnable r);
+}
\ No newline at end of file
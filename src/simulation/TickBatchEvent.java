@@ -0,0 +1,53 @@
+package simulation;
+
+import jdk.jfr.*;
+
+// One JFR event per tick thread per batch window of SharedTickEngine ticks, rather than one per
+// tick: thousands of vehicles tick every second and the recording only needs to line batches up
+// against GC pauses and lock waits. Disabled unless a recording enables it (see fleet.jfc).
+@Name("fleet.TickBatch")
+@Label("Tick Batch")
+@Category({"Fleet Management", "Simulation"})
+@Description("Vehicle ticks run by one tick thread over a batch window")
+@Enabled(false)
+@StackTrace(false)
+final class TickBatchEvent extends Event {
+    static final long WINDOW_NANOS = 100_000_000L;
+
+    @Label("Ticks")
+    int ticks;
+
+    @Label("Parked")
+    @Description("Ticks after which the vehicle stopped, paused or ran out of fuel")
+    int parked;
+
+    @Label("Busy Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long busyTime;
+
+    @Label("Longest Tick")
+    @Timespan(Timespan.NANOSECONDS)
+    long maxTick;
+
+    @Label("Longest Delay")
+    @Description("Longest time a tick started after its fixed-rate schedule")
+    @Timespan(Timespan.NANOSECONDS)
+    long maxDelay;
+
+    private transient long opened;
+
+    // adds one tick; returns true when this batch's window is over and it has been committed
+    boolean add(long started, long delay, long elapsed, boolean parked) {
+        if (ticks++ == 0) {
+            opened = started;
+            begin();
+        }
+        if (parked) this.parked++;
+        busyTime += elapsed;
+        if (elapsed > maxTick) maxTick = elapsed;
+        if (delay > maxDelay) maxDelay = delay;
+        if (started + elapsed - opened < WINDOW_NANOS) return false;
+        commit();
+        return true;
+    }
+}
@@ -1,37 +1,50 @@
 package simulation;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import metrics.Metrics;
+import metrics.Timer;
 import vehicles.Vehicle;
 
 public class VehicleController {
     private final Vehicle vehicle;
     private final VehicleRunnable runnable;
-    private Future<?> future;
-    private final ExecutorService exec = Executors.newSingleThreadExecutor();
+    private final SimulationEngine engine;
+    private volatile long pausedAt; // PAUSE_TIME.start() at pause(), 0 while running or metrics are off
+
+    // how long vehicles stay paused, from pause() to resume()
+    private static final Timer PAUSE_TIME = Metrics.registry().timer("sim.pause");
 
     public VehicleController(Vehicle v, boolean useSafeCounter) {
-        this.vehicle = v;
-        this.runnable = new VehicleRunnable(v, useSafeCounter);
+        this(v, useSafeCounter, SharedTickEngine.shared());
+    }
+
+    public VehicleController(Vehicle v, boolean useSafeCounter, SimulationEngine engine) {
+        this(new VehicleRunnable(v, useSafeCounter), engine);
+    }
+
+    public VehicleController(VehicleRunnable runnable, SimulationEngine engine) {
+        this.vehicle = runnable.getVehicle();
+        this.runnable = runnable;
+        this.engine = engine;
     }
 
     public void start() {
-        future = exec.submit(runnable);
+        engine.start(runnable);
     }
 
     public void pause() {
-        runnable.requestPause();
+        engine.pause(runnable);
+        if (pausedAt == 0) pausedAt = PAUSE_TIME.start();
     }
 
     public void resume() {
-        runnable.requestResume();
+        long since = pausedAt;
+        pausedAt = 0;
+        PAUSE_TIME.stopSince(since);
+        engine.resume(runnable);
     }
 
     public void stop() {
-        runnable.requestStop();
-        if (future != null) future.cancel(true);
-        exec.shutdownNow();
+        engine.stop(runnable);
     }
 
     public boolean isPaused() { return runnable.isPaused(); }
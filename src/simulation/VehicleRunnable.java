@@ -3,24 +3,42 @@ package simulation;
 import vehicles.Vehicle;
 import interfaces.FuelConsumable;
 import exceptions.InsufficientFuelException;
+import java.util.concurrent.locks.Lock;
+import metrics.*;
 
+// One simulated vehicle. Each run()/tick() advances it by one step; the engine decides when
+// ticks happen, so nothing here sleeps or polls.
 public class VehicleRunnable implements Runnable {
+    private static final Timer TICK_TIME = Metrics.registry().timer("sim.tick", 16);
+    private static final Counter OUT_OF_FUEL = Metrics.registry().counter("sim.outOfFuel");
+
     private final Vehicle vehicle;
     private volatile boolean running = true;
     private volatile boolean paused = false;
-    private boolean useSafeCounter; // whether to call incrementSafe or incrementUnsafe
+    private volatile boolean useSafeCounter; // whether to call incrementSafe or incrementUnsafe
     private final int kmPerTick = 1;
-    private final int tickMillis = 1000;
+    private final int tickMillis;
+    private final CounterRegistry.Counter typeCounter;
 
     public VehicleRunnable(Vehicle v, boolean useSafeCounter) {
+        this(v, useSafeCounter, 1000);
+    }
+
+    public VehicleRunnable(Vehicle v, boolean useSafeCounter, int tickMillis) {
         this.vehicle = v;
         this.useSafeCounter = useSafeCounter;
+        this.tickMillis = tickMillis;
+        this.typeCounter = SharedHighwayCounter.counters().forType(v.getClass());
     }
 
     public void requestStop() { running = false; }
     public void requestPause() { paused = true; }
     public void requestResume() { paused = false; }
     public boolean isPaused() { return paused; }
+    public boolean isRunnable() { return running && !paused; }
+    public int getTickMillis() { return tickMillis; }
+    public int getKmPerTick() { return kmPerTick; }
+    public Vehicle getVehicle() { return vehicle; }
 
     public void setUseSafeCounter(boolean useSafeCounter) {
         this.useSafeCounter = useSafeCounter;
@@ -28,39 +46,42 @@ public class VehicleRunnable implements Runnable {
 
     @Override
     public void run() {
-        while (running) {
-            try {
-                // Respect pause
-                if (paused) {
-                    Thread.sleep(200);
-                    continue;
-                }
+        tick();
+    }
 
-                // Increment mileage by ~1 km
-                vehicle.setCurrentMileage(kmPerTick);
+    // advances one step; returns false when the vehicle should not be ticked again until resumed
+    public boolean tick() {
+        if (!running || paused) return false;
+        long t0 = TICK_TIME.start();
 
-                // consume fuel if vehicle supports it
-                if (vehicle instanceof FuelConsumable fc) {
-                    try {
-                        fc.consumeFuel(kmPerTick); // may throw InsufficientFuelException
-                    } catch (InsufficientFuelException e) {
-                        // mark paused/out-of-fuel by pausing
-                        paused = true;
-                    }
-                }
+        // mileage and fuel change together under the owning fleet's lock for this vehicle
+        Lock lock = vehicle.lockState();
+        try {
+            // Increment mileage by ~1 km
+            vehicle.setCurrentMileage(kmPerTick);
 
-                // increment shared highway counter (unsafe or safe)
-                if (useSafeCounter) {
-                    SharedHighwayCounter.incrementSafe(kmPerTick);
-                } else {
-                    SharedHighwayCounter.incrementUnsafe(kmPerTick);
+            // consume fuel if vehicle supports it
+            if (vehicle instanceof FuelConsumable fc) {
+                try {
+                    fc.consumeFuel(kmPerTick); // may throw InsufficientFuelException
+                } catch (InsufficientFuelException e) {
+                    // mark paused/out-of-fuel by pausing
+                    paused = true;
+                    OUT_OF_FUEL.increment();
                 }
-
-                Thread.sleep(tickMillis);
-            } catch (InterruptedException ie) {
-                Thread.currentThread().interrupt();
-                break;
             }
+        } finally {
+            if (lock != null) lock.unlock();
+        }
+
+        // increment shared highway counter (unsafe or safe)
+        if (useSafeCounter) {
+            SharedHighwayCounter.incrementSafe(kmPerTick);
+            typeCounter.add(kmPerTick);
+        } else {
+            SharedHighwayCounter.incrementUnsafe(kmPerTick);
         }
+        TICK_TIME.stopSince(t0);
+        return running && !paused;
     }
 }
\ No newline at end of file
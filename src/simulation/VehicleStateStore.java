@@ -0,0 +1,184 @@
+package simulation;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.Lock;
+import exceptions.InsufficientFuelException;
+import interfaces.CargoCarrier;
+import interfaces.FuelConsumable;
+import vehicles.Vehicle;
+
+// Simulation state for many vehicles kept in primitive columns indexed by slot, so a tick is a
+// flat pass over double[] arrays (split across cores) instead of a virtual call chain per vehicle.
+// The Vehicle objects are not touched while ticking; sync() writes the accumulated distance back
+// through setCurrentMileage/consumeFuel (firing the usual listeners) and reloads the columns.
+// Not thread-safe: advance() and sync() must not overlap with each other or with setActive().
+public class VehicleStateStore {
+    public static final byte PAUSED = 0, ACTIVE = 1, OUT_OF_FUEL = 2;
+
+    private static final int SPLIT = 16_384; // slots per fork-join leaf
+
+    private final Vehicle[] vehicles;
+    private final double[] mileage;
+    private final double[] fuel;
+    private final double[] efficiency;  // km per litre, as calculateFuelEfficiency() reported at the last sync
+    private final double[] litresPerKm; // 0 for vehicles that burn nothing
+    private final double[] cargo;
+    private final double[] pendingKm;   // moved since the last sync
+    private final byte[] state;
+    private final ForkJoinPool pool;
+
+    public VehicleStateStore(Collection<? extends Vehicle> fleet) {
+        this(fleet, ForkJoinPool.commonPool());
+    }
+
+    public VehicleStateStore(Collection<? extends Vehicle> fleet, ForkJoinPool pool) {
+        int n = fleet.size();
+        this.vehicles = fleet.toArray(new Vehicle[0]);
+        this.mileage = new double[n];
+        this.fuel = new double[n];
+        this.efficiency = new double[n];
+        this.litresPerKm = new double[n];
+        this.cargo = new double[n];
+        this.pendingKm = new double[n];
+        this.state = new byte[n];
+        this.pool = pool;
+        for (int i = 0; i < n; i++) {
+            load(i);
+            state[i] = fuel[i] > 0 || litresPerKm[i] == 0 ? ACTIVE : OUT_OF_FUEL;
+        }
+    }
+
+    public int size() { return vehicles.length; }
+    public Vehicle vehicleAt(int slot) { return vehicles[slot]; }
+    public double getMileage(int slot) { return mileage[slot]; }
+    public double getFuel(int slot) { return fuel[slot]; }
+    public double getEfficiency(int slot) { return efficiency[slot]; }
+    public double getCargo(int slot) { return cargo[slot]; }
+    public double getPendingKm(int slot) { return pendingKm[slot]; }
+    public byte getState(int slot) { return state[slot]; }
+
+    public void setActive(int slot, boolean active) {
+        state[slot] = active ? ACTIVE : PAUSED;
+    }
+
+    public int countInState(byte s) {
+        int n = 0;
+        for (byte b : state) {
+            if (b == s) n++;
+        }
+        return n;
+    }
+
+    // moves every active vehicle km once; returns the number of vehicle-ticks performed
+    public long advance(double km) {
+        return advance(km, 1);
+    }
+
+    // runs `ticks` ticks of km each; each leaf keeps its slots in cache for all of them
+    public long advance(double km, int ticks) {
+        if (km < 0 || ticks < 0) throw new IllegalArgumentException("Negative distance or tick count");
+        if (vehicles.length == 0 || ticks == 0) return 0;
+        return pool.invoke(new Advance(0, vehicles.length, km, ticks));
+    }
+
+    // writes pending distance and fuel back into the vehicles, then reloads all columns from them
+    // (picking up refuels, cargo changes and mileage edits made outside the store); returns the
+    // number of vehicles that were written to
+    public int sync() {
+        int written = 0;
+        for (int i = 0; i < vehicles.length; i++) {
+            double km = pendingKm[i];
+            if (km > 0) {
+                Vehicle v = vehicles[i];
+                Lock lock = v.lockState();
+                try {
+                    v.setCurrentMileage(km);
+                    if (v instanceof FuelConsumable fc && litresPerKm[i] > 0) {
+                        try {
+                            fc.consumeFuel(km);
+                        } catch (InsufficientFuelException e) {
+                            // per-tick subtraction in the column can round differently from one large
+                            // consumeFuel; the column said the fuel was there, so drain to empty
+                            drain(fc, efficiency[i]);
+                        }
+                    }
+                } finally {
+                    if (lock != null) lock.unlock();
+                }
+                pendingKm[i] = 0;
+                written++;
+            }
+            double before = fuel[i];
+            load(i);
+            if (state[i] == OUT_OF_FUEL && fuel[i] > before) state[i] = ACTIVE; // refuelled meanwhile
+        }
+        return written;
+    }
+
+    private void load(int i) {
+        Vehicle v = vehicles[i];
+        mileage[i] = v.getCurrentMileage();
+        double eff = v.calculateFuelEfficiency();
+        efficiency[i] = eff;
+        if (v instanceof FuelConsumable fc) {
+            fuel[i] = fc.getFuelLevel();
+            litresPerKm[i] = eff > 0 ? 1 / eff : 0;
+        } else {
+            fuel[i] = 0;
+            litresPerKm[i] = 0;
+        }
+        cargo[i] = v instanceof CargoCarrier cc ? cc.getCurrentCargo() : 0;
+    }
+
+    private static void drain(FuelConsumable fc, double eff) {
+        try {
+            fc.consumeFuel(fc.getFuelLevel() * eff * (1 - 1e-12));
+        } catch (InsufficientFuelException ignored) {
+            // nothing meaningful left to burn
+        }
+    }
+
+    private long advanceRange(int from, int to, double km, int ticks) {
+        long moved = 0;
+        for (int t = 0; t < ticks; t++) {
+            for (int i = from; i < to; i++) {
+                if (state[i] != ACTIVE) continue;
+                double left = fuel[i] - km * litresPerKm[i];
+                if (left < 0) {
+                    state[i] = OUT_OF_FUEL;
+                    continue;
+                }
+                fuel[i] = left;
+                mileage[i] += km;
+                pendingKm[i] += km;
+                moved++;
+            }
+        }
+        return moved;
+    }
+
+    private final class Advance extends RecursiveTask<Long> {
+        private final int from, to;
+        private final double km;
+        private final int ticks;
+
+        Advance(int from, int to, double km, int ticks) {
+            this.from = from;
+            this.to = to;
+            this.km = km;
+            this.ticks = ticks;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= SPLIT) return advanceRange(from, to, km, ticks);
+            int mid = (from + to) >>> 1;
+            Advance left = new Advance(from, mid, km, ticks);
+            left.fork();
+            long right = new Advance(mid, to, km, ticks).compute();
+            return right + left.join();
+        }
+    }
+}
\ No newline at end of file
@@ -2,6 +2,7 @@ package vehicles;
 
 import exceptions.*;
 import interfaces.*;
+import events.*;
 
 public class Airplane extends AirVehicle implements FuelConsumable, PassengerCarrier, CargoCarrier, Maintainable{
 
@@ -37,11 +38,13 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
             consumeFuel(distance);
         }
         catch(Exception e){
-            System.out.println(e.getMessage());
+            Events.publish(FleetEvent.Type.MOVE_ERROR, getId(), e.getMessage());
         }
 
         setCurrentMileage(distance);
-        System.out.println("Flying at: "+ getMaxAltitude());
+        if (Events.enabled()) {
+            Events.publish(FleetEvent.Type.MOVED, getId(), distance, "Flying at: "+ getMaxAltitude());
+        }
     };
 
     public double calculateFuelEfficiency(){
@@ -61,6 +64,7 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
         }
 
         fuelLevel+= amount;
+        stateChanged();
     };
 
     public double getFuelLevel(){
@@ -73,6 +77,7 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
             throw new InsufficientFuelException();
         }
         fuelLevel= newFuelLevel;
+        stateChanged();
         return newFuelLevel;
     };
 
@@ -84,6 +89,7 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
         }
 
         currentPassengers+= count;
+        stateChanged();
     }
 
     public void disembarkPassengers(int count) throws InvalidOperationException{
@@ -91,6 +97,7 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
             throw new InvalidOperationException("Not Enough Passengers!");
         }
         currentPassengers-= count;
+        stateChanged();
     }
     public int getPassengerCapacity(){
         return passengerCapacity;
@@ -107,6 +114,7 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
             throw new OverloadException();
         }
         currentCargo+= weight;
+        stateChanged();
 
     }
     public void unloadCargo(double weight) throws InvalidOperationException{
@@ -114,6 +122,7 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
             throw new InvalidOperationException("Can't Unload!");
         }
         currentCargo-= weight;
+        stateChanged();
     }
 
     public double getCargoCapacity(){
@@ -128,6 +137,7 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
 
     public void scheduleMaintenance(){
         maintenanceNeeded= true;
+        stateChanged();
     };
 
     public boolean needsMaintenance(){
@@ -136,7 +146,8 @@ public class Airplane extends AirVehicle implements FuelConsumable, PassengerCar
 
     public void performMaintenance(){
         maintenanceNeeded= false;
-        System.out.println("Maintenance Complete for vehicle:" + getId());
+        Events.publish(FleetEvent.Type.MAINTAINED, getId());
+        stateChanged();
     };
 
 }
\ No newline at end of file
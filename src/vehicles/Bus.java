@@ -2,6 +2,7 @@ package vehicles;
 
 import exceptions.*;
 import interfaces.*;
+import events.*;
 
 public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier, CargoCarrier, Maintainable {
 
@@ -41,11 +42,11 @@ public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier
             consumeFuel(distance);
         }
         catch(Exception e){
-            System.out.println(e.getMessage());
+            Events.publish(FleetEvent.Type.MOVE_ERROR, getId(), e.getMessage());
         }
 
         setCurrentMileage(distance);
-        System.out.println("Transporting Passengers and Cargo...");
+        Events.publish(FleetEvent.Type.MOVED, getId(), distance, "Transporting Passengers and Cargo...");
     }
 
     public double calculateFuelEfficiency(){
@@ -65,6 +66,7 @@ public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier
         }
 
         fuelLevel+= amount;
+        stateChanged();
     }
 
     public double getFuelLevel(){
@@ -77,6 +79,7 @@ public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier
             throw new InsufficientFuelException();
         }
         fuelLevel= newFuelLevel;
+        stateChanged();
         return newFuelLevel;
     }
 
@@ -88,6 +91,7 @@ public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier
         }
 
         currentPassengers+= count;
+        stateChanged();
     }
 
     public void disembarkPassengers(int count) throws InvalidOperationException{
@@ -95,6 +99,7 @@ public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier
             throw new InvalidOperationException("Not Enough Passengers!");
         }
         currentPassengers-= count;
+        stateChanged();
     }
     public int getPassengerCapacity(){
         return passengerCapacity;
@@ -111,6 +116,7 @@ public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier
             throw new OverloadException();
         }
         currentCargo+= weight;
+        stateChanged();
 
     }
     public void unloadCargo(double weight) throws InvalidOperationException{
@@ -118,6 +124,7 @@ public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier
             throw new InvalidOperationException("Can't Unload!");
         }
         currentCargo-= weight;
+        stateChanged();
     }
 
     public double getCargoCapacity(){
@@ -132,6 +139,7 @@ public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier
 
     public void scheduleMaintenance(){
         maintenanceNeeded= true;
+        stateChanged();
     }
 
     public boolean needsMaintenance(){
@@ -140,6 +148,7 @@ public class Bus extends LandVehicle implements FuelConsumable, PassengerCarrier
 
     public void performMaintenance(){
         maintenanceNeeded= false;
-        System.out.println("Maintenance Complete for vehicle:" + getId());
+        Events.publish(FleetEvent.Type.MAINTAINED, getId());
+        stateChanged();
     }
 }
\ No newline at end of file
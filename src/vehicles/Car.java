@@ -2,6 +2,7 @@ package vehicles;
 
 import exceptions.*;
 import interfaces.*;
+import events.*;
 
 public class Car extends LandVehicle implements FuelConsumable, PassengerCarrier, Maintainable{
     private double fuelLevel=0;
@@ -33,9 +34,9 @@ public class Car extends LandVehicle implements FuelConsumable, PassengerCarrier
             consumeFuel(distance);
         }
         catch(Exception e){
-            System.out.println(e.getMessage());
+            Events.publish(FleetEvent.Type.MOVE_ERROR, getId(), e.getMessage());
         }
-        System.out.println("Driving on road...");
+        Events.publish(FleetEvent.Type.MOVED, getId(), distance, "Driving on road...");
     }
 
     public double calculateFuelEfficiency(){
@@ -54,6 +55,7 @@ public class Car extends LandVehicle implements FuelConsumable, PassengerCarrier
             throw new InvalidOperationException("Negative Fuel Value");
         }
         fuelLevel+= amount;
+        stateChanged();
     }
 
     public double getFuelLevel(){
@@ -66,6 +68,7 @@ public class Car extends LandVehicle implements FuelConsumable, PassengerCarrier
             throw new InsufficientFuelException();
         }
         fuelLevel= newFuelLevel;
+        stateChanged();
         return newFuelLevel;
     }
 
@@ -77,6 +80,7 @@ public class Car extends LandVehicle implements FuelConsumable, PassengerCarrier
         }
 
         currentPassengers+= count;
+        stateChanged();
     }
 
     public void disembarkPassengers(int count) throws InvalidOperationException{
@@ -84,6 +88,7 @@ public class Car extends LandVehicle implements FuelConsumable, PassengerCarrier
             throw new InvalidOperationException("Not Enough Passengers!");
         }
         currentPassengers-= count;
+        stateChanged();
     }
     public int getPassengerCapacity(){
         return passengerCapacity;
@@ -97,6 +102,7 @@ public class Car extends LandVehicle implements FuelConsumable, PassengerCarrier
 
     public void scheduleMaintenance(){
         maintenanceNeeded= true;
+        stateChanged();
     }
 
     public boolean needsMaintenance(){
@@ -105,6 +111,7 @@ public class Car extends LandVehicle implements FuelConsumable, PassengerCarrier
 
     public void performMaintenance(){
         maintenanceNeeded= false;
-        System.out.println("Maintenance Complete for vehicle:" + getId());
+        Events.publish(FleetEvent.Type.MAINTAINED, getId());
+        stateChanged();
     }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package vehicles;
 
 import exceptions.*;
 import interfaces.*;
+import events.*;
 
 public class CargoShip extends WaterVehicle implements FuelConsumable, CargoCarrier, Maintainable{
     private double fuelLevel=0;
@@ -33,10 +34,10 @@ public class CargoShip extends WaterVehicle implements FuelConsumable, CargoCarr
             consumeFuel(distance);
         }
         catch(Exception e){
-            System.out.println(e.getMessage());
+            Events.publish(FleetEvent.Type.MOVE_ERROR, getId(), e.getMessage());
         }
         setCurrentMileage(distance);
-        System.out.println("Transporting Passengers and Cargo...");
+        Events.publish(FleetEvent.Type.MOVED, getId(), distance, "Transporting Passengers and Cargo...");
     };
 
     public double calculateFuelEfficiency(){
@@ -55,6 +56,7 @@ public class CargoShip extends WaterVehicle implements FuelConsumable, CargoCarr
             throw new OverloadException();
         }
         currentCargo+= weight;
+        stateChanged();
 
     }
     public void unloadCargo(double weight) throws InvalidOperationException{
@@ -62,6 +64,7 @@ public class CargoShip extends WaterVehicle implements FuelConsumable, CargoCarr
             throw new InvalidOperationException("Can't Unload!");
         }
         currentCargo-= weight;
+        stateChanged();
     }
 
     public double getCargoCapacity(){
@@ -76,6 +79,7 @@ public class CargoShip extends WaterVehicle implements FuelConsumable, CargoCarr
 
     public void scheduleMaintenance(){
         maintenanceNeeded= true;
+        stateChanged();
     };
 
     public boolean needsMaintenance(){
@@ -84,7 +88,8 @@ public class CargoShip extends WaterVehicle implements FuelConsumable, CargoCarr
 
     public void performMaintenance(){
         maintenanceNeeded= false;
-        System.out.println("Maintenance Complete for vehicle:" + getId());
+        Events.publish(FleetEvent.Type.MAINTAINED, getId());
+        stateChanged();
     };
 
     //FuelConsumable
@@ -96,6 +101,7 @@ public class CargoShip extends WaterVehicle implements FuelConsumable, CargoCarr
         }
 
         fuelLevel+= amount;
+        stateChanged();
     };
 
     public double getFuelLevel(){
@@ -110,6 +116,7 @@ public class CargoShip extends WaterVehicle implements FuelConsumable, CargoCarr
             throw new InsufficientFuelException();
         }
         fuelLevel= newFuelLevel;
+        stateChanged();
         return newFuelLevel;
     };
 }
@@ -2,6 +2,7 @@ package vehicles;
 
 import exceptions.*;
 import interfaces.*;
+import events.*;
 
 public class Truck extends LandVehicle implements FuelConsumable, CargoCarrier, Maintainable{
 
@@ -36,10 +37,10 @@ public class Truck extends LandVehicle implements FuelConsumable, CargoCarrier,
             consumeFuel(distance);
         }
         catch(Exception e){
-            System.out.println(e.getMessage());
+            Events.publish(FleetEvent.Type.MOVE_ERROR, getId(), e.getMessage());
         }
         setCurrentMileage(distance);
-        System.out.println("Hauling Cargo...");
+        Events.publish(FleetEvent.Type.MOVED, getId(), distance, "Hauling Cargo...");
     }
 
     public double calculateFuelEfficiency(){
@@ -62,6 +63,7 @@ public class Truck extends LandVehicle implements FuelConsumable, CargoCarrier,
         }
 
         fuelLevel+= amount;
+        stateChanged();
     }
 
     public double getFuelLevel(){
@@ -74,6 +76,7 @@ public class Truck extends LandVehicle implements FuelConsumable, CargoCarrier,
             throw new InsufficientFuelException();
         }
         fuelLevel= newFuelLevel;
+        stateChanged();
         return newFuelLevel;
     }
 
@@ -84,6 +87,7 @@ public class Truck extends LandVehicle implements FuelConsumable, CargoCarrier,
             throw new OverloadException();
         }
         currentCargo+= weight;
+        stateChanged();
 
     }
     public void unloadCargo(double weight) throws InvalidOperationException{
@@ -91,6 +95,7 @@ public class Truck extends LandVehicle implements FuelConsumable, CargoCarrier,
             throw new InvalidOperationException("Can't Unload!");
         }
         currentCargo-= weight;
+        stateChanged();
     }
 
     public double getCargoCapacity(){
@@ -105,6 +110,7 @@ public class Truck extends LandVehicle implements FuelConsumable, CargoCarrier,
 
     public void scheduleMaintenance(){
         maintenanceNeeded= true;
+        stateChanged();
     }
 
     public boolean needsMaintenance(){
@@ -113,7 +119,8 @@ public class Truck extends LandVehicle implements FuelConsumable, CargoCarrier,
 
     public void performMaintenance(){
         maintenanceNeeded= false;
-        System.out.println("Maintenance Complete for vehicle:" + getId());
+        Events.publish(FleetEvent.Type.MAINTAINED, getId());
+        stateChanged();
     }
 
 }
@@ -1,5 +1,6 @@
 package vehicles;
 
+import java.util.concurrent.locks.Lock;
 import exceptions.*;
 import interfaces.*;
 
@@ -9,6 +10,7 @@ public abstract class Vehicle implements Comparable<Vehicle> {
     private String model;
     private double maxSpeed;
     private double currentMileage;
+    private volatile VehicleListener listener; // owner notified after every state change
 
     Vehicle(String id, String model, double maxSpeed, double currentMileage) {
         this.id = id;
@@ -43,6 +45,34 @@ public abstract class Vehicle implements Comparable<Vehicle> {
 
     public void setCurrentMileage(double distance){
         currentMileage+=distance;
+        stateChanged();
+    }
+
+    public VehicleListener getListener(){
+        return listener;
+    }
+
+    public void setListener(VehicleListener listener){
+        this.listener= listener;
+    }
+
+    // acquires the lock the owner guards this vehicle's state with (a FleetManager id stripe), so
+    // a change made in several steps from another thread does not interleave with the owner's own
+    // changes; returns it for unlock(), or null when no owner takes a lock
+    public Lock lockState(){
+        while (true) {
+            VehicleListener l= listener;
+            Lock lock= l == null ? null : l.lockFor(this);
+            if (lock == null) return null;
+            lock.lock();
+            if (listener == l) return lock;
+            lock.unlock(); // moved to another owner meanwhile
+        }
+    }
+
+    void stateChanged(){
+        VehicleListener l= listener;
+        if (l != null) l.vehicleChanged(this);
     }
 
     @Override
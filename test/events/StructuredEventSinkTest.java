@@ -0,0 +1,29 @@
+package events;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringWriter;
+import org.junit.jupiter.api.*;
+
+class StructuredEventSinkTest {
+
+    @Test
+    void moveErrorWithoutMessageIsWrittenAndTheDrainerKeepsGoing() {
+        StringWriter out = new StringWriter();
+        RingBufferEventSink ring = new RingBufferEventSink(new StructuredEventSink(out));
+        try {
+            FleetEvent error = new FleetEvent(FleetEvent.Type.MOVE_ERROR, "C1", Double.NaN, null);
+            assertEquals("MOVE_ERROR", error.toString());
+            ring.publish(error);
+            ring.publish(new FleetEvent(FleetEvent.Type.MOVED, "C1", 5, "Driving on road..."));
+            ring.flush();
+        } finally {
+            ring.close();
+        }
+        String[] lines = out.toString().split("\n");
+        assertEquals(2, lines.length, out.toString());
+        assertTrue(lines[0].contains("\"type\":\"MOVE_ERROR\",\"vehicle\":\"C1\",\"message\":\"MOVE_ERROR\""), lines[0]);
+        assertFalse(lines[0].contains("detail"), lines[0]);
+        assertTrue(lines[1].contains("\"message\":\"Driving on road...\""), lines[1]);
+    }
+}
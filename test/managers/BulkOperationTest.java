@@ -0,0 +1,104 @@
+package managers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.*;
+import events.EventSink;
+import events.Events;
+import vehicles.*;
+
+class BulkOperationTest {
+    private static final int CARS = 10_000; // more than one fork-join leaf
+    private static EventSink previous;
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void setUp() {
+        previous = Events.setSink(null);
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        pool.shutdown();
+        Events.setSink(previous);
+    }
+
+    // every tenth car has an empty tank; the rest hold 10 L, 150 km at 15 km/L
+    private static FleetManager fleet() throws Exception {
+        FleetManager manager = new FleetManager();
+        for (int i = 0; i < CARS; i++) {
+            Car car = new Car("C" + i, "Sedan", 120, 4, i, 0, false);
+            if (i % 10 != 3) car.refuel(10);
+            manager.addVehicle(car);
+        }
+        return manager;
+    }
+
+    private static List<String> emptyTanks() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 3; i < CARS; i += 10) ids.add("C" + i);
+        return ids;
+    }
+
+    private static List<String> ids(BulkResult result) {
+        List<String> ids = new ArrayList<>();
+        for (BulkResult.Failure f : result.getFailures()) ids.add(f.getId());
+        return ids;
+    }
+
+    @Test
+    void journeysCountSuccessesAndFailuresInFleetOrder() throws Exception {
+        FleetManager manager = fleet();
+        BulkResult result = manager.startAllJourneysParallel(90, pool);
+
+        int ok = CARS - CARS / 10;
+        assertEquals("journeys", result.getOperation());
+        assertEquals(CARS, result.getVehicles());
+        assertEquals(ok, result.getSucceeded());
+        assertEquals(emptyTanks(), ids(result));
+        assertEquals(4, result.getParallelism());
+        assertEquals(ok * 90.0, result.getDistance(), 1e-6);
+        assertEquals(ok * 6.0, result.getFuelConsumed(), 1e-6);
+        assertEquals(ok * 4.0, result.getFuelRemaining(), 1e-6);
+
+        // the deferred mileage index is rebuilt before the call returns
+        assertEquals("C9999", manager.top(FleetManager.SortKey.MILEAGE, 1).get(0).getId());
+        List<String> stayed = new ArrayList<>();
+        for (Vehicle v : manager.range(FleetManager.SortKey.MILEAGE, 0, 89.5)) stayed.add(v.getId());
+        assertEquals(emptyTanks().subList(0, 9), stayed); // C3..C83; every car that drove is past 90
+        assertEquals(CARS * (CARS - 1) / 2.0 + ok * 90.0, manager.getTotalMileage(), 1e-6);
+    }
+
+    @Test
+    void fuelRunFailsVehiclesThatRunDry() throws Exception {
+        FleetManager manager = fleet();
+        manager.withVehicle("C0", v -> ((Car) v).consumeFuel(100)); // 10 L - 6.67 L: too little for 60 km
+        BulkResult result = manager.consumeFuelParallel(60, pool);
+
+        List<String> failed = emptyTanks();
+        failed.add(0, "C0");
+        assertEquals(CARS, result.getVehicles());
+        assertEquals(CARS - failed.size(), result.getSucceeded());
+        assertEquals(failed, ids(result));
+        assertTrue(result.getFailures().get(0).getMessage().startsWith("cannot complete this journey"));
+        assertEquals(0, result.getDistance());
+        assertEquals((CARS - failed.size()) * 4.0, result.getFuelConsumed(), 1e-6);
+        assertEquals(10 - 100 / 15.0, ((Car) manager.getById("C0")).getFuelLevel(), 1e-12);
+        assertEquals(0, manager.getById("C0").getCurrentMileage()); // fuel runs do not move
+    }
+
+    @Test
+    void serialAndParallelRunsAgree() throws Exception {
+        FleetManager serial = fleet();
+        FleetManager parallel = fleet();
+        double remaining = serial.getTotalFuelConsumption(45); // the serial loop sums what is left
+        BulkResult result = parallel.consumeFuelParallel(45, pool);
+        assertEquals(remaining, result.getFuelRemaining(), 1e-6);
+        for (Vehicle v : serial.getFleet()) {
+            assertEquals(((Car) v).getFuelLevel(), ((Car) parallel.getById(v.getId())).getFuelLevel());
+        }
+    }
+}
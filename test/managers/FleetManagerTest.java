@@ -0,0 +1,92 @@
+package managers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.*;
+import events.EventSink;
+import events.Events;
+import vehicles.Car;
+
+class FleetManagerTest {
+    private static EventSink previous;
+
+    @BeforeAll
+    static void quiet() {
+        previous = Events.setSink(null);
+    }
+
+    @AfterAll
+    static void restore() {
+        Events.setSink(previous);
+    }
+
+    @Test
+    void maintenanceListKeepsFleetOrder() throws Exception {
+        FleetManager manager = new FleetManager();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            String id = "M" + (i * 7919 % 1000); // ids out of hash and lexical order
+            boolean due = i % 3 == 0;
+            manager.addVehicle(new Car(id, "Sedan", 120, 4, due ? 12_000 : 100, 0, false));
+            if (due) expected.add(id);
+        }
+        manager.remove(expected.remove(10));
+        assertEquals(expected, manager.getVehiclesNeedingMaintenance());
+    }
+
+    @Test
+    void mileageQueriesSeeChangesMadeSinceTheLastQuery() throws Exception {
+        FleetManager manager = new FleetManager();
+        for (int i = 0; i < 100; i++) manager.addVehicle(new Car("C" + i, "Sedan", 120, 4, i, 0, false));
+        assertEquals("C99", manager.top(FleetManager.SortKey.MILEAGE, 1).get(0).getId());
+
+        manager.withVehicle("C5", v -> v.setCurrentMileage(1_000));
+        manager.withVehicle("C7", v -> v.setCurrentMileage(500));
+        manager.remove("C99");
+        List<String> top = new ArrayList<>();
+        for (vehicles.Vehicle v : manager.top(FleetManager.SortKey.MILEAGE, 3)) top.add(v.getId());
+        assertEquals(List.of("C5", "C7", "C98"), top);
+        assertEquals(99, manager.countInRange(FleetManager.SortKey.MILEAGE, 0, 2_000));
+        assertEquals("C5", manager.getSorted(FleetManager.SortKey.MILEAGE).get(98).getId());
+    }
+
+    // car c has mileage c + 1000 * (times moved); the mover moves C0..C99 in turn, so once p moves
+    // are published every car has at least 1000 * (p / 100) and the first p % 100 one round more
+    @Test
+    void concurrentQueriesSeeEveryPublishedMove() throws Exception {
+        FleetManager manager = new FleetManager();
+        for (int i = 0; i < 100; i++) manager.addVehicle(new Car("C" + i, "Sedan", 120, 4, i, 0, false));
+        int moves = 20_000;
+        AtomicInteger published = new AtomicInteger();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Runnable reader = () -> {
+            try {
+                while (published.get() < moves && failure.get() == null) {
+                    int p = published.get();
+                    double floor = 1000.0 * (p / 100);
+                    assertTrue(manager.range(FleetManager.SortKey.MILEAGE, 0, floor - 1).isEmpty(),
+                            "a car below " + floor + " after " + p + " moves");
+                    int ahead = manager.countInRange(FleetManager.SortKey.MILEAGE, floor + 1000, Double.MAX_VALUE);
+                    assertTrue(ahead >= p % 100, ahead + " cars a round ahead after " + p + " moves");
+                    List<vehicles.Vehicle> top = manager.top(FleetManager.SortKey.MILEAGE, 1);
+                    assertTrue(top.get(0).getCurrentMileage() >= floor + (p % 100 == 0 ? 99 : 1000));
+                }
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            }
+        };
+        Thread[] readers = {new Thread(reader), new Thread(reader)};
+        for (Thread t : readers) t.start();
+        for (int j = 0; j < moves && failure.get() == null; j++) {
+            manager.withVehicle("C" + (j % 100), v -> v.setCurrentMileage(1_000));
+            published.incrementAndGet();
+        }
+        published.set(moves);
+        for (Thread t : readers) t.join();
+        if (failure.get() != null) fail(failure.get());
+    }
+}
@@ -0,0 +1,80 @@
+package managers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.*;
+import events.EventSink;
+import events.Events;
+import interfaces.*;
+import loadtest.FleetGenerator;
+import managers.FleetManager.SortKey;
+import vehicles.*;
+
+class FleetQueryTest {
+    private static EventSink previous;
+    private static FleetManager manager;
+
+    @BeforeAll
+    static void fleet() throws Exception {
+        previous = Events.setSink(null);
+        manager = new FleetManager();
+        for (Vehicle v : new FleetGenerator(18, FleetGenerator.Mix.UNIFORM).generate(5_000)) manager.addVehicle(v);
+        for (int i = 0; i < 3; i++) manager.addVehicle(new Truck("R" + i, "Rare", 70 + i, 6, 100 * i, 4_000, false));
+        manager.remove(manager.getFleet().get(17).getId());
+    }
+
+    @AfterAll
+    static void restore() {
+        Events.setSink(previous);
+    }
+
+    // what the query should return: a filtered pass in fleet order, then a stable sort
+    private static List<String> expected(Predicate<Vehicle> test, Comparator<Vehicle> order, int limit) {
+        List<Vehicle> rows = manager.getFleet().stream().filter(test).collect(Collectors.toCollection(ArrayList::new));
+        if (order != null) rows.sort(order);
+        assertFalse(rows.isEmpty(), "every test query should match something");
+        return rows.stream().limit(limit).map(Vehicle::getId).collect(Collectors.toList());
+    }
+
+    private static String plan(FleetQuery q) {
+        String explain = q.explain();
+        return explain.lines().filter(l -> l.startsWith("plan: ")).findFirst().orElseThrow();
+    }
+
+    @Test
+    void selectiveConditionsDriveTheQueryFromTheirIndex() {
+        assertTrue(plan(manager.query().model("Rare").where(v -> v.getMaxSpeed() > 70)).startsWith("plan: model index"));
+        assertTrue(plan(manager.query().between(SortKey.SPEED, 70.5, 71.5).ofType(LandVehicle.class))
+                .startsWith("plan: range index"));
+        assertTrue(plan(manager.query().orderByDescending(SortKey.MILEAGE).limit(5)).startsWith("plan: ordered index walk"));
+        assertTrue(plan(manager.query().ofType(Airplane.class).model("Rare")).startsWith("plan: model index"));
+        assertTrue(plan(manager.query().where(v -> v.getId().endsWith("7"))).startsWith("plan: full scan"));
+    }
+
+    @Test
+    void everyPlanReturnsWhatAScanWould() {
+        assertEquals(expected(v -> v.getModel().equals("Rare") && v.getMaxSpeed() > 70, null, Integer.MAX_VALUE),
+                manager.query().model("Rare").where(v -> v.getMaxSpeed() > 70).ids());
+        assertEquals(List.of("R1", "R2"), manager.query().model("Rare").where(v -> v.getMaxSpeed() > 70).ids());
+
+        Predicate<Vehicle> heavyLand = v -> v instanceof LandVehicle && v instanceof CargoCarrier c
+                && c.getCurrentCargo() > 1_000 && v.getCurrentMileage() >= 2_000 && v.getCurrentMileage() <= 8_000;
+        assertEquals(expected(heavyLand, Comparator.comparingDouble(Vehicle::getMaxSpeed).reversed(), 20),
+                manager.query().ofType(LandVehicle.class).where(CargoCarrier.class, c -> c.getCurrentCargo() > 1_000)
+                        .between(SortKey.MILEAGE, 2_000, 8_000).orderByDescending(SortKey.SPEED).limit(20).ids());
+
+        assertEquals(expected(v -> true, Comparator.comparingDouble(Vehicle::getCurrentMileage), 15),
+                manager.query().orderBy(SortKey.MILEAGE).limit(15).ids());
+        assertEquals(expected(v -> v.getMaxSpeed() >= 100 && v.getMaxSpeed() <= 200, null, Integer.MAX_VALUE),
+                manager.query().between(SortKey.SPEED, 100, 200).ids());
+        assertEquals(expected(v -> v instanceof Maintainable m && m.needsMaintenance(), null, 10),
+                manager.query().needingMaintenance().limit(10).ids());
+        assertEquals(expected(v -> v instanceof PassengerCarrier, Comparator.comparing(Vehicle::getModel), Integer.MAX_VALUE),
+                manager.query().ofType(PassengerCarrier.class).orderBy(SortKey.MODEL).ids());
+        assertEquals(expected(v -> v.getId().endsWith("7"), null, Integer.MAX_VALUE).size(),
+                manager.query().where(v -> v.getId().endsWith("7")).count());
+    }
+}
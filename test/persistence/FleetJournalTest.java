@@ -0,0 +1,133 @@
+package persistence;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import events.EventSink;
+import events.Events;
+import interfaces.FuelConsumable;
+import managers.FleetManager;
+import vehicles.*;
+
+class FleetJournalTest {
+    private static EventSink previous;
+
+    @BeforeAll
+    static void quiet() {
+        previous = Events.setSink(null);
+    }
+
+    @AfterAll
+    static void restore() {
+        Events.setSink(previous);
+    }
+
+    // adds, in-place updates and a remove as the last record
+    private static FleetManager journaled(String base) throws Exception {
+        FleetManager manager = new FleetManager();
+        manager.openJournal(base);
+        for (int i = 0; i < 10; i++) manager.addVehicle(new Car("C" + i, "Sedan", 120, 4, i * 10, 2, false));
+        manager.addVehicle(new Truck("T1", "Hauler", 90, 6, 500, 1_000, false));
+        manager.addVehicle(new CargoShip("S1", "Clipper", 30, 40, true, 2_000, false));
+        manager.withVehicle("C3", v -> v.setCurrentMileage(250.125));
+        manager.withVehicle("C4", v -> ((FuelConsumable) v).refuel(75.5));
+        manager.withVehicle("T1", v -> v.setCurrentMileage(0.1));
+        manager.remove("C5");
+        return manager;
+    }
+
+    private static List<Vehicle> recover(String base) throws Exception {
+        List<Vehicle> recovered = new ArrayList<>();
+        FleetJournal.recover(base, recovered::add);
+        return recovered;
+    }
+
+    private static void assertSameFleet(List<Vehicle> expected, List<Vehicle> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(VehicleCsv.toCSV(expected.get(i)), VehicleCsv.toCSV(actual.get(i)));
+            assertEquals(expected.get(i).getCurrentMileage(), actual.get(i).getCurrentMileage());
+        }
+    }
+
+    @Test
+    void replayRestoresAddsUpdatesAndRemoves(@TempDir Path dir) throws Exception {
+        String base = dir.resolve("fleet").toString();
+        FleetManager manager = journaled(base);
+        manager.closeJournal();
+
+        List<Vehicle> recovered = new ArrayList<>();
+        RecoveryResult result = FleetJournal.recover(base, recovered::add);
+        assertEquals(0, result.getGeneration());
+        assertEquals(0, result.getSnapshotVehicles());
+        assertTrue(result.getReplayedRecords() >= 16, "replayed " + result.getReplayedRecords());
+        assertEquals(0, result.getTruncatedBytes());
+        assertSameFleet(manager.getFleet(), recovered);
+        assertNull(manager.getById("C5"));
+    }
+
+    @Test
+    void tornTailIsCutOff(@TempDir Path dir) throws Exception {
+        String base = dir.resolve("fleet").toString();
+        FleetManager manager = journaled(base);
+        manager.closeJournal();
+        Path journal = FleetJournal.journalPath(base);
+        long intact = Files.size(journal);
+        Files.write(journal, new byte[]{0, 0, 0, 40, 1}, StandardOpenOption.APPEND); // length, no payload
+
+        List<Vehicle> recovered = new ArrayList<>();
+        RecoveryResult result = FleetJournal.recover(base, recovered::add);
+        assertEquals(5, result.getTruncatedBytes());
+        assertEquals(intact, Files.size(journal));
+        assertSameFleet(manager.getFleet(), recovered);
+    }
+
+    @Test
+    void recordWithBadChecksumIsCutOff(@TempDir Path dir) throws Exception {
+        String base = dir.resolve("fleet").toString();
+        journaled(base).closeJournal();
+        Path journal = FleetJournal.journalPath(base);
+        long size = Files.size(journal);
+        try (FileChannel c = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+            c.write(ByteBuffer.wrap(new byte[]{'X'}), size - 1); // last byte of the REMOVE of "C5"
+        }
+
+        List<Vehicle> recovered = new ArrayList<>();
+        RecoveryResult result = FleetJournal.recover(base, recovered::add);
+        assertEquals(8 + 1 + 4 + 2, result.getTruncatedBytes());
+        assertEquals(size - 15, Files.size(journal));
+        assertTrue(recovered.stream().anyMatch(v -> v.getId().equals("C5")));
+        assertEquals(0, FleetJournal.recover(base, v -> { }).getTruncatedBytes());
+    }
+
+    @Test
+    void recoveryAfterCompactionUsesTheNewGeneration(@TempDir Path dir) throws Exception {
+        String base = dir.resolve("fleet").toString();
+        FleetManager manager = journaled(base);
+        manager.compactJournal();
+        assertEquals(1, manager.getJournal().getGeneration());
+        manager.withVehicle("C0", v -> v.setCurrentMileage(1e-3));
+        manager.addVehicle(new Bus("B1", "City", 80, 6, 12.5, 30, 100, false));
+        manager.remove("C9");
+        manager.closeJournal();
+
+        assertTrue(Files.exists(FleetJournal.snapshotPath(base, 1)));
+        assertFalse(Files.exists(FleetJournal.snapshotPath(base, 0)));
+        List<Vehicle> recovered = new ArrayList<>();
+        RecoveryResult result = FleetJournal.recover(base, recovered::add);
+        assertEquals(1, result.getGeneration());
+        assertEquals(11, result.getSnapshotVehicles());
+        assertEquals(3, result.getReplayedRecords());
+        assertSameFleet(manager.getFleet(), recovered);
+
+        FleetManager reopened = new FleetManager();
+        reopened.openJournal(base);
+        assertSameFleet(manager.getFleet(), reopened.getFleet());
+        reopened.closeJournal();
+    }
+}
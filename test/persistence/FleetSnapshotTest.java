@@ -0,0 +1,104 @@
+package persistence;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import events.EventSink;
+import events.Events;
+import interfaces.FuelConsumable;
+import interfaces.Maintainable;
+import vehicles.*;
+
+class FleetSnapshotTest {
+    private static EventSink previous;
+
+    @BeforeAll
+    static void quiet() {
+        previous = Events.setSink(null);
+    }
+
+    @AfterAll
+    static void restore() {
+        Events.setSink(previous);
+    }
+
+    // every field the snapshot stores, doubles as raw bits so -0.0 and the last ulp count
+    private static List<Object> fields(Vehicle v) {
+        List<Object> f = new ArrayList<>(List.of(v.getClass(), v.getId(), v.getModel(),
+                bits(v.getMaxSpeed()), bits(v.getCurrentMileage())));
+        if (v instanceof Car c) {
+            f.addAll(List.of(c.getNumWheels(), c.getCurrentPassengers()));
+        } else if (v instanceof Bus b) {
+            f.addAll(List.of(b.getNumWheels(), b.getCurrentPassengers(), bits(b.getCurrentCargo())));
+        } else if (v instanceof Truck t) {
+            f.addAll(List.of(t.getNumWheels(), bits(t.getCurrentCargo())));
+        } else if (v instanceof Airplane a) {
+            f.addAll(List.of(bits(a.getMaxAltitude()), a.getCurrentPassengers(), bits(a.getCurrentCargo())));
+        } else if (v instanceof CargoShip s) {
+            f.addAll(List.of(s.getSail(), bits(s.getCurrentCargo())));
+        }
+        f.add(((Maintainable) v).needsMaintenance());
+        f.add(bits(((FuelConsumable) v).getFuelLevel()));
+        return f;
+    }
+
+    private static long bits(double d) {
+        return Double.doubleToRawLongBits(d);
+    }
+
+    private static List<Vehicle> fleet() throws Exception {
+        List<Vehicle> fleet = new ArrayList<>();
+        Car car = new Car("car-1", "Sedan", 0.1 + 0.2, 4, 1e-300, 3, true);
+        car.refuel(1.0 / 3);
+        fleet.add(car);
+        Bus bus = new Bus("bus-1", "Städtbus", Math.PI * 1e7, 6, 12_345.678901234567, 49, Double.MIN_VALUE, false);
+        bus.refuel(Math.nextUp(1.0));
+        fleet.add(bus);
+        Truck truck = new Truck("truck-1", "Hauler", 2.0 / 3, 18, -0.0, 4_999.999999999999, true);
+        truck.refuel(0.7);
+        fleet.add(truck);
+        Airplane plane = new Airplane("plane-1", "Jet", 900.0000000000001, 1e15 + 0.5, 12_000.1, 199, 9_999.99, false);
+        plane.refuel(Double.MAX_VALUE / 4);
+        fleet.add(plane);
+        fleet.add(new CargoShip("ship-sail", "Clipper", 30.3, 0.30000000000000004, true, 1.1, false));
+        CargoShip motor = new CargoShip("ship-motor", "Sedan", 25, 7.77, false, 4_999.5, true); // model shared with car-1
+        motor.refuel(1e-9);
+        fleet.add(motor);
+        return fleet;
+    }
+
+    @Test
+    void roundTripIsBitExact(@TempDir Path dir) throws Exception {
+        List<Vehicle> written = fleet();
+        Path file = dir.resolve("fleet.snap");
+        assertEquals(written.size(), new FleetSnapshot().write(file, written));
+
+        List<Vehicle> read = new ArrayList<>();
+        LoadResult result = new FleetSnapshot().read(file, read::add);
+        assertEquals(written.size(), result.getLoaded());
+        assertTrue(result.getErrors().isEmpty());
+        assertEquals(written.size(), read.size());
+        for (int i = 0; i < written.size(); i++) {
+            assertEquals(fields(written.get(i)), fields(read.get(i)), written.get(i).getId());
+        }
+    }
+
+    @Test
+    void otherVersionsAreRejected(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("fleet.snap");
+        new FleetSnapshot().write(file, fleet());
+        for (short version : new short[]{0, -1, FleetSnapshot.VERSION + 1}) {
+            try (FileChannel c = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                c.write(ByteBuffer.allocate(2).putShort(0, version), 4);
+            }
+            Exception e = assertThrows(IOException.class, () -> new FleetSnapshot().read(file, v -> { }));
+            assertTrue(e.getMessage().contains("version " + version), e.getMessage());
+        }
+    }
+}
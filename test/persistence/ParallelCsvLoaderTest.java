@@ -0,0 +1,91 @@
+package persistence;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import events.EventSink;
+import events.Events;
+import exceptions.InvalidOperationException;
+import loadtest.FleetGenerator;
+import vehicles.Vehicle;
+
+class ParallelCsvLoaderTest {
+    private static EventSink previous;
+
+    @BeforeAll
+    static void quiet() {
+        previous = Events.setSink(null);
+    }
+
+    @AfterAll
+    static void restore() {
+        Events.setSink(previous);
+    }
+
+    // first occurrence of an id wins, like FleetManager's loads
+    private static class Fleet implements CsvFleetReader.VehicleSink {
+        final LinkedHashMap<String, Vehicle> vehicles = new LinkedHashMap<>();
+
+        @Override
+        public void accept(Vehicle v) throws InvalidOperationException {
+            if (vehicles.putIfAbsent(v.getId(), v) != null) throw new InvalidOperationException("Duplicate id " + v.getId());
+        }
+    }
+
+    // ~4 MB: several 1 MB chunks on a 4-thread pool, with duplicates of early rows scattered
+    // through later chunks, bad rows, blank lines and CRLF endings
+    private static Path file(Path dir) throws Exception {
+        List<Vehicle> generated = new FleetGenerator(5, FleetGenerator.Mix.UNIFORM).generate(60_000);
+        StringBuilder csv = new StringBuilder();
+        Random random = new Random(5);
+        for (int i = 0; i < generated.size(); i++) {
+            csv.append(VehicleCsv.toCSV(generated.get(i))).append(i % 7 == 0 ? "\r\n" : "\n");
+            if (i % 997 == 0) csv.append(VehicleCsv.toCSV(generated.get(random.nextInt(i + 1)))).append('\n');
+            if (i % 4_001 == 0) csv.append("Car,broken,row\n");
+            if (i % 5_003 == 0) csv.append("Boat,B").append(i).append(",x,1,2\n");
+            if (i % 3_001 == 0) csv.append('\n');
+        }
+        csv.append(VehicleCsv.toCSV(generated.get(0))); // last line without a newline
+        Path file = dir.resolve("fleet.csv");
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+        assertTrue(Files.size(file) > 3 << 20);
+        return file;
+    }
+
+    @Test
+    void parallelLoadMatchesSequentialLoad(@TempDir Path dir) throws Exception {
+        Path file = file(dir);
+        Fleet sequential = new Fleet();
+        LoadResult expected;
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            expected = new CsvFleetReader().read(in, sequential);
+        }
+        Fleet parallel = new Fleet();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        LoadResult actual;
+        try {
+            actual = new ParallelCsvLoader(pool).load(file, parallel);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(expected.getRows(), actual.getRows());
+        assertEquals(expected.getLoaded(), actual.getLoaded());
+        assertEquals(new ArrayList<>(sequential.vehicles.keySet()), new ArrayList<>(parallel.vehicles.keySet()));
+        assertEquals(expected.getErrors().size(), actual.getErrors().size());
+        assertTrue(expected.getErrors().stream().anyMatch(e -> e.getMessage().startsWith("Duplicate id")));
+        for (int i = 0; i < expected.getErrors().size(); i++) {
+            RowError e = expected.getErrors().get(i);
+            RowError a = actual.getErrors().get(i);
+            assertEquals(e.getLine(), a.getLine());
+            assertEquals(e.getMessage(), a.getMessage());
+            assertEquals(e.getText(), a.getText());
+        }
+    }
+}
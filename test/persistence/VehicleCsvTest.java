@@ -0,0 +1,68 @@
+package persistence;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import events.EventSink;
+import events.Events;
+import loadtest.FleetGenerator;
+import managers.FleetManager;
+import vehicles.Vehicle;
+
+class VehicleCsvTest {
+    private static EventSink previous;
+
+    @BeforeAll
+    static void quiet() {
+        previous = Events.setSink(null);
+    }
+
+    @AfterAll
+    static void restore() {
+        Events.setSink(previous);
+    }
+
+    @Test
+    void appendFixed2MatchesFormatOnHalfCents() {
+        double[] values = {1.005, 544.555, -1.005, 9.995, 0.005, -0.005, 0.125, 4.35, 0.045,
+                0.0, -0.0, -0.001, 1e15, 123456789012.345, -1e20, Double.MIN_VALUE, Double.MAX_VALUE};
+        for (double v : values) assertFixed2(v);
+    }
+
+    @Test
+    void appendFixed2MatchesFormatOnRandomValues() {
+        Random random = new Random(6);
+        for (int i = 0; i < 500_000; i++) {
+            assertFixed2(Math.round(random.nextDouble() * 1e6) / 1000.0);      // 3 decimals, as typed in
+            assertFixed2((random.nextLong() % 100_000_000) / 1000.0);          // signed
+            assertFixed2(random.nextDouble() * 10_000);                        // mileage and fuel range
+            assertFixed2(Double.longBitsToDouble(random.nextLong()));          // any double
+        }
+    }
+
+    @Test
+    void savedFleetReloadsUnchanged(@TempDir Path dir) throws Exception {
+        FleetManager saved = new FleetManager();
+        for (Vehicle v : new FleetGenerator(6, FleetGenerator.Mix.UNIFORM).generate(20_000)) saved.addVehicle(v);
+        String file = dir.resolve("fleet.csv").toString();
+        saved.saveToFile(file);
+
+        FleetManager loaded = new FleetManager();
+        LoadResult result = loaded.loadFromFile(file);
+        assertEquals(20_000, result.getLoaded());
+        assertTrue(result.getErrors().isEmpty());
+        for (Vehicle v : saved.getFleet()) {
+            Vehicle back = loaded.getById(v.getId());
+            assertNotNull(back, v.getId());
+            assertEquals(VehicleCsv.toCSV(v), VehicleCsv.toCSV(back));
+        }
+    }
+
+    private static void assertFixed2(double v) {
+        assertEquals(String.format(Locale.ROOT, "%.2f", v),
+                VehicleCsv.appendFixed2(new StringBuilder(), v).toString(), () -> Double.toString(v));
+    }
+}
@@ -0,0 +1,112 @@
+package server;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.*;
+import java.net.http.HttpResponse.BodyHandlers;
+import org.junit.jupiter.api.*;
+import events.EventSink;
+import events.Events;
+import managers.FleetManager;
+import vehicles.Car;
+
+class FleetHttpServerTest {
+    private static EventSink previous;
+
+    private FleetManager manager;
+    private FleetHttpServer server;
+    private HttpClient client;
+
+    @BeforeAll
+    static void quiet() {
+        previous = Events.setSink(null);
+    }
+
+    @AfterAll
+    static void restore() {
+        Events.setSink(previous);
+    }
+
+    @BeforeEach
+    void start() throws Exception {
+        manager = new FleetManager();
+        for (int i = 0; i < 5; i++) {
+            Car car = new Car("C" + i, "Sedan", 120, 4, i * 10, 0, false);
+            car.refuel(50);
+            manager.addVehicle(car);
+        }
+        server = new FleetHttpServer(new CommandInterpreter(manager), 0);
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop();
+    }
+
+    private HttpResponse<String> get(String path, String ifNoneMatch) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(server.getAddress() + path));
+        if (ifNoneMatch != null) request.header("If-None-Match", ifNoneMatch);
+        return client.send(request.GET().build(), BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(server.getAddress() + path))
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        return client.send(request, BodyHandlers.ofString());
+    }
+
+    private static String etag(HttpResponse<?> response) {
+        return response.headers().firstValue("ETag").orElseThrow();
+    }
+
+    @Test
+    void matchingTagGetsNotModified() throws Exception {
+        HttpResponse<String> first = get("report", null);
+        assertEquals(200, first.statusCode());
+        assertTrue(first.body().contains("\"vehicles\":5"), first.body());
+        String tag = etag(first);
+
+        HttpResponse<String> again = get("report", tag);
+        assertEquals(304, again.statusCode());
+        assertEquals(tag, etag(again));
+        assertTrue(again.body().isEmpty());
+
+        assertEquals(200, get("report", "\"stale\"").statusCode());
+        assertEquals(304, get("vehicles/C1", tag).statusCode());
+    }
+
+    @Test
+    void everyMutationChangesTheTag() throws Exception {
+        String tag = etag(get("report", null));
+
+        assertEquals(200, post("vehicles/C1/move?km=3", "").statusCode());
+        HttpResponse<String> moved = get("report", tag);
+        assertEquals(200, moved.statusCode());
+        assertNotEquals(tag, etag(moved));
+        tag = etag(moved);
+
+        assertEquals(201, post("vehicles", "Car,C9,Sedan,120,4,0,0,false,0").statusCode());
+        HttpResponse<String> added = get("report", tag);
+        assertEquals(200, added.statusCode());
+        assertTrue(added.body().contains("\"vehicles\":6"), added.body());
+        assertNotEquals(tag, etag(added));
+        tag = etag(added);
+
+        manager.withVehicle("C2", v -> v.move(1)); // changes made outside HTTP count too
+        HttpResponse<String> changed = get("report", tag);
+        assertEquals(200, changed.statusCode());
+        assertNotEquals(tag, etag(changed));
+        assertEquals(304, get("report", etag(changed)).statusCode());
+    }
+
+    @Test
+    void failedMutationKeepsTheTag() throws Exception {
+        String tag = etag(get("report", null));
+        assertEquals(404, post("vehicles/nope/move?km=3", "").statusCode());
+        assertEquals(400, post("vehicles/C1/move?km=100000", "").statusCode());
+        assertEquals(304, get("report", tag).statusCode());
+    }
+}
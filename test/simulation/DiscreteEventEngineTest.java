@@ -0,0 +1,91 @@
+package simulation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.*;
+import events.EventSink;
+import events.Events;
+import interfaces.FuelConsumable;
+import simulation.DiscreteEventEngine.EventType;
+import vehicles.*;
+
+class DiscreteEventEngineTest {
+    private static EventSink previous;
+
+    @BeforeAll
+    static void quiet() {
+        previous = Events.setSink(null);
+    }
+
+    @AfterAll
+    static void restore() {
+        Events.setSink(previous);
+    }
+
+    // one line per dispatched event plus the fleet's final state, from a fresh fleet and engine
+    private static List<String> trace(long seed) throws Exception {
+        List<Vehicle> fleet = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            String id = "V" + i;
+            Vehicle v;
+            switch (i % 3) {
+                case 0: v = new Car(id, "Sim", 120, 4, i * 7, 0, false); break;
+                case 1: v = new Truck(id, "Sim", 90, 6, i * 7, 0, false); break;
+                default: v = new Bus(id, "Sim", 80, 6, i * 7, 0, 0, false); break;
+            }
+            ((FuelConsumable) v).refuel(1 + i % 4); // some run dry within the run
+            fleet.add(v);
+        }
+
+        DiscreteEventEngine engine = new DiscreteEventEngine(seed);
+        engine.setMaintenance(50, 5_000);
+        engine.setAutoRefuel(3_000, 1, 5);
+        List<String> trace = new ArrayList<>();
+        engine.setObserver((time, type, v) -> trace.add(time + " " + type + " " + v.getId() + " "
+                + v.getCurrentMileage() + " " + ((FuelConsumable) v).getFuelLevel()));
+
+        List<VehicleRunnable> runnables = new ArrayList<>();
+        for (int i = 0; i < fleet.size(); i++) {
+            VehicleRunnable r = new VehicleRunnable(fleet.get(i), true, 100 + i % 5 * 50);
+            runnables.add(r);
+            engine.start(r);
+        }
+        engine.runUntil(60_000);
+        engine.pause(runnables.get(4));
+        engine.scheduleRefuel(runnables.get(5), 1_000, 2.5);
+        engine.runFor(60_000);
+        engine.resume(runnables.get(4));
+        engine.stop(runnables.get(6));
+        engine.runFor(60_000);
+
+        for (Vehicle v : fleet) {
+            trace.add("end " + v.getId() + " " + v.getCurrentMileage() + " " + ((FuelConsumable) v).getFuelLevel());
+        }
+        trace.add("end " + engine.now() + " " + engine.getProcessedEvents() + " " + engine.getPendingEvents());
+        return trace;
+    }
+
+    @Test
+    void sameSeedGivesTheSameTrace() throws Exception {
+        List<String> first = trace(42);
+        List<String> second = trace(42);
+        assertEquals(first, second);
+
+        for (EventType type : EventType.values()) {
+            assertTrue(first.stream().anyMatch(line -> line.contains(" " + type + " ")), type + " never happened");
+        }
+        long last = 0;
+        for (String line : first) {
+            if (line.startsWith("end")) break;
+            long time = Long.parseLong(line.substring(0, line.indexOf(' ')));
+            assertTrue(time >= last, line);
+            last = time;
+        }
+    }
+
+    @Test
+    void seedChangesTheTrace() throws Exception {
+        assertNotEquals(trace(42), trace(43));
+    }
+}
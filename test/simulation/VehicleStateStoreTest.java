@@ -0,0 +1,139 @@
+package simulation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.*;
+import events.EventSink;
+import events.Events;
+import exceptions.InsufficientFuelException;
+import interfaces.FuelConsumable;
+import vehicles.*;
+
+class VehicleStateStoreTest {
+    private static final int VEHICLES = 40_000; // a few fork-join leaves
+
+    private static EventSink previous;
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    static void quiet() {
+        previous = Events.setSink(null);
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void restore() {
+        pool.shutdown();
+        Events.setSink(previous);
+    }
+
+    // cars, empty and loaded trucks and buses; tank sizes spread so vehicles run dry on different ticks
+    private static List<Vehicle> fleet() throws Exception {
+        List<Vehicle> list = new ArrayList<>(VEHICLES);
+        for (int i = 0; i < VEHICLES; i++) {
+            String id = "V" + i;
+            Vehicle v;
+            switch (i % 4) {
+                case 0: v = new Car(id, "Sim", 120, 4, i, 0, false); break;
+                case 1: v = new Truck(id, "Sim", 90, 6, i, 0, false); break;
+                case 2: v = new Truck(id, "Sim", 90, 6, i, 4_000, false); break;
+                default: v = new Bus(id, "Sim", 80, 6, i, 0, 0, false); break;
+            }
+            ((FuelConsumable) v).refuel(0.05 + (i % 97) * 0.0313);
+            list.add(v);
+        }
+        return list;
+    }
+
+    // what VehicleRunnable does per tick, one object at a time; returns the vehicle-ticks performed
+    private static long tick(List<Vehicle> fleet, boolean[] stopped) {
+        long moved = 0;
+        for (int i = 0; i < fleet.size(); i++) {
+            if (stopped[i]) continue;
+            Vehicle v = fleet.get(i);
+            try {
+                ((FuelConsumable) v).consumeFuel(1);
+                v.setCurrentMileage(1);
+                moved++;
+            } catch (InsufficientFuelException e) {
+                stopped[i] = true;
+            }
+        }
+        return moved;
+    }
+
+    private static void assertSameState(List<Vehicle> expected, List<Vehicle> actual, VehicleStateStore store) {
+        for (int i = 0; i < expected.size(); i++) {
+            Vehicle e = expected.get(i), a = actual.get(i);
+            assertEquals(e.getCurrentMileage(), a.getCurrentMileage(), e.getId());
+            assertEquals(((FuelConsumable) e).getFuelLevel(), ((FuelConsumable) a).getFuelLevel(), 1e-9, e.getId());
+            assertEquals(a.getCurrentMileage(), store.getMileage(i), a.getId());
+            assertEquals(((FuelConsumable) a).getFuelLevel(), store.getFuel(i), a.getId());
+            assertEquals(0, store.getPendingKm(i), a.getId());
+        }
+    }
+
+    @Test
+    void advanceAndSyncMatchPerObjectTicks() throws Exception {
+        List<Vehicle> objects = fleet();
+        List<Vehicle> stored = fleet();
+        VehicleStateStore store = new VehicleStateStore(stored, pool);
+        boolean[] stopped = new boolean[VEHICLES];
+
+        long expected = 0, actual = 0;
+        for (int t = 0; t < 10; t++) {
+            expected += tick(objects, stopped);
+            actual += store.advance(1);
+        }
+        for (int t = 0; t < 30; t++) expected += tick(objects, stopped);
+        actual += store.advance(1, 30);
+        assertEquals(expected, actual);
+
+        for (int i = 0; i < VEHICLES; i++) {
+            assertEquals(objects.get(i).getCurrentMileage(), store.getMileage(i), objects.get(i).getId());
+            assertEquals(stopped[i] ? VehicleStateStore.OUT_OF_FUEL : VehicleStateStore.ACTIVE, store.getState(i));
+        }
+        int dry = 0;
+        for (boolean s : stopped) if (s) dry++;
+        assertTrue(dry > 0 && dry < VEHICLES, "dry: " + dry);
+        assertEquals(dry, store.countInState(VehicleStateStore.OUT_OF_FUEL));
+
+        int moved = 0;
+        for (int i = 0; i < VEHICLES; i++) {
+            if (objects.get(i).getCurrentMileage() > i) moved++;
+        }
+        assertEquals(moved, store.sync());
+        assertSameState(objects, stored, store);
+    }
+
+    @Test
+    void syncPicksUpRefuelsAndPausedSlotsStay() throws Exception {
+        List<Vehicle> objects = fleet();
+        List<Vehicle> stored = fleet();
+        VehicleStateStore store = new VehicleStateStore(stored, pool);
+        boolean[] stopped = new boolean[VEHICLES];
+
+        for (int t = 0; t < 40; t++) tick(objects, stopped);
+        store.advance(1, 40);
+        store.sync();
+
+        // refuel every tenth vehicle on both sides; pause every seventh in the store and the loop
+        for (int i = 0; i < VEHICLES; i += 10) {
+            ((FuelConsumable) objects.get(i)).refuel(2);
+            ((FuelConsumable) stored.get(i)).refuel(2);
+            stopped[i] = false;
+        }
+        store.sync();
+        for (int i = 0; i < VEHICLES; i += 7) {
+            store.setActive(i, false);
+            stopped[i] = true;
+        }
+        for (int t = 0; t < 25; t++) tick(objects, stopped);
+        store.advance(1, 25);
+        store.sync();
+        assertSameState(objects, stored, store);
+        assertEquals((VEHICLES + 6) / 7, store.countInState(VehicleStateStore.PAUSED));
+    }
+}